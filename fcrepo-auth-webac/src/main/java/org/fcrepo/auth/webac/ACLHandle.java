@@ -31,6 +31,9 @@ public class ACLHandle {
     public final FedoraResource resource;
 
     public final List<WebACAuthorization> authorizations;
+
+    public final WebACAuthorizationIndex index;
+
     /**
      * Default constructor.
      *
@@ -40,6 +43,7 @@ public class ACLHandle {
     public ACLHandle(final FedoraResource resource, final List<WebACAuthorization> authorizations) {
         this.resource = resource;
         this.authorizations = authorizations;
+        this.index = new WebACAuthorizationIndex(authorizations);
     }
 
 }
@@ -17,10 +17,14 @@
  */
 package org.fcrepo.auth.webac;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Files;
 
 import javax.servlet.ReadListener;
 import javax.servlet.ServletInputStream;
@@ -29,18 +33,33 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+import org.slf4j.Logger;
+
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
- * An extension of HttpServletRequestWrapper that caches the InputStream as
- * byte array and overrides the getInputStream to return a new InputStream
- * object each time based on the cached byte array.
+ * An extension of HttpServletRequestWrapper that caches the InputStream and overrides the getInputStream to
+ * return a new InputStream object each time based on the cached content. Content up to a threshold size is
+ * cached in memory, larger content is spilled to a temporary file which is removed by {@link #cleanup()}.
  * 
  * @author mohideen
  */
 public class CachedHttpRequest extends HttpServletRequestWrapper {
 
+    private static final Logger LOGGER = getLogger(CachedHttpRequest.class);
+
+    /**
+     * The default number of bytes cached in memory before spilling to a temporary file.
+     */
+    public static final int DEFAULT_MEMORY_THRESHOLD = 1024 * 1024;
+
+    private final int memoryThreshold;
+
     private byte[] cachedContent;
 
+    private File cachedFile;
+
     private BufferedReader reader;
 
     /**
@@ -48,16 +67,30 @@ public class CachedHttpRequest extends HttpServletRequestWrapper {
      * @param request the original servlet request
      */
     public CachedHttpRequest(final ServletRequest request) {
+        this(request, DEFAULT_MEMORY_THRESHOLD);
+    }
+
+    /**
+     * Create a new CachedHttpRequest for the given servlet request.
+     * @param request the original servlet request
+     * @param memoryThreshold the number of bytes cached in memory before spilling to a temporary file
+     */
+    public CachedHttpRequest(final ServletRequest request, final int memoryThreshold) {
         super((HttpServletRequest) request);
+        this.memoryThreshold = memoryThreshold;
     }
 
     @Override
     public ServletInputStream getInputStream() throws IOException {
         if (getRequest().getInputStream() != null) {
-            if (this.cachedContent == null) {
-                this.cachedContent = IOUtils.toByteArray(getRequest().getInputStream());
+            if (!isCached()) {
+                cacheContent();
             }
-            return new CustomServletInputStream(cachedContent);
+            if (cachedFile != null) {
+                return new CustomServletInputStream(
+                        new BufferedInputStream(Files.newInputStream(cachedFile.toPath())));
+            }
+            return new CustomServletInputStream(new ByteArrayInputStream(cachedContent));
         }
         return null;
     }
@@ -71,22 +104,75 @@ public class CachedHttpRequest extends HttpServletRequestWrapper {
         return this.reader;
     }
 
+    /**
+     * @return whether the content of the request has been read and cached
+     */
+    public boolean isCached() {
+        return cachedContent != null || cachedFile != null;
+    }
+
+    /**
+     * Remove the temporary file holding the cached content, if any.
+     */
+    public void cleanup() {
+        if (cachedFile != null) {
+            try {
+                Files.deleteIfExists(cachedFile.toPath());
+            } catch (final IOException ex) {
+                LOGGER.warn("Unable to delete cached request content {}: {}", cachedFile, ex.getMessage());
+            }
+        }
+    }
+
+    private void cacheContent() throws IOException {
+        final DeferredFileOutputStream out =
+                new DeferredFileOutputStream(memoryThreshold, "fcrepo-request-", ".tmp", null);
+        try (out) {
+            IOUtils.copy(getRequest().getInputStream(), out);
+        } catch (final IOException ex) {
+            if (out.getFile() != null) {
+                Files.deleteIfExists(out.getFile().toPath());
+            }
+            throw ex;
+        }
+        if (out.isInMemory()) {
+            this.cachedContent = out.getData();
+        } else {
+            this.cachedFile = out.getFile();
+            LOGGER.debug("Cached {} bytes of request content in {}", out.getByteCount(), cachedFile);
+        }
+    }
+
     private static class CustomServletInputStream extends ServletInputStream {
 
-        private final ByteArrayInputStream buffer;
+        private final InputStream buffer;
 
-        public CustomServletInputStream(final byte[] contents) {
-            this.buffer = new ByteArrayInputStream(contents);
+        public CustomServletInputStream(final InputStream contents) {
+            this.buffer = contents;
         }
 
         @Override
-        public int read() {
+        public int read() throws IOException {
             return buffer.read();
         }
 
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            return buffer.read(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            buffer.close();
+        }
+
         @Override
         public boolean isFinished() {
-            return buffer.available() == 0;
+            try {
+                return buffer.available() == 0;
+            } catch (final IOException ex) {
+                return true;
+            }
         }
 
         @Override
@@ -0,0 +1,143 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.auth.webac;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the repository resources changed by events, so that cached values derived from a resource or any of its
+ * ancestors are recognized as stale when they are read rather than searched for when the event arrives. Cached
+ * values are stamped with the generation current when their load began, so a load which overlaps an invalidation
+ * is discarded as well.
+ *
+ * @author agent
+ */
+class InvalidationTracker {
+
+    private static final int PRUNE_INTERVAL = 1000;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Map<String, Invalidation> invalidations = new ConcurrentHashMap<>();
+
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    private final long retentionNanos;
+
+    private volatile long allInvalidatedAt = -1;
+
+    /**
+     * @param retention how long invalidations are remembered, which must be at least as long as any value stamped
+     *                  by this tracker is cached
+     * @param unit the unit of the retention
+     */
+    InvalidationTracker(final long retention, final TimeUnit unit) {
+        this.retentionNanos = unit.toNanos(retention);
+    }
+
+    /**
+     * @return the generation to stamp a value with, read before the value starts loading
+     */
+    long currentGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Invalidate the values derived from a resource or any of its descendants.
+     *
+     * @param id the id of the resource, without any hash fragment
+     */
+    void invalidate(final String id) {
+        invalidations.put(id, new Invalidation(generation.incrementAndGet(), System.nanoTime()));
+        if (invalidationCount.incrementAndGet() % PRUNE_INTERVAL == 0) {
+            prune();
+        }
+    }
+
+    /**
+     * Invalidate all values.
+     */
+    void invalidateAll() {
+        allInvalidatedAt = generation.incrementAndGet();
+    }
+
+    /**
+     * Determine whether a value derived from a resource is still current.
+     *
+     * @param id the id of the resource, without any hash fragment
+     * @param stamp the generation the value was stamped with
+     * @return false if the resource or any of its ancestors has been invalidated since the value started loading
+     */
+    boolean isCurrent(final String id, final long stamp) {
+        if (allInvalidatedAt > stamp) {
+            return false;
+        }
+        for (String path = id; path != null; path = parentOf(path)) {
+            final Invalidation invalidation = invalidations.get(path);
+            if (invalidation != null && invalidation.generation > stamp) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String parentOf(final String path) {
+        final int slash = path.lastIndexOf('/');
+        return slash > 0 ? path.substring(0, slash) : null;
+    }
+
+    /**
+     * Forget the invalidations older than any value which may still be cached.
+     */
+    private void prune() {
+        final long cutoff = System.nanoTime() - retentionNanos;
+        invalidations.values().removeIf(invalidation -> invalidation.time - cutoff < 0);
+    }
+
+    /**
+     * A cached value along with the generation it was stamped with.
+     *
+     * @param <V> the type of the value
+     */
+    static final class Stamped<V> {
+
+        final V value;
+
+        final long generation;
+
+        Stamped(final V value, final long generation) {
+            this.value = value;
+            this.generation = generation;
+        }
+    }
+
+    private static final class Invalidation {
+
+        private final long generation;
+
+        private final long time;
+
+        private Invalidation(final long generation, final long time) {
+            this.generation = generation;
+            this.time = time;
+        }
+    }
+}
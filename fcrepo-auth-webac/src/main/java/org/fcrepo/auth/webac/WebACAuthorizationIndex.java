@@ -0,0 +1,158 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.auth.webac;
+
+import static org.fcrepo.auth.webac.URIConstants.FOAF_AGENT_VALUE;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_AUTHENTICATED_AGENT_VALUE;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * An immutable index over the acl:Authorizations of an ACL. The acl:accessTo and acl:accessToClass values are
+ * mapped to the authorizations which reference them, and the acl:mode values granted to each agent are
+ * precomputed, so resolving the roles for a resource only takes a few hash lookups.
+ *
+ * @author agent
+ */
+public class WebACAuthorizationIndex {
+
+    private final List<WebACAuthorization> authorizations;
+
+    /**
+     * The distinct acl:mode values of the ACL, the position of a mode is its bit in the mode sets below.
+     */
+    private final List<String> modes = new ArrayList<>();
+
+    private final Map<String, BitSet> authorizationsByAccessTo = new HashMap<>();
+
+    private final Map<String, BitSet> authorizationsByAccessToClass = new HashMap<>();
+
+    /**
+     * For each authorization, the modes granted to each acl:agent and to the public and authenticated
+     * acl:agentClass values.
+     */
+    private final List<Map<String, BitSet>> agentModes = new ArrayList<>();
+
+    /**
+     * For each authorization, the modes granted to the members of its acl:agentGroup values.
+     */
+    private final List<BitSet> authorizationModes = new ArrayList<>();
+
+    /**
+     * Constructor
+     *
+     * @param authorizations the acl:Authorizations of the ACL
+     */
+    public WebACAuthorizationIndex(final List<WebACAuthorization> authorizations) {
+        this.authorizations = List.copyOf(authorizations);
+
+        final Map<String, Integer> modeBits = new HashMap<>();
+        for (int i = 0; i < this.authorizations.size(); i++) {
+            final WebACAuthorization authorization = this.authorizations.get(i);
+            final int position = i;
+            authorization.getAccessToURIs().forEach(uri ->
+                    authorizationsByAccessTo.computeIfAbsent(uri, key -> new BitSet()).set(position));
+            authorization.getAccessToClassURIs().forEach(uri ->
+                    authorizationsByAccessToClass.computeIfAbsent(uri, key -> new BitSet()).set(position));
+
+            final BitSet grantedModes = new BitSet();
+            for (final URI mode : authorization.getModes()) {
+                grantedModes.set(modeBits.computeIfAbsent(mode.toString(), key -> {
+                    modes.add(key);
+                    return modes.size() - 1;
+                }));
+            }
+            authorizationModes.add(grantedModes);
+
+            final Map<String, BitSet> grantedByAgent = new HashMap<>();
+            authorization.getAgents().stream()
+                    .filter(agent -> !isAgentClass(agent))
+                    .forEach(agent -> grantedByAgent.put(agent, grantedModes));
+            authorization.getAgentClasses().stream()
+                    .filter(WebACAuthorizationIndex::isAgentClass)
+                    .forEach(agentClass -> grantedByAgent.put(agentClass, grantedModes));
+            agentModes.add(grantedByAgent);
+        }
+    }
+
+    /**
+     * Get the acl:Authorizations of the ACL.
+     *
+     * @return the list of acl:Authorizations
+     */
+    public List<WebACAuthorization> getAuthorizations() {
+        return authorizations;
+    }
+
+    /**
+     * Resolve the acl:mode values granted to each agent by the authorizations which apply to any of the given
+     * resources or rdf:types. Modes granted to the same agent by several authorizations are combined.
+     *
+     * @param resourceIds the acceptable acl:accessTo values
+     * @param rdfTypes the acceptable acl:accessToClass values
+     * @param groupMembers function resolving a collection of acl:agentGroup values to their member agents
+     * @return a map of agent to acl:mode values
+     */
+    public Map<String, Collection<String>> getRoles(final Collection<String> resourceIds,
+                                                    final Collection<String> rdfTypes,
+                                                    final Function<Collection<String>, List<String>> groupMembers) {
+        final BitSet applicable = new BitSet(authorizations.size());
+        resourceIds.forEach(id -> orInto(applicable, authorizationsByAccessTo.get(id)));
+        rdfTypes.forEach(type -> orInto(applicable, authorizationsByAccessToClass.get(type)));
+
+        final Map<String, BitSet> grantedModes = new HashMap<>();
+        for (int i = applicable.nextSetBit(0); i >= 0; i = applicable.nextSetBit(i + 1)) {
+            agentModes.get(i).forEach((agent, agentModeBits) ->
+                    grantedModes.computeIfAbsent(agent, key -> new BitSet()).or(agentModeBits));
+
+            final WebACAuthorization authorization = authorizations.get(i);
+            if (!authorization.getAgentGroups().isEmpty()) {
+                final BitSet groupModeBits = authorizationModes.get(i);
+                groupMembers.apply(authorization.getAgentGroups()).stream()
+                        .filter(agent -> !isAgentClass(agent))
+                        .forEach(agent -> grantedModes.computeIfAbsent(agent, key -> new BitSet()).or(groupModeBits));
+            }
+        }
+
+        final Map<String, Collection<String>> roles = new HashMap<>();
+        grantedModes.forEach((agent, modeBits) -> {
+            final Collection<String> agentRoles = new HashSet<>();
+            modeBits.stream().forEach(bit -> agentRoles.add(modes.get(bit)));
+            roles.put(agent, agentRoles);
+        });
+        return roles;
+    }
+
+    private static void orInto(final BitSet target, final BitSet source) {
+        if (source != null) {
+            target.or(source);
+        }
+    }
+
+    private static boolean isAgentClass(final String agent) {
+        return agent.equals(FOAF_AGENT_VALUE) || agent.equals(WEBAC_AUTHENTICATED_AGENT_VALUE);
+    }
+}
@@ -17,15 +17,22 @@
  */
 package org.fcrepo.auth.webac;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
 import org.apache.http.auth.BasicUserPrincipal;
 import org.apache.shiro.authc.AuthenticationException;
 import org.apache.shiro.authc.AuthenticationInfo;
 import org.apache.shiro.authc.AuthenticationToken;
 import org.apache.shiro.authz.AuthorizationInfo;
+import org.apache.shiro.authz.Permission;
 import org.apache.shiro.authz.SimpleAuthorizationInfo;
 import org.apache.shiro.realm.AuthorizingRealm;
 import org.apache.shiro.subject.PrincipalCollection;
 import org.fcrepo.auth.common.ContainerRolesPrincipalProvider.ContainerRolesPrincipal;
+import org.fcrepo.auth.webac.InvalidationTracker.Stamped;
 import org.fcrepo.http.commons.session.TransactionProvider;
 import org.fcrepo.kernel.api.ContainmentIndex;
 import org.fcrepo.kernel.api.Transaction;
@@ -36,23 +43,33 @@ import org.fcrepo.kernel.api.exception.RepositoryConfigurationException;
 import org.fcrepo.kernel.api.identifiers.FedoraId;
 import org.fcrepo.kernel.api.models.FedoraResource;
 import org.fcrepo.kernel.api.models.ResourceFactory;
+import org.fcrepo.kernel.api.observer.Event;
 import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import java.net.URI;
 import java.security.Principal;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static org.fcrepo.auth.common.DelegateHeaderPrincipalProvider.DelegatedHeaderPrincipal;
 import static org.fcrepo.auth.common.HttpHeaderPrincipalProvider.HttpHeaderPrincipal;
 import static org.fcrepo.auth.common.ServletContainerAuthFilter.FEDORA_ADMIN_ROLE;
 import static org.fcrepo.auth.common.ServletContainerAuthFilter.FEDORA_USER_ROLE;
 import static org.fcrepo.auth.webac.URIConstants.FOAF_AGENT_VALUE;
+import static org.fcrepo.auth.webac.URIConstants.VCARD_GROUP_VALUE;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_AUTHENTICATED_AGENT_VALUE;
 import static org.fcrepo.auth.webac.WebACFilter.getBaseUri;
 import static org.fcrepo.auth.webac.WebACFilter.identifierConverter;
@@ -75,6 +92,21 @@ public class WebACAuthorizingRealm extends AuthorizingRealm {
 
     public static final String URIS_TO_AUTHORIZE = "URIS_TO_AUTHORIZE";
 
+    /**
+     * Request attribute holding the roles already resolved for each URI during the request.
+     */
+    private static final String ROLES_FOR_URI = WebACAuthorizingRealm.class.getName() + ".rolesForURI";
+
+    /**
+     * Request attribute holding the last authorization info computed during the request.
+     */
+    private static final String AUTHORIZATION_INFO = WebACAuthorizingRealm.class.getName() + ".authorizationInfo";
+
+    /**
+     * Request attribute holding the decision cache generation at which roles were first resolved during the request.
+     */
+    private static final String ROLES_GENERATION = WebACAuthorizingRealm.class.getName() + ".rolesGeneration";
+
     @Inject
     private HttpServletRequest request;
 
@@ -90,6 +122,68 @@ public class WebACAuthorizingRealm extends AuthorizingRealm {
     @Inject
     private ContainmentIndex containmentIndex;
 
+    @Inject
+    private EventBus eventBus;
+
+    /**
+     * How long, in seconds, the permissions granted to a set of agents on a resource are cached. Set to 0 to
+     * disable the decision cache.
+     */
+    @Value("${fcrepo.auth.webac.decision.cache.ttl:0}")
+    private long decisionCacheTtlSeconds;
+
+    @Value("${fcrepo.auth.webac.decision.cache.size:10000}")
+    private long decisionCacheSize;
+
+    private Cache<DecisionKey, Stamped<Set<Permission>>> decisionCache;
+
+    private InvalidationTracker invalidations;
+
+    /**
+     * Set up the decision cache, if enabled.
+     */
+    @PostConstruct
+    public void setup() {
+        if (decisionCacheTtlSeconds > 0) {
+            decisionCache = CacheBuilder.newBuilder()
+                    .maximumSize(decisionCacheSize)
+                    .expireAfterWrite(decisionCacheTtlSeconds, TimeUnit.SECONDS)
+                    .build();
+            invalidations = new InvalidationTracker(decisionCacheTtlSeconds, TimeUnit.SECONDS);
+            eventBus.register(this);
+        }
+    }
+
+    /**
+     * Stop listening for repository events.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (decisionCache != null) {
+            eventBus.unregister(this);
+        }
+    }
+
+    /**
+     * Invalidate the cached decisions for the resource affected by a repository event and for its descendants,
+     * which may inherit its ACL. A change to a group, including a group which has been deleted or is no longer a
+     * vcard:Group, invalidates every cached decision, as any ACL may refer to it.
+     *
+     * @param event the repository event
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onEvent(final Event event) {
+        final String baseId = event.getFedoraId().getBaseId();
+        if (event.getResourceTypes().contains(VCARD_GROUP_VALUE) || rolesProvider.isAgentGroup(baseId)) {
+            log.debug("Invalidating all cached authorization decisions");
+            invalidations.invalidateAll();
+        } else {
+            log.debug("Invalidating cached authorization decisions at or below {}", baseId);
+            invalidations.invalidate(baseId);
+        }
+    }
+
     private Transaction transaction() {
         final String txId = request.getHeader(ATOMIC_ID_HEADER);
         if (txId == null) {
@@ -101,6 +195,22 @@ public class WebACAuthorizingRealm extends AuthorizingRealm {
 
     @Override
     protected AuthorizationInfo doGetAuthorizationInfo(final PrincipalCollection principals) {
+        // Shiro asks for the authorization info on every permission check, but it only changes during a request
+        // when more URIs are added to be authorized.
+        @SuppressWarnings("unchecked")
+        final Set<URI> requestedURIs = (Set<URI>) request.getAttribute(URIS_TO_AUTHORIZE);
+        final Set<URI> targetURIs = requestedURIs == null ? Set.of() : Set.copyOf(requestedURIs);
+        final RequestAuthorizationInfo cached = (RequestAuthorizationInfo) request.getAttribute(AUTHORIZATION_INFO);
+        if (cached != null && cached.principals.equals(principals) && cached.targetURIs.equals(targetURIs)) {
+            log.debug("Reusing authorization info for {}", targetURIs);
+            return cached.authorizationInfo;
+        }
+        final AuthorizationInfo authzInfo = getAuthorizationInfo(principals, targetURIs);
+        request.setAttribute(AUTHORIZATION_INFO, new RequestAuthorizationInfo(principals, targetURIs, authzInfo));
+        return authzInfo;
+    }
+
+    private AuthorizationInfo getAuthorizationInfo(final PrincipalCollection principals, final Set<URI> targetURIs) {
         final SimpleAuthorizationInfo authzInfo = new SimpleAuthorizationInfo();
         boolean isAdmin = false;
 
@@ -123,45 +233,23 @@ public class WebACAuthorizingRealm extends AuthorizingRealm {
             authzInfo.addRole(FEDORA_USER_ROLE);
         }
 
-        // for non-admins, we must check the ACL for the requested resource
-        @SuppressWarnings("unchecked")
-        Set<URI> targetURIs = (Set<URI>) request.getAttribute(URIS_TO_AUTHORIZE);
-        if (targetURIs == null) {
-            targetURIs = new HashSet<>();
-        }
-        final Map<URI, Map<String, Collection<String>>> rolesForURI =
-                new HashMap<URI, Map<String, Collection<String>>>();
-        final String contextPath = request.getContextPath() + request.getServletPath();
-        for (final URI uri : targetURIs) {
-            if (identifierConverter(request).inInternalDomain(uri.toString())) {
-                final FedoraId id = FedoraId.create(uri.toString());
-                log.debug("Getting roles for id {}", id.getFullId());
-                rolesForURI.put(uri, getRolesForId(id));
-            } else {
-                String path = uri.getPath();
-                if (path.startsWith(contextPath)) {
-                    path = path.replaceFirst(contextPath, "");
-                }
-                log.debug("Getting roles for path {}", path);
-                rolesForURI.put(uri, getRolesForPath(path));
-            }
-        }
-
         for (final Object o : principals.asList()) {
             log.debug("User has principal with name: {}", ((Principal) o).getName());
         }
         final Principal userPrincipal = principals.oneByType(BasicUserPrincipal.class);
         final Collection<HttpHeaderPrincipal> headerPrincipals = principals.byType(HttpHeaderPrincipal.class);
+        // The agents whose permissions are granted to the principals
+        final Set<String> agents = new HashSet<>();
         // Add permissions for user or delegated user principal
         if (isAdmin && delegatePrincipals.size() == 1) {
             final DelegatedHeaderPrincipal delegatedPrincipal = delegatePrincipals.iterator().next();
             log.debug("Admin user is delegating to {}", delegatedPrincipal);
-            addPermissions(authzInfo, rolesForURI, delegatedPrincipal.getName());
-            addPermissions(authzInfo, rolesForURI, WEBAC_AUTHENTICATED_AGENT_VALUE);
+            agents.add(delegatedPrincipal.getName());
+            agents.add(WEBAC_AUTHENTICATED_AGENT_VALUE);
         } else if (userPrincipal != null) {
             log.debug("Basic user principal username: {}", userPrincipal.getName());
-            addPermissions(authzInfo, rolesForURI, userPrincipal.getName());
-            addPermissions(authzInfo, rolesForURI, WEBAC_AUTHENTICATED_AGENT_VALUE);
+            agents.add(userPrincipal.getName());
+            agents.add(WEBAC_AUTHENTICATED_AGENT_VALUE);
         } else {
             log.debug("No basic user principal found");
         }
@@ -170,50 +258,138 @@ public class WebACAuthorizingRealm extends AuthorizingRealm {
             log.debug("No header principals found!");
         }
         headerPrincipals.forEach((headerPrincipal) -> {
-            addPermissions(authzInfo, rolesForURI, headerPrincipal.getName());
+            agents.add(headerPrincipal.getName());
         });
 
         // Added FOAF_AGENT permissions for both authenticated and unauthenticated users
-        addPermissions(authzInfo, rolesForURI, FOAF_AGENT_VALUE);
+        agents.add(FOAF_AGENT_VALUE);
+
+        // for non-admins, we must check the ACL for the requested resource
+        authzInfo.addObjectPermissions(getPermissions(Set.copyOf(agents), targetURIs));
 
         return authzInfo;
 
     }
 
-    private Map<String, Collection<String>> getRolesForPath(final String path) {
-        final FedoraId id = identifierConverter(request).pathToInternalId(path);
-        return getRolesForId(id);
+    /**
+     * Get the permissions granted to the agents on each of the URIs. Outside of a transaction, decisions for the
+     * same agents and resource are reused from the decision cache when it is enabled.
+     */
+    private Set<Permission> getPermissions(final Set<String> agents, final Set<URI> targetURIs) {
+        final Transaction transaction = transaction();
+        if (decisionCache == null || transaction != null) {
+            return getPermissions(agents, getRolesForURIs(targetURIs, transaction));
+        }
+
+        final Set<Permission> permissions = new HashSet<>();
+        final Map<URI, DecisionKey> uncachedKeys = new HashMap<>();
+        for (final URI uri : targetURIs) {
+            final DecisionKey key = new DecisionKey(agents, uri, toFedoraId(uri).getFullId());
+            final Stamped<Set<Permission>> cached = decisionCache.getIfPresent(key);
+            if (cached == null || !invalidations.isCurrent(key.resourceId, cached.generation)) {
+                uncachedKeys.put(uri, key);
+            } else {
+                log.debug("Using cached authorization decision for {}", uri);
+                permissions.addAll(cached.value);
+            }
+        }
+
+        if (!uncachedKeys.isEmpty()) {
+            final Map<URI, Map<String, Collection<String>>> rolesForURIs =
+                    getRolesForURIs(uncachedKeys.keySet(), null);
+            // the roles may have been resolved earlier in the request, so stamp decisions from when that began
+            final long generation = (Long) request.getAttribute(ROLES_GENERATION);
+            rolesForURIs.forEach((uri, roles) -> {
+                final Set<Permission> uriPermissions = getPermissions(agents, Collections.singletonMap(uri, roles));
+                decisionCache.put(uncachedKeys.get(uri), new Stamped<>(uriPermissions, generation));
+                permissions.addAll(uriPermissions);
+            });
+        }
+        return permissions;
+    }
+
+    /**
+     * Get the roles for each of the URIs. Roles resolved earlier in the request are reused, and the remaining
+     * URIs are resolved together so that ACL lookups of their shared ancestors are only made once.
+     */
+    private Map<URI, Map<String, Collection<String>>> getRolesForURIs(final Set<URI> targetURIs,
+                                                                     final Transaction transaction) {
+        @SuppressWarnings("unchecked")
+        Map<URI, Map<String, Collection<String>>> resolved =
+                (Map<URI, Map<String, Collection<String>>>) request.getAttribute(ROLES_FOR_URI);
+        if (resolved == null) {
+            resolved = new HashMap<>();
+            request.setAttribute(ROLES_FOR_URI, resolved);
+            if (invalidations != null) {
+                request.setAttribute(ROLES_GENERATION, invalidations.currentGeneration());
+            }
+        }
+
+        final List<URI> unresolvedURIs = new ArrayList<>();
+        final List<FedoraResource> resources = new ArrayList<>();
+        for (final URI uri : targetURIs) {
+            if (resolved.containsKey(uri)) {
+                continue;
+            }
+            final FedoraId id = toFedoraId(uri);
+            log.debug("Getting roles for id {}", id.getFullId());
+            final FedoraResource fedoraResource = getResourceOrParentFromPath(transaction, id);
+            if (fedoraResource == null) {
+                resolved.put(uri, null);
+            } else {
+                unresolvedURIs.add(uri);
+                resources.add(fedoraResource);
+            }
+        }
+
+        if (!resources.isEmpty()) {
+            // check ACL for the request URIs and get a mapping of agent => modes for each
+            final List<Map<String, Collection<String>>> roles = rolesProvider.getRoles(resources, transaction);
+            for (int i = 0; i < unresolvedURIs.size(); i++) {
+                resolved.put(unresolvedURIs.get(i), roles.get(i));
+            }
+        }
+
+        final Map<URI, Map<String, Collection<String>>> rolesForURI = new HashMap<>();
+        for (final URI uri : targetURIs) {
+            rolesForURI.put(uri, resolved.get(uri));
+        }
+        return rolesForURI;
     }
 
-    private Map<String, Collection<String>> getRolesForId(final FedoraId id) {
-        Map<String, Collection<String>> roles = null;
-        final FedoraResource fedoraResource = getResourceOrParentFromPath(id);
-        if (fedoraResource != null) {
-            // check ACL for the request URI and get a mapping of agent => modes
-            roles = rolesProvider.getRoles(fedoraResource, transaction());
+    private FedoraId toFedoraId(final URI uri) {
+        if (identifierConverter(request).inInternalDomain(uri.toString())) {
+            return FedoraId.create(uri.toString());
         }
-        return roles;
+        final String contextPath = request.getContextPath() + request.getServletPath();
+        String path = uri.getPath();
+        if (path.startsWith(contextPath)) {
+            path = path.replaceFirst(contextPath, "");
+        }
+        return identifierConverter(request).pathToInternalId(path);
     }
 
-    private void addPermissions(final SimpleAuthorizationInfo authzInfo,
-            final Map<URI, Map<String, Collection<String>>> rolesForURI, final String agentName) {
-        if (rolesForURI != null) {
-            for (final URI uri : rolesForURI.keySet()) {
-                log.debug("Adding permissions gathered for URI {}", uri);
-                final Map<String, Collection<String>> roles = rolesForURI.get(uri);
-                if (roles != null) {
+    private Set<Permission> getPermissions(final Set<String> agents,
+                                           final Map<URI, Map<String, Collection<String>>> rolesForURI) {
+        final Set<Permission> permissions = new HashSet<>();
+        for (final URI uri : rolesForURI.keySet()) {
+            log.debug("Adding permissions gathered for URI {}", uri);
+            final Map<String, Collection<String>> roles = rolesForURI.get(uri);
+            if (roles != null) {
+                for (final String agentName : agents) {
                     final Collection<String> modesForUser = roles.get(agentName);
                     if (modesForUser != null) {
                         // add WebACPermission instance for each mode in the Authorization
                         for (final String mode : modesForUser) {
                             final WebACPermission perm = new WebACPermission(URI.create(mode), uri);
-                            authzInfo.addObjectPermission(perm);
+                            permissions.add(perm);
                             log.debug("Added permission {}", perm);
                         }
                     }
                 }
             }
         }
+        return permissions;
     }
 
     /**
@@ -233,18 +409,18 @@ public class WebACAuthorizingRealm extends AuthorizingRealm {
         return false;
     }
 
-    private FedoraResource getResourceOrParentFromPath(final FedoraId fedoraId) {
+    private FedoraResource getResourceOrParentFromPath(final Transaction transaction, final FedoraId fedoraId) {
         try {
             log.debug("Testing FedoraResource for {}", fedoraId.getFullIdPath());
-            return this.resourceFactory.getResource(transaction(), fedoraId);
+            return this.resourceFactory.getResource(transaction, fedoraId);
         } catch (final PathNotFoundException exc) {
             log.debug("Resource {} not found getting container", fedoraId.getFullIdPath());
             final FedoraId containerId =
-                    containmentIndex.getContainerIdByPath(TransactionUtils.openTxId(transaction()), fedoraId);
+                    containmentIndex.getContainerIdByPath(TransactionUtils.openTxId(transaction), fedoraId);
             log.debug("Attempting to get FedoraResource for {}", fedoraId.getFullIdPath());
             try {
                 log.debug("Got FedoraResource for {}", containerId.getFullIdPath());
-                return this.resourceFactory.getResource(transaction(), containerId);
+                return this.resourceFactory.getResource(transaction, containerId);
             } catch (final PathNotFoundException exc2) {
                 log.debug("Path {} does not exist, but we should never end up here.", containerId.getFullIdPath());
                 return null;
@@ -252,4 +428,59 @@ public class WebACAuthorizingRealm extends AuthorizingRealm {
         }
     }
 
+    /**
+     * Key of the decision cache: the agents whose permissions are granted and the URI being authorized, along
+     * with the internal id of the resource it refers to.
+     */
+    private static final class DecisionKey {
+
+        private final Set<String> agents;
+
+        private final URI uri;
+
+        private final String resourceId;
+
+        private DecisionKey(final Set<String> agents, final URI uri, final String resourceId) {
+            this.agents = agents;
+            this.uri = uri;
+            this.resourceId = resourceId;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DecisionKey)) {
+                return false;
+            }
+            final DecisionKey other = (DecisionKey) o;
+            return agents.equals(other.agents) && uri.equals(other.uri) && resourceId.equals(other.resourceId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(agents, uri, resourceId);
+        }
+    }
+
+    /**
+     * The authorization info computed for a set of principals and URIs during a request.
+     */
+    private static class RequestAuthorizationInfo {
+
+        private final PrincipalCollection principals;
+
+        private final Set<URI> targetURIs;
+
+        private final AuthorizationInfo authorizationInfo;
+
+        private RequestAuthorizationInfo(final PrincipalCollection principals, final Set<URI> targetURIs,
+                                         final AuthorizationInfo authorizationInfo) {
+            this.principals = principals;
+            this.targetURIs = targetURIs;
+            this.authorizationInfo = authorizationInfo;
+        }
+    }
+
 }
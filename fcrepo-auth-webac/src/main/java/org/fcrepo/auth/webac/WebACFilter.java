@@ -24,12 +24,11 @@ import org.apache.jena.atlas.RuntimeIOException;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.query.QueryParseException;
-import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.RDFReader;
 import org.apache.jena.rdf.model.Resource;
-import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
 import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.system.StreamRDFBase;
 import org.apache.jena.sparql.core.Quad;
 import org.apache.jena.sparql.modify.request.UpdateData;
 import org.apache.jena.sparql.modify.request.UpdateDataDelete;
@@ -52,6 +51,7 @@ import org.fcrepo.kernel.api.identifiers.FedoraId;
 import org.fcrepo.kernel.api.models.FedoraResource;
 import org.fcrepo.kernel.api.models.ResourceFactory;
 import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.filter.RequestContextFilter;
 
 import javax.inject.Inject;
@@ -64,6 +64,7 @@ import javax.ws.rs.core.Link;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.UriBuilder;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.security.Principal;
 import java.util.Collections;
@@ -77,7 +78,6 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.toList;
 import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
 import static javax.servlet.http.HttpServletResponse.SC_FORBIDDEN;
-import static org.apache.jena.rdf.model.ModelFactory.createDefaultModel;
 import static org.apache.jena.riot.RDFLanguages.contentTypeToLang;
 import static org.apache.jena.riot.WebContent.contentTypeJSONLD;
 import static org.apache.jena.riot.WebContent.contentTypeN3;
@@ -137,6 +137,18 @@ public class WebACFilter extends RequestContextFilter {
     @Inject
     private TransactionManager transactionManager;
 
+    /**
+     * The number of bytes of a request body inspected for authorization which are held in memory, larger bodies
+     * are spilled to a temporary file.
+     */
+    @Value("${fcrepo.auth.webac.request.buffer.threshold:" + CachedHttpRequest.DEFAULT_MEMORY_THRESHOLD + "}")
+    private int requestBufferThreshold = CachedHttpRequest.DEFAULT_MEMORY_THRESHOLD;
+
+    /**
+     * Request attribute holding the parsed SPARQL Update of a request, so it is only parsed once.
+     */
+    private static final String SPARQL_UPDATE_ATTRIBUTE = WebACFilter.class.getName() + ".sparqlUpdate";
+
     private static Set<URI> directOrIndirect = Set.of(INDIRECT_CONTAINER, DIRECT_CONTAINER).stream()
             .map(Resource::toString).map(URI::create).collect(Collectors.toSet());
 
@@ -192,11 +204,23 @@ public class WebACFilter extends RequestContextFilter {
     protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
                                     final FilterChain chain) throws ServletException, IOException {
         final Subject currentUser = SecurityUtils.getSubject();
-        HttpServletRequest httpRequest = request;
-        if (isSparqlUpdate(httpRequest) || isRdfRequest(httpRequest)) {
-            // If this is a sparql request or contains RDF.
-            httpRequest = new CachedHttpRequest(httpRequest);
+        if (isSparqlUpdate(request) || isRdfRequest(request)) {
+            // If this is a sparql request or contains RDF, the body may need to be inspected before it is passed on.
+            final CachedHttpRequest cachedRequest = new CachedHttpRequest(request, requestBufferThreshold);
+            try {
+                filterRequest(cachedRequest, response, chain, currentUser);
+            } finally {
+                cachedRequest.cleanup();
+                request.removeAttribute(SPARQL_UPDATE_ATTRIBUTE);
+            }
+        } else {
+            filterRequest(request, response, chain, currentUser);
         }
+    }
+
+    private void filterRequest(final HttpServletRequest httpRequest, final HttpServletResponse response,
+                               final FilterChain chain, final Subject currentUser)
+            throws ServletException, IOException {
 
         final String requestUrl = httpRequest.getRequestURL().toString();
         try {
@@ -239,8 +263,12 @@ public class WebACFilter extends RequestContextFilter {
             }
         }
 
-        // proceed to the next filter
-        chain.doFilter(httpRequest, response);
+        // proceed to the next filter, the body only needs to be replayed if it was read during authorization
+        if (httpRequest instanceof CachedHttpRequest && !((CachedHttpRequest) httpRequest).isCached()) {
+            chain.doFilter(((CachedHttpRequest) httpRequest).getRequest(), response);
+        } else {
+            chain.doFilter(httpRequest, response);
+        }
     }
 
     private Subject getFoafAgentSubject() {
@@ -461,7 +489,7 @@ public class WebACFilter extends RequestContextFilter {
         if (httpRequest.getInputStream() != null) {
             boolean noDeletes = false;
             try {
-                noDeletes = !hasDeleteClause(IOUtils.toString(httpRequest.getInputStream(), UTF_8));
+                noDeletes = !hasDeleteClause(parseSparqlUpdate(httpRequest));
             } catch (final QueryParseException ex) {
                 log.error("Cannot verify authorization! Exception while inspecting SPARQL query!", ex);
             }
@@ -472,8 +500,7 @@ public class WebACFilter extends RequestContextFilter {
         }
     }
 
-    private boolean hasDeleteClause(final String sparqlString) {
-        final UpdateRequest sparqlUpdate = UpdateFactory.create(sparqlString);
+    private boolean hasDeleteClause(final UpdateRequest sparqlUpdate) {
         return sparqlUpdate.getOperations().stream()
                 .filter(update -> update instanceof UpdateDataDelete)
                 .map(update -> (UpdateDataDelete) update)
@@ -485,6 +512,22 @@ public class WebACFilter extends RequestContextFilter {
                 .anyMatch(update -> update.getDeleteQuads().size() > 0);
     }
 
+    /**
+     * Parse the SPARQL Update in the body of a request, the parsed update is kept for the rest of the request.
+     *
+     * @param request the http request
+     * @return the parsed SPARQL Update
+     * @throws IOException when reading the request body
+     */
+    private UpdateRequest parseSparqlUpdate(final HttpServletRequest request) throws IOException {
+        UpdateRequest sparqlUpdate = (UpdateRequest) request.getAttribute(SPARQL_UPDATE_ATTRIBUTE);
+        if (sparqlUpdate == null) {
+            sparqlUpdate = UpdateFactory.create(IOUtils.toString(request.getInputStream(), UTF_8));
+            request.setAttribute(SPARQL_UPDATE_ATTRIBUTE, sparqlUpdate);
+        }
+        return sparqlUpdate;
+    }
+
     private boolean isSparqlUpdate(final HttpServletRequest request) {
         try {
             return request.getMethod().equals("PATCH") &&
@@ -605,7 +648,8 @@ public class WebACFilter extends RequestContextFilter {
     }
 
     /**
-     * Get the memberRelation object from the contents.
+     * Get the memberRelation object from the contents. The body is parsed as a stream, which stops at the first
+     * ldp:membershipResource triple, so the rest of the RDF is never held in memory.
      *
      * @param request The request.
      * @return The URI of the memberRelation object
@@ -613,16 +657,13 @@ public class WebACFilter extends RequestContextFilter {
      */
     private URI getHasMemberFromRequest(final HttpServletRequest request) throws IOException {
         final String baseUri = request.getRequestURL().toString();
-        final RDFReader reader;
         final String contentType = request.getContentType();
         final Lang format = contentTypeToLang(contentType);
-        final Model inputModel;
-        try {
-            inputModel = createDefaultModel();
-            reader = inputModel.getReader(format.getName().toUpperCase());
-            reader.read(inputModel, request.getInputStream(), baseUri);
-            final Statement st = inputModel.getProperty(null, MEMBERSHIP_RESOURCE);
-            return (st != null ? URI.create(st.getObject().toString()) : null);
+        final MembershipResourceSink sink = new MembershipResourceSink();
+        try (final InputStream body = request.getInputStream()) {
+            RDFParser.create().source(body).base(baseUri).lang(format).parse(sink);
+        } catch (final MembershipResourceFound e) {
+            // stop parsing as soon as the ldp:membershipResource is known
         } catch (final RiotException e) {
             throw new BadRequestException("RDF was not parsable: " + e.getMessage(), e);
         } catch (final RuntimeIOException e) {
@@ -631,6 +672,37 @@ public class WebACFilter extends RequestContextFilter {
             }
             throw new RepositoryRuntimeException(e);
         }
+        return sink.membershipResource;
+    }
+
+    /**
+     * Captures the object of the first ldp:membershipResource triple of a parsed RDF stream.
+     */
+    private static class MembershipResourceSink extends StreamRDFBase {
+
+        private URI membershipResource;
+
+        @Override
+        public void triple(final Triple triple) {
+            if (triple.getPredicate().equals(MEMBERSHIP_RESOURCE.asNode())) {
+                final Node object = triple.getObject();
+                membershipResource =
+                        URI.create(object.isLiteral() ? object.getLiteralLexicalForm() : object.toString());
+                throw new MembershipResourceFound();
+            }
+        }
+    }
+
+    /**
+     * Signals that parsing can stop because the ldp:membershipResource was found.
+     */
+    private static class MembershipResourceFound extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        MembershipResourceFound() {
+            super(null, null, false, false);
+        }
     }
 
     /**
@@ -641,10 +713,9 @@ public class WebACFilter extends RequestContextFilter {
      * @throws IOException converting the request body to a string.
      */
     private URI getHasMemberFromPatch(final HttpServletRequest request) throws IOException {
-        final String sparqlString = IOUtils.toString(request.getInputStream(), UTF_8);
         final String baseURI = request.getRequestURL().toString().replace(request.getContextPath(), "").replaceAll(
                 request.getPathInfo(), "").replaceAll("rest$", "");
-        final UpdateRequest sparqlUpdate = UpdateFactory.create(sparqlString);
+        final UpdateRequest sparqlUpdate = parseSparqlUpdate(request);
         // The INSERT|DELETE DATA quads
         final Stream<Quad> insertDeleteData = sparqlUpdate.getOperations().stream()
                 .filter(update -> update instanceof UpdateData)
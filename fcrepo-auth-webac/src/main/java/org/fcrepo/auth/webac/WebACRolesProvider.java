@@ -17,13 +17,21 @@
  */
 package org.fcrepo.auth.webac;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
+import org.fcrepo.auth.webac.InvalidationTracker.Stamped;
 import org.fcrepo.kernel.api.Transaction;
 import org.fcrepo.kernel.api.exception.PathNotFoundException;
 import org.fcrepo.kernel.api.exception.PathNotFoundRuntimeException;
 import org.fcrepo.kernel.api.exception.RepositoryException;
+import org.fcrepo.kernel.api.exception.RepositoryRuntimeException;
 import org.fcrepo.kernel.api.identifiers.FedoraId;
 import org.fcrepo.kernel.api.identifiers.IdentifierConverter;
 import org.fcrepo.kernel.api.models.FedoraResource;
@@ -31,21 +39,27 @@ import org.fcrepo.kernel.api.models.NonRdfSourceDescription;
 import org.fcrepo.kernel.api.models.ResourceFactory;
 import org.fcrepo.kernel.api.models.TimeMap;
 import org.fcrepo.kernel.api.models.WebacAcl;
+import org.fcrepo.kernel.api.observer.Event;
 import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Function;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -53,9 +67,8 @@ import java.util.stream.Stream;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toSet;
+import static java.util.stream.Collectors.toUnmodifiableSet;
 import static java.util.stream.IntStream.range;
-import static java.util.stream.Stream.concat;
 import static java.util.stream.Stream.empty;
 import static java.util.stream.Stream.of;
 import static org.apache.jena.graph.NodeFactory.createURI;
@@ -67,7 +80,6 @@ import static org.fcrepo.auth.webac.URIConstants.WEBAC_ACCESSTO_VALUE;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_AGENT_CLASS_VALUE;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_AGENT_GROUP_VALUE;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_AGENT_VALUE;
-import static org.fcrepo.auth.webac.URIConstants.WEBAC_AUTHENTICATED_AGENT_VALUE;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_AUTHORIZATION_VALUE;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_DEFAULT_VALUE;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_VALUE;
@@ -98,6 +110,103 @@ public class WebACRolesProvider {
     @Inject
     private ResourceFactory resourceFactory;
 
+    @Inject
+    private EventBus eventBus;
+
+    @Value("${fcrepo.auth.webac.acl.cache.ttl:600}")
+    private long aclCacheTtlSeconds;
+
+    @Value("${fcrepo.auth.webac.acl.cache.size:10000}")
+    private long aclCacheSize;
+
+    /**
+     * Effective ACLs of committed resources, keyed by the resource id and whether the lookup was made on behalf
+     * of a descendant. Entries are discarded once an event is received for the resource or any of its ancestors.
+     */
+    private Cache<EffectiveAclKey, Stamped<Optional<ACLHandle>>> effectiveAclCache;
+
+    @Value("${fcrepo.auth.webac.group.cache.ttl:600}")
+    private long groupCacheTtlSeconds;
+
+    @Value("${fcrepo.auth.webac.group.cache.max.bytes:67108864}")
+    private long groupCacheMaxBytes;
+
+    /**
+     * Members of the vcard:Group resources stored in the repository, keyed by the acl:agentGroup value including
+     * any hash fragment. The cache is bounded by the estimated memory held by the member names.
+     */
+    private Cache<String, Stamped<Set<String>>> groupMembersCache;
+
+    private InvalidationTracker invalidations;
+
+    /**
+     * Ids of the repository resources which have been dereferenced as acl:agentGroup values, without any hash
+     * fragment. These are bounded by the groups referred to by the repository's ACLs.
+     */
+    private final Set<String> agentGroupIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Set up the effective ACL and group membership caches and register for repository events
+     */
+    @PostConstruct
+    public void setup() {
+        if (aclCacheTtlSeconds > 0) {
+            effectiveAclCache = CacheBuilder.newBuilder()
+                    .maximumSize(aclCacheSize)
+                    .expireAfterWrite(aclCacheTtlSeconds, TimeUnit.SECONDS)
+                    .build();
+        }
+        if (groupCacheTtlSeconds > 0) {
+            groupMembersCache = CacheBuilder.newBuilder()
+                    .maximumWeight(groupCacheMaxBytes)
+                    .weigher((String agentGroup, Stamped<Set<String>> members) ->
+                            estimateGroupSize(agentGroup, members.value))
+                    .expireAfterWrite(groupCacheTtlSeconds, TimeUnit.SECONDS)
+                    .build();
+        }
+        if (effectiveAclCache != null || groupMembersCache != null) {
+            invalidations = new InvalidationTracker(Math.max(aclCacheTtlSeconds, groupCacheTtlSeconds),
+                    TimeUnit.SECONDS);
+            eventBus.register(this);
+        }
+    }
+
+    /**
+     * Unregister from repository events
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (effectiveAclCache != null || groupMembersCache != null) {
+            eventBus.unregister(this);
+        }
+    }
+
+    /**
+     * Invalidates the cached effective ACLs and group members of the resource an event was emitted for and of all
+     * of its descendants. ACLs, binary descriptions and mementos are identified by the resource they belong to, so
+     * a change to any of them invalidates that resource as well. Invalidated entries are discarded when next read.
+     *
+     * @param event the repository event
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onEvent(final Event event) {
+        final String baseId = event.getFedoraId().getBaseId();
+        LOGGER.debug("Invalidating effective ACLs and groups at or below {}", baseId);
+        invalidations.invalidate(baseId);
+    }
+
+    /**
+     * Determine whether a resource has been used as an acl:agentGroup, in which case a change to it, including its
+     * deletion, may change the roles granted by any ACL.
+     *
+     * @param id the id of the resource, without any hash fragment
+     * @return true if the resource has been dereferenced as an agent group
+     */
+    public boolean isAgentGroup(final String id) {
+        return agentGroupIds.contains(id);
+    }
+
     /**
      * Get the roles assigned to this Node.
      *
@@ -106,10 +215,29 @@ public class WebACRolesProvider {
      * @return a set of roles for each principal
      */
     public Map<String, Collection<String>> getRoles(final FedoraResource resource, final Transaction transaction) {
+        return getRoles(resource, transaction, new HashMap<>());
+    }
+
+    /**
+     * Get the roles assigned to each of several Nodes. The effective ACL lookups of ancestors shared by the
+     * resources are only made once.
+     *
+     * @param resources the subject resources
+     * @param transaction the transaction being acted upon
+     * @return a set of roles for each principal, for each resource in the order given
+     */
+    public List<Map<String, Collection<String>>> getRoles(final List<FedoraResource> resources,
+                                                          final Transaction transaction) {
+        final Map<EffectiveAclKey, Optional<ACLHandle>> lookups = new HashMap<>();
+        return resources.stream().map(resource -> getRoles(resource, transaction, lookups)).collect(toList());
+    }
+
+    private Map<String, Collection<String>> getRoles(final FedoraResource resource, final Transaction transaction,
+                                                     final Map<EffectiveAclKey, Optional<ACLHandle>> lookups) {
         LOGGER.debug("Getting agent roles for: {}", resource.getPath());
 
         // Get the effective ACL by searching the target node and any ancestors.
-        final Optional<ACLHandle> effectiveAcl = getEffectiveAcl(resource, false);
+        final Optional<ACLHandle> effectiveAcl = getEffectiveAcl(resource, false, transaction, lookups);
 
         // Construct a list of acceptable acl:accessTo values for the target resource.
         final List<String> resourcePaths = new ArrayList<>();
@@ -136,50 +264,24 @@ public class WebACRolesProvider {
         // If we fall through to the system/classpath-based Authorization and it
         // contains any acl:accessTo properties, it is necessary to add each ancestor
         // path up the node hierarchy, starting at the resource location up to the
-        // root location. This way, the checkAccessTo predicate (below) can be properly
-        // created to match any acl:accessTo values that are part of the getDefaultAuthorization.
+        // root location. This way, the acl:accessTo lookup (below) can be properly
+        // made to match any acl:accessTo values that are part of the getDefaultAuthorization.
         // This is not relevant if an effectiveAcl is present.
         if (!effectiveAcl.isPresent()) {
             resourcePaths.addAll(getAllPathAncestors(resource.getId()));
         }
 
-        // Create a function to check acl:accessTo, scoped to the given resourcePaths
-        final Predicate<WebACAuthorization> checkAccessTo = accessTo.apply(resourcePaths);
-
-        // Create a function to check acl:accessToClass, scoped to the given rdf:type values,
-        // but transform the URIs to Strings first.
-        final Predicate<WebACAuthorization> checkAccessToClass =
-            accessToClass.apply(rdfTypes.stream().map(URI::toString).collect(toList()));
-
-        // Read the effective Acl and return a list of acl:Authorization statements
-        final List<WebACAuthorization> authorizations = effectiveAcl
-                .map(auth -> auth.authorizations)
-                .orElseGet(() -> getDefaultAuthorizations());
-
-        // Filter the acl:Authorization statements so that they correspond only to statements that apply to
-        // the target (or acl-bearing ancestor) resource path or rdf:type.
-        // Then, assign all acceptable acl:mode values to the relevant acl:agent values: this creates a UNION
-        // of acl:modes for each particular acl:agent.
-        final Map<String, Collection<String>> effectiveRoles = new HashMap<>();
-        authorizations.stream()
-                      .filter(checkAccessTo.or(checkAccessToClass))
-                      .forEach(auth -> {
-                          concat(auth.getAgents().stream(),
-                                  dereferenceAgentGroups(transaction, auth.getAgentGroups()).stream())
-                              .filter(agent -> !agent.equals(FOAF_AGENT_VALUE) &&
-                                               !agent.equals(WEBAC_AUTHENTICATED_AGENT_VALUE))
-                              .forEach(agent -> {
-                                  effectiveRoles.computeIfAbsent(agent, key -> new HashSet<>())
-                                                .addAll(auth.getModes().stream().map(URI::toString).collect(toSet()));
-                              });
-                          auth.getAgentClasses().stream().filter(agentClass -> agentClass.equals(FOAF_AGENT_VALUE) ||
-                                                                               agentClass.equals(
-                                                                                   WEBAC_AUTHENTICATED_AGENT_VALUE))
-                              .forEach(agentClass -> {
-                                  effectiveRoles.computeIfAbsent(agentClass, key -> new HashSet<>())
-                                                .addAll(auth.getModes().stream().map(URI::toString).collect(toSet()));
-                              });
-                      });
+        // Read the effective Acl, or the default authorizations, as an index of acl:Authorization statements
+        final WebACAuthorizationIndex authorizations = effectiveAcl
+                .map(auth -> auth.index)
+                .orElseGet(() -> new WebACAuthorizationIndex(getDefaultAuthorizations()));
+
+        // Select the acl:Authorization statements which apply to the target (or acl-bearing ancestor) resource
+        // path or rdf:type, and assign all acceptable acl:mode values to the relevant acl:agent values: this
+        // creates a UNION of acl:modes for each particular acl:agent.
+        final Map<String, Collection<String>> effectiveRoles = authorizations.getRoles(resourcePaths,
+                rdfTypes.stream().map(URI::toString).collect(toList()),
+                agentGroups -> dereferenceAgentGroups(transaction, agentGroups));
 
         LOGGER.debug("Unfiltered ACL: {}", effectiveRoles);
 
@@ -200,45 +302,15 @@ public class WebACRolesProvider {
                 .collect(toList());
     }
 
-    /**
-     *  This is a function for generating a Predicate that filters WebACAuthorizations according
-     *  to whether the given acl:accessToClass values contain any of the rdf:type values provided
-     *  when creating the predicate.
-     */
-    private static final Function<List<String>, Predicate<WebACAuthorization>> accessToClass = uris -> auth ->
-        uris.stream().anyMatch(uri -> auth.getAccessToClassURIs().contains(uri));
-
-    /**
-     *  This is a function for generating a Predicate that filters WebACAuthorizations according
-     *  to whether the given acl:accessTo values contain any of the target resource values provided
-     *  when creating the predicate.
-     */
-    private static final Function<List<String>, Predicate<WebACAuthorization>> accessTo = uris -> auth ->
-        uris.stream().anyMatch(uri -> auth.getAccessToURIs().contains(uri));
-
     /**
      *  This maps a Collection of acl:agentGroup values to a List of agents.
      *  Any out-of-domain URIs are silently ignored.
      */
     private List<String> dereferenceAgentGroups(final Transaction transaction, final Collection<String> agentGroups) {
-        //TODO figure out where the translator should be coming from.
-        final IdentifierConverter<Resource, FedoraResource> translator = null;
-
         final List<String> members = agentGroups.stream().flatMap(agentGroup -> {
             if (agentGroup.startsWith(FEDORA_ID_PREFIX)) {
-                //strip off trailing hash.
-                final int hashIndex = agentGroup.indexOf("#");
-                final String agentGroupNoHash = hashIndex > 0 ?
-                                         agentGroup.substring(0, hashIndex) :
-                                         agentGroup;
-                final String hashedSuffix = hashIndex > 0 ? agentGroup.substring(hashIndex) : null;
-                try {
-                    final FedoraId fedoraId = FedoraId.create(agentGroupNoHash);
-                    final FedoraResource resource = resourceFactory.getResource(transaction, fedoraId);
-                    return getAgentMembers(translator, resource, hashedSuffix);
-                } catch (final PathNotFoundException e) {
-                    throw new PathNotFoundRuntimeException(e);
-                }
+                agentGroupIds.add(stripHash(agentGroup));
+                return getGroupMembers(transaction, agentGroup).stream();
             } else if (agentGroup.equals(FOAF_AGENT_VALUE)) {
                 return of(agentGroup);
             } else {
@@ -254,6 +326,83 @@ public class WebACRolesProvider {
         return members;
     }
 
+    /**
+     * Get the members of a vcard:Group stored in the repository. Groups read outside of a transaction are cached.
+     */
+    private Set<String> getGroupMembers(final Transaction transaction, final String agentGroup) {
+        // resources read within a transaction may include changes which are not visible to anyone else
+        if (groupMembersCache == null || transaction != null) {
+            return loadGroupMembers(transaction, agentGroup);
+        }
+        return getCurrent(groupMembersCache, agentGroup, stripHash(agentGroup),
+                () -> loadGroupMembers(null, agentGroup));
+    }
+
+    private Set<String> loadGroupMembers(final Transaction transaction, final String agentGroup) {
+        //TODO figure out where the translator should be coming from.
+        final IdentifierConverter<Resource, FedoraResource> translator = null;
+
+        //strip off trailing hash.
+        final int hashIndex = agentGroup.indexOf("#");
+        final String hashedSuffix = hashIndex > 0 ? agentGroup.substring(hashIndex) : null;
+        try {
+            final FedoraId fedoraId = FedoraId.create(stripHash(agentGroup));
+            final FedoraResource resource = resourceFactory.getResource(transaction, fedoraId);
+            return getAgentMembers(translator, resource, hashedSuffix).collect(toUnmodifiableSet());
+        } catch (final PathNotFoundException e) {
+            throw new PathNotFoundRuntimeException(e);
+        }
+    }
+
+    private static String stripHash(final String agentGroup) {
+        final int hashIndex = agentGroup.indexOf("#");
+        return hashIndex > 0 ? agentGroup.substring(0, hashIndex) : agentGroup;
+    }
+
+    /**
+     * Roughly estimates the heap held by a set of group members, in bytes.
+     */
+    private static int estimateGroupSize(final String agentGroup, final Set<String> members) {
+        long size = 64 + 2L * agentGroup.length();
+        for (final String member : members) {
+            size += 48 + 2L * member.length();
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Read a value derived from a resource through a cache, reloading it if the resource or one of its ancestors
+     * was invalidated after the cached value started loading.
+     */
+    private <K, V> V getCurrent(final Cache<K, Stamped<V>> cache, final K key, final String id,
+                                final Callable<V> loader) {
+        final Callable<Stamped<V>> stampedLoader = () -> {
+            final long generation = invalidations.currentGeneration();
+            return new Stamped<>(loader.call(), generation);
+        };
+        Stamped<V> entry = getCached(cache, key, stampedLoader);
+        if (!invalidations.isCurrent(id, entry.generation)) {
+            cache.asMap().remove(key, entry);
+            entry = getCached(cache, key, stampedLoader);
+        }
+        return entry.value;
+    }
+
+    /**
+     * Read a value through a cache, rethrowing any runtime exception raised while loading it unchanged.
+     */
+    private static <K, V> V getCached(final Cache<K, V> cache, final K key, final Callable<V> loader) {
+        try {
+            return cache.get(key, loader);
+        } catch (final ExecutionException | UncheckedExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RepositoryRuntimeException(cause.getMessage(), cause);
+        }
+    }
+
     /**
      * Given a FedoraResource, return a list of agents.
      */
@@ -386,11 +535,37 @@ public class WebACRolesProvider {
      * Recursively find the effective ACL as a URI along with the FedoraResource that points to it.
      * This way, if the effective ACL is pointed to from a parent resource, the child will inherit
      * any permissions that correspond to access to that parent. This ACL resource may or may not exist,
-     * and it may be external to the fedora repository.
+     * and it may be external to the fedora repository. Lookups made outside of a transaction are cached,
+     * as are the lookups for each ancestor visited on the way.
      * @param resource the Fedora resource
      * @param ancestorAcl the flag for looking up ACL from ancestor hierarchy resources
+     * @param transaction the transaction being acted upon, may be null
+     * @param lookups the lookups already made for the resources being authorized together
      */
-    static Optional<ACLHandle> getEffectiveAcl(final FedoraResource resource, final boolean ancestorAcl) {
+    private Optional<ACLHandle> getEffectiveAcl(final FedoraResource resource, final boolean ancestorAcl,
+                                                final Transaction transaction,
+                                                final Map<EffectiveAclKey, Optional<ACLHandle>> lookups) {
+        if (resource.getId() == null) {
+            return findEffectiveAcl(resource, ancestorAcl, transaction, lookups);
+        }
+        final EffectiveAclKey key = new EffectiveAclKey(resource.getId(), ancestorAcl);
+        Optional<ACLHandle> effectiveAcl = lookups.get(key);
+        if (effectiveAcl == null) {
+            // resources read within a transaction may include changes which are not visible to anyone else
+            if (effectiveAclCache == null || transaction != null) {
+                effectiveAcl = findEffectiveAcl(resource, ancestorAcl, transaction, lookups);
+            } else {
+                effectiveAcl = getCurrent(effectiveAclCache, key, key.id,
+                        () -> findEffectiveAcl(resource, ancestorAcl, transaction, lookups));
+            }
+            lookups.put(key, effectiveAcl);
+        }
+        return effectiveAcl;
+    }
+
+    private Optional<ACLHandle> findEffectiveAcl(final FedoraResource resource, final boolean ancestorAcl,
+                                                 final Transaction transaction,
+                                                 final Map<EffectiveAclKey, Optional<ACLHandle>> lookups) {
         try {
 
             final FedoraResource aclResource = resource.getAcl();
@@ -417,7 +592,7 @@ public class WebACRolesProvider {
                 return Optional.empty();
             } else {
                 LOGGER.trace("Checking parent resource for ACL. No ACL found at {}", resource.getPath());
-                return getEffectiveAcl(container, true);
+                return getEffectiveAcl(container, true, transaction, lookups);
             }
         } catch (final RepositoryException ex) {
             LOGGER.debug("Exception finding effective ACL: {}", ex.getMessage());
@@ -459,4 +634,37 @@ public class WebACRolesProvider {
         }
         return empty();
     }
+
+    /**
+     * Key for the effective ACL cache. The same resource has a different effective ACL when it is looked up on
+     * behalf of a descendant, since only acl:default authorizations are inherited.
+     */
+    private static final class EffectiveAclKey {
+
+        private final String id;
+
+        private final boolean ancestorAcl;
+
+        private EffectiveAclKey(final String id, final boolean ancestorAcl) {
+            this.id = id;
+            this.ancestorAcl = ancestorAcl;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof EffectiveAclKey)) {
+                return false;
+            }
+            final EffectiveAclKey that = (EffectiveAclKey) o;
+            return ancestorAcl == that.ancestorAcl && id.equals(that.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, ancestorAcl);
+        }
+    }
 }
@@ -0,0 +1,71 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.auth.webac;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * @author agent
+ */
+public class CachedHttpRequestTest {
+
+    private static final String CONTENT = "<> <http://www.w3.org/ns/ldp#membershipResource> <http://example.org> .";
+
+    @Test
+    public void testContentCachedInMemory() throws IOException {
+        final CachedHttpRequest request = new CachedHttpRequest(requestWithContent(), 1024);
+
+        assertFalse(request.isCached());
+        assertEquals(CONTENT, IOUtils.toString(request.getInputStream(), UTF_8));
+        assertTrue(request.isCached());
+        assertEquals(CONTENT, IOUtils.toString(request.getInputStream(), UTF_8));
+        assertNull(ReflectionTestUtils.getField(request, "cachedFile"));
+    }
+
+    @Test
+    public void testContentSpilledToFile() throws IOException {
+        final CachedHttpRequest request = new CachedHttpRequest(requestWithContent(), 8);
+
+        assertEquals(CONTENT, IOUtils.toString(request.getInputStream(), UTF_8));
+        assertEquals(CONTENT, IOUtils.toString(request.getInputStream(), UTF_8));
+
+        final File cachedFile = (File) ReflectionTestUtils.getField(request, "cachedFile");
+        assertTrue(cachedFile.exists());
+        request.cleanup();
+        assertFalse(cachedFile.exists());
+    }
+
+    private static MockHttpServletRequest requestWithContent() {
+        final MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/rest/container");
+        request.setContentType("text/turtle");
+        request.setContent(CONTENT.getBytes(UTF_8));
+        return request;
+    }
+}
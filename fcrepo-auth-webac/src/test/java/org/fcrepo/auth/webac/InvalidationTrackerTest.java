@@ -0,0 +1,68 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.auth.webac;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class InvalidationTrackerTest {
+
+    private final InvalidationTracker tracker = new InvalidationTracker(60, TimeUnit.SECONDS);
+
+    @Test
+    public void testInvalidationAppliesToResourceAndDescendants() {
+        final long stamp = tracker.currentGeneration();
+        tracker.invalidate("info:fedora/a/b");
+
+        assertFalse(tracker.isCurrent("info:fedora/a/b", stamp));
+        assertFalse(tracker.isCurrent("info:fedora/a/b/c", stamp));
+        assertTrue(tracker.isCurrent("info:fedora/a", stamp));
+        assertTrue(tracker.isCurrent("info:fedora/a/bc", stamp));
+    }
+
+    @Test
+    public void testValuesStampedAfterInvalidationAreCurrent() {
+        tracker.invalidate("info:fedora/a");
+
+        assertTrue(tracker.isCurrent("info:fedora/a/b", tracker.currentGeneration()));
+    }
+
+    @Test
+    public void testRootInvalidationAppliesToEverything() {
+        final long stamp = tracker.currentGeneration();
+        tracker.invalidate("info:fedora");
+
+        assertFalse(tracker.isCurrent("info:fedora/a/b", stamp));
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        final long stamp = tracker.currentGeneration();
+        tracker.invalidateAll();
+
+        assertFalse(tracker.isCurrent("info:fedora/a", stamp));
+        assertTrue(tracker.isCurrent("info:fedora/a", tracker.currentGeneration()));
+    }
+}
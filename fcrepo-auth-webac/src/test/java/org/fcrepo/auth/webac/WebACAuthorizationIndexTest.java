@@ -0,0 +1,141 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.auth.webac;
+
+import static java.util.Collections.emptyList;
+import static org.fcrepo.auth.webac.URIConstants.FOAF_AGENT_VALUE;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_AUTHENTICATED_AGENT_VALUE;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_APPEND;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_CONTROL;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_READ;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_READ_VALUE;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_WRITE;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_WRITE_VALUE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class WebACAuthorizationIndexTest {
+
+    private static final String RESOURCE = "info:fedora/foo";
+
+    private static final String OTHER_RESOURCE = "info:fedora/bar";
+
+    private static final String IMAGE = "http://example.org/Image";
+
+    private static final List<URI> MODES = List.of(WEBAC_MODE_READ, WEBAC_MODE_WRITE, WEBAC_MODE_APPEND,
+            WEBAC_MODE_CONTROL);
+
+    @Test
+    public void testModesAreCombinedPerAgent() {
+        final var index = new WebACAuthorizationIndex(List.of(
+                authorization(List.of("me"), emptyList(), List.of(WEBAC_MODE_READ), List.of(RESOURCE),
+                        emptyList()),
+                authorization(List.of("me", "you"), emptyList(), List.of(WEBAC_MODE_WRITE), emptyList(),
+                        List.of(IMAGE)),
+                authorization(List.of("you"), emptyList(), List.of(WEBAC_MODE_CONTROL), List.of(OTHER_RESOURCE),
+                        emptyList())));
+
+        final var roles = index.getRoles(List.of(RESOURCE), List.of(IMAGE), groups -> emptyList());
+
+        assertEquals(2, roles.size());
+        assertEquals(Set.of(WEBAC_MODE_READ_VALUE, WEBAC_MODE_WRITE_VALUE), roles.get("me"));
+        assertEquals(Set.of(WEBAC_MODE_WRITE_VALUE), roles.get("you"));
+    }
+
+    @Test
+    public void testOnlyPublicAndAuthenticatedAgentClasses() {
+        final var index = new WebACAuthorizationIndex(List.of(
+                authorization(List.of(FOAF_AGENT_VALUE), List.of(FOAF_AGENT_VALUE, WEBAC_AUTHENTICATED_AGENT_VALUE,
+                        "http://example.org/SomeClass"), List.of(WEBAC_MODE_READ), List.of(RESOURCE), emptyList())));
+
+        final var roles = index.getRoles(List.of(RESOURCE), emptyList(), groups -> emptyList());
+
+        assertEquals(Set.of(FOAF_AGENT_VALUE, WEBAC_AUTHENTICATED_AGENT_VALUE), roles.keySet());
+    }
+
+    @Test
+    public void testGroupsResolvedOnlyForApplicableAuthorizations() {
+        final var resolved = new ArrayList<Collection<String>>();
+        final var groupAuthorization = new WebACAuthorization(emptyList(), emptyList(), List.of(WEBAC_MODE_READ),
+                List.of(RESOURCE), emptyList(), List.of("info:fedora/groups#editors"), emptyList());
+        final var otherGroupAuthorization = new WebACAuthorization(emptyList(), emptyList(),
+                List.of(WEBAC_MODE_WRITE), List.of(OTHER_RESOURCE), emptyList(), List.of("info:fedora/groups#other"),
+                emptyList());
+        final var index = new WebACAuthorizationIndex(List.of(groupAuthorization, otherGroupAuthorization));
+
+        final var roles = index.getRoles(List.of(RESOURCE), emptyList(), groups -> {
+            resolved.add(groups);
+            return List.of("member", FOAF_AGENT_VALUE);
+        });
+
+        assertEquals(List.of(Set.of("info:fedora/groups#editors")), resolved);
+        assertEquals(Set.of("member"), roles.keySet());
+        assertEquals(Set.of(WEBAC_MODE_READ_VALUE), roles.get("member"));
+    }
+
+    @Test
+    public void testNoApplicableAuthorizations() {
+        final var index = new WebACAuthorizationIndex(List.of(
+                authorization(List.of("me"), emptyList(), List.of(WEBAC_MODE_READ), List.of(RESOURCE),
+                        emptyList())));
+
+        assertTrue(index.getRoles(List.of(OTHER_RESOURCE), List.of(IMAGE), groups -> emptyList()).isEmpty());
+    }
+
+    @Test
+    public void testLargeAclMatchesLinearScan() {
+        final var authorizations = new ArrayList<WebACAuthorization>();
+        for (int i = 0; i < 500; i++) {
+            authorizations.add(authorization(List.of("agent" + (i % 37)), emptyList(), List.of(MODES.get(i % 4)),
+                    List.of("info:fedora/resource" + (i % 50)), List.of("http://example.org/Type" + (i % 7))));
+        }
+        final var index = new WebACAuthorizationIndex(authorizations);
+
+        final var resources = List.of("info:fedora/resource3", "info:fedora/resource17");
+        final var types = List.of("http://example.org/Type2");
+        final Map<String, Set<String>> expected = new HashMap<>();
+        authorizations.stream()
+                .filter(auth -> resources.stream().anyMatch(auth.getAccessToURIs()::contains) ||
+                        types.stream().anyMatch(auth.getAccessToClassURIs()::contains))
+                .forEach(auth -> auth.getAgents().forEach(agent -> auth.getModes().forEach(mode ->
+                        expected.computeIfAbsent(agent, key -> new HashSet<>()).add(mode.toString()))));
+
+        assertEquals(expected, index.getRoles(resources, types, groups -> emptyList()));
+    }
+
+    private static WebACAuthorization authorization(final List<String> agents, final List<String> agentClasses,
+                                                    final List<URI> modes, final List<String> accessTo,
+                                                    final List<String> accessToClass) {
+        return new WebACAuthorization(agents, agentClasses, modes, accessTo, accessToClass, emptyList(),
+                emptyList());
+    }
+}
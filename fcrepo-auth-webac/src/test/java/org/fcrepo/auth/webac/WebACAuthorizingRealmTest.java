@@ -0,0 +1,170 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.auth.webac;
+
+import static org.fcrepo.auth.webac.URIConstants.FOAF_AGENT_VALUE;
+import static org.fcrepo.auth.webac.URIConstants.VCARD_GROUP_VALUE;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_READ;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_READ_VALUE;
+import static org.fcrepo.auth.webac.WebACAuthorizingRealm.URIS_TO_AUTHORIZE;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.eventbus.EventBus;
+import org.apache.shiro.subject.SimplePrincipalCollection;
+import org.fcrepo.kernel.api.Transaction;
+import org.fcrepo.kernel.api.identifiers.FedoraId;
+import org.fcrepo.kernel.api.models.FedoraResource;
+import org.fcrepo.kernel.api.models.ResourceFactory;
+import org.fcrepo.kernel.api.observer.Event;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * @author agent
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class WebACAuthorizingRealmTest {
+
+    private static final URI RESOURCE_URI = URI.create("http://localhost/foo");
+
+    private static final FedoraId RESOURCE_ID = FedoraId.create("foo");
+
+    @Mock
+    private WebACRolesProvider mockRolesProvider;
+
+    @Mock
+    private ResourceFactory mockResourceFactory;
+
+    @Mock
+    private FedoraResource mockResource;
+
+    @Mock
+    private EventBus mockEventBus;
+
+    private WebACAuthorizingRealm realm;
+
+    @Before
+    public void setUp() throws Exception {
+        realm = new WebACAuthorizingRealm();
+        setField(realm, "rolesProvider", mockRolesProvider);
+        setField(realm, "resourceFactory", mockResourceFactory);
+        setField(realm, "eventBus", mockEventBus);
+
+        when(mockResourceFactory.getResource((Transaction) null, RESOURCE_ID)).thenReturn(mockResource);
+        when(mockRolesProvider.getRoles(anyList(), isNull()))
+                .thenReturn(List.of(Map.of(FOAF_AGENT_VALUE, Set.of(WEBAC_MODE_READ_VALUE))));
+    }
+
+    @Test
+    public void testDecisionsNotCachedByDefault() {
+        realm.setup();
+
+        assertEquals(Set.of(new WebACPermission(WEBAC_MODE_READ, RESOURCE_URI)), authorizeInNewRequest());
+        assertEquals(Set.of(new WebACPermission(WEBAC_MODE_READ, RESOURCE_URI)), authorizeInNewRequest());
+
+        verify(mockRolesProvider, times(2)).getRoles(anyList(), isNull());
+    }
+
+    @Test
+    public void testDecisionsCachedAcrossRequests() {
+        enableDecisionCache();
+
+        assertEquals(Set.of(new WebACPermission(WEBAC_MODE_READ, RESOURCE_URI)), authorizeInNewRequest());
+        assertEquals(Set.of(new WebACPermission(WEBAC_MODE_READ, RESOURCE_URI)), authorizeInNewRequest());
+
+        verify(mockRolesProvider, times(1)).getRoles(anyList(), isNull());
+    }
+
+    @Test
+    public void testAclChangeEvictsDecisions() {
+        enableDecisionCache();
+        authorizeInNewRequest();
+
+        // a change to an unrelated resource leaves the decision in place
+        realm.onEvent(eventFor(FedoraId.create("foobar"), Set.of()));
+        authorizeInNewRequest();
+        verify(mockRolesProvider, times(1)).getRoles(anyList(), isNull());
+
+        // a change to the acl of an ancestor evicts it
+        realm.onEvent(eventFor(FedoraId.getRepositoryRootId().asAcl(), Set.of()));
+        authorizeInNewRequest();
+        verify(mockRolesProvider, times(2)).getRoles(anyList(), isNull());
+    }
+
+    @Test
+    public void testGroupChangeEvictsAllDecisions() {
+        enableDecisionCache();
+        authorizeInNewRequest();
+
+        realm.onEvent(eventFor(FedoraId.create("groups/editors"), Set.of(VCARD_GROUP_VALUE)));
+        authorizeInNewRequest();
+
+        verify(mockRolesProvider, times(2)).getRoles(anyList(), isNull());
+    }
+
+    @Test
+    public void testDeletedGroupEvictsAllDecisions() {
+        final FedoraId groupId = FedoraId.create("groups");
+        when(mockRolesProvider.isAgentGroup(groupId.getBaseId())).thenReturn(true);
+        enableDecisionCache();
+        authorizeInNewRequest();
+
+        // a deleted group, or one referred to by a hash URI such as groups#editors, no longer has the group type
+        realm.onEvent(eventFor(groupId, Set.of()));
+        authorizeInNewRequest();
+
+        verify(mockRolesProvider, times(2)).getRoles(anyList(), isNull());
+    }
+
+    private void enableDecisionCache() {
+        setField(realm, "decisionCacheTtlSeconds", 60L);
+        setField(realm, "decisionCacheSize", 100L);
+        realm.setup();
+        verify(mockEventBus).register(realm);
+    }
+
+    private Set<Object> authorizeInNewRequest() {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", RESOURCE_URI.getPath());
+        request.setAttribute(URIS_TO_AUTHORIZE, Set.of(RESOURCE_URI));
+        setField(realm, "request", request);
+        return Set.copyOf(realm.doGetAuthorizationInfo(new SimplePrincipalCollection()).getObjectPermissions());
+    }
+
+    private static Event eventFor(final FedoraId id, final Set<String> resourceTypes) {
+        final Event event = mock(Event.class);
+        when(event.getFedoraId()).thenReturn(id);
+        when(event.getResourceTypes()).thenReturn(resourceTypes);
+        return event;
+    }
+}
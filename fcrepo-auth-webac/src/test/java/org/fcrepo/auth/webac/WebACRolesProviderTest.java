@@ -34,6 +34,9 @@ import org.fcrepo.kernel.api.models.ResourceFactory;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
 
@@ -43,6 +46,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
+import com.google.common.eventbus.EventBus;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.riot.Lang;
@@ -51,6 +55,7 @@ import org.fcrepo.kernel.api.Transaction;
 import org.fcrepo.kernel.api.RdfStream;
 import org.fcrepo.kernel.api.exception.RepositoryException;
 import org.fcrepo.kernel.api.models.FedoraResource;
+import org.fcrepo.kernel.api.observer.Event;
 import org.fcrepo.kernel.api.rdf.DefaultRdfStream;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -88,6 +93,9 @@ public class WebACRolesProviderTest {
     @Mock
     private FedoraResource mockAgentClassResource;
 
+    @Mock
+    private EventBus mockEventBus;
+
     @Rule
     public final RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
 
@@ -584,6 +592,179 @@ public class WebACRolesProviderTest {
         assertTrue("The agent should be able to read", roles.get(agent1).contains(WEBAC_MODE_READ_VALUE));
     }
 
+    @Test
+    public void effectiveAclIsCachedOutsideOfTransaction() throws RepositoryException {
+        final String agent = "user01";
+        final String accessTo = "/webacl_box1";
+        final String acl = "/acls/01/acl.ttl";
+        enableAclCache();
+
+        when(mockResource.getAcl()).thenReturn(mockAclResource);
+        when(mockResource.getId()).thenReturn(addPrefix(accessTo));
+        when(mockAclResource.getTriples()).thenReturn(getRdfStreamFromResource(acl, TTL));
+        when(mockAclResource.isAcl()).thenReturn(true);
+        when(mockAclResource.getId()).thenReturn(addPrefix(accessTo) + "/fcr:acl");
+
+        assertEquals(2, roleProvider.getRoles(mockResource, null).get(agent).size());
+        assertEquals(2, roleProvider.getRoles(mockResource, null).get(agent).size());
+
+        verify(mockResource, times(1)).getAcl();
+        verify(mockAclResource, times(1)).getTriples();
+    }
+
+    @Test
+    public void effectiveAclIsNotCachedInTransaction() throws RepositoryException {
+        final String agent = "user01";
+        final String accessTo = "/webacl_box1";
+        final String acl = "/acls/01/acl.ttl";
+        enableAclCache();
+
+        when(mockResource.getAcl()).thenReturn(mockAclResource);
+        when(mockResource.getId()).thenReturn(addPrefix(accessTo));
+        when(mockAclResource.getTriples()).thenReturn(getRdfStreamFromResource(acl, TTL),
+                getRdfStreamFromResource(acl, TTL));
+        when(mockAclResource.isAcl()).thenReturn(true);
+        when(mockAclResource.getId()).thenReturn(addPrefix(accessTo) + "/fcr:acl");
+
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent).size());
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent).size());
+
+        verify(mockAclResource, times(2)).getTriples();
+    }
+
+    @Test
+    public void eventEvictsCachedEffectiveAcl() throws RepositoryException {
+        final String agent = "user01";
+        final String accessTo = "/webacl_box1";
+        final String acl = "/acls/01/acl.ttl";
+        enableAclCache();
+
+        when(mockResource.getAcl()).thenReturn(mockAclResource);
+        when(mockResource.getId()).thenReturn(addPrefix(accessTo));
+        when(mockAclResource.getTriples()).thenReturn(getRdfStreamFromResource(acl, TTL),
+                getRdfStreamFromResource(acl, TTL), getRdfStreamFromResource(acl, TTL));
+        when(mockAclResource.isAcl()).thenReturn(true);
+        when(mockAclResource.getId()).thenReturn(addPrefix(accessTo) + "/fcr:acl");
+
+        roleProvider.getRoles(mockResource, null);
+
+        // an event for an unrelated resource sharing a common prefix leaves the entry in place
+        roleProvider.onEvent(eventFor(addPrefix(accessTo + "2")));
+        roleProvider.getRoles(mockResource, null);
+        verify(mockAclResource, times(1)).getTriples();
+
+        // a change to the resource's acl evicts the entry
+        roleProvider.onEvent(eventFor(addPrefix(accessTo) + "/fcr:acl"));
+        assertEquals(2, roleProvider.getRoles(mockResource, null).get(agent).size());
+        verify(mockAclResource, times(2)).getTriples();
+
+        // as does a change to any ancestor
+        roleProvider.onEvent(eventFor(FEDORA_ID_PREFIX));
+        assertEquals(2, roleProvider.getRoles(mockResource, null).get(agent).size());
+        verify(mockAclResource, times(3)).getTriples();
+    }
+
+    @Test
+    public void effectiveAclLoadedDuringEventIsNotReused() throws RepositoryException {
+        final String agent = "user01";
+        final String accessTo = "/webacl_box1";
+        final String acl = "/acls/01/acl.ttl";
+        enableAclCache();
+
+        when(mockResource.getAcl()).thenReturn(mockAclResource);
+        when(mockResource.getId()).thenReturn(addPrefix(accessTo));
+        // the acl changes while it is being read for the first time
+        when(mockAclResource.getTriples()).thenAnswer(invocation -> {
+            roleProvider.onEvent(eventFor(addPrefix(accessTo) + "/fcr:acl"));
+            return getRdfStreamFromResource(acl, TTL);
+        }).thenReturn(getRdfStreamFromResource(acl, TTL));
+        when(mockAclResource.isAcl()).thenReturn(true);
+        when(mockAclResource.getId()).thenReturn(addPrefix(accessTo) + "/fcr:acl");
+
+        assertEquals(2, roleProvider.getRoles(mockResource, null).get(agent).size());
+        verify(mockAclResource, times(2)).getTriples();
+        assertEquals(2, roleProvider.getRoles(mockResource, null).get(agent).size());
+        verify(mockAclResource, times(2)).getTriples();
+    }
+
+    @Test
+    public void groupMembersAreCachedUntilGroupIsModified() throws RepositoryException, PathNotFoundException {
+        final String agent1 = "person1";
+        final String accessTo = "/anotherCollection";
+        final String groupResource = "/group/foo";
+        final String acl = "/acls/09/acl.ttl";
+        final String group = "/acls/09/group.ttl";
+        enableAclCache();
+
+        when(mockResourceFactory.getResource((Transaction) null, FedoraId.create(addPrefix(groupResource))))
+                .thenReturn(mockAgentClassResource);
+        when(mockAgentClassResource.getTriples()).thenReturn(getRdfStreamFromResource(group, TTL),
+                getRdfStreamFromResource(group, TTL));
+        when(mockResource.getAcl()).thenReturn(mockAclResource);
+        when(mockResource.getId()).thenReturn(addPrefix(accessTo));
+        when(mockAclResource.getTriples()).thenReturn(getRdfStreamFromResource(acl, TTL),
+                getRdfStreamFromResource(acl, TTL));
+        when(mockAclResource.isAcl()).thenReturn(true);
+        when(mockAclResource.getId()).thenReturn(addPrefix(accessTo) + "/fcr:acl");
+
+        assertEquals(2, roleProvider.getRoles(mockResource, null).get(agent1).size());
+        assertEquals(2, roleProvider.getRoles(mockResource, null).get(agent1).size());
+        verify(mockAgentClassResource, times(1)).getTriples();
+        assertTrue(roleProvider.isAgentGroup(addPrefix(groupResource)));
+
+        roleProvider.onEvent(eventFor(addPrefix(groupResource)));
+        assertEquals(2, roleProvider.getRoles(mockResource, null).get(agent1).size());
+        verify(mockAgentClassResource, times(2)).getTriples();
+        // the effective acl of an unrelated resource is still cached
+        verify(mockAclResource, times(1)).getTriples();
+    }
+
+    @Test
+    public void batchSharesAncestorAclLookups() throws RepositoryException {
+        final String parentPath = "/webacl_box1";
+        final String acl = "/acls/01/acl.ttl";
+        final FedoraResource mockSiblingResource = mock(FedoraResource.class);
+
+        when(mockResource.getId()).thenReturn(addPrefix(parentPath + "/foo"));
+        when(mockResource.getContainer()).thenReturn(mockParentResource);
+        when(mockSiblingResource.getId()).thenReturn(addPrefix(parentPath + "/bar"));
+        when(mockSiblingResource.getContainer()).thenReturn(mockParentResource);
+        when(mockSiblingResource.getOriginalResource()).thenReturn(mockSiblingResource);
+        when(mockSiblingResource.getDescribedResource()).thenReturn(mockSiblingResource);
+        when(mockSiblingResource.getDescription()).thenReturn(mockSiblingResource);
+
+        when(mockParentResource.getId()).thenReturn(addPrefix(parentPath));
+        when(mockParentResource.getAcl()).thenReturn(mockAclResource);
+        when(mockAclResource.isAcl()).thenReturn(true);
+        when(mockAclResource.getId()).thenReturn(addPrefix(parentPath) + "/fcr:acl");
+        when(mockAclResource.getTriples()).thenReturn(getRdfStreamFromResource(acl, TTL),
+                getRdfStreamFromResource(acl, TTL));
+
+        final List<Map<String, Collection<String>>> roles =
+                roleProvider.getRoles(List.of(mockResource, mockSiblingResource), mockTransaction);
+
+        assertEquals(2, roles.size());
+        assertEquals(roles.get(0), roles.get(1));
+        verify(mockParentResource, times(1)).getAcl();
+        verify(mockAclResource, times(1)).getTriples();
+    }
+
+    private void enableAclCache() {
+        setField(roleProvider, "eventBus", mockEventBus);
+        setField(roleProvider, "aclCacheTtlSeconds", 60L);
+        setField(roleProvider, "aclCacheSize", 100L);
+        setField(roleProvider, "groupCacheTtlSeconds", 60L);
+        setField(roleProvider, "groupCacheMaxBytes", 1024L * 1024L);
+        roleProvider.setup();
+        verify(mockEventBus).register(roleProvider);
+    }
+
+    private static Event eventFor(final String id) {
+        final Event event = mock(Event.class);
+        when(event.getFedoraId()).thenReturn(FedoraId.create(id));
+        return event;
+    }
+
     private static RdfStream getRdfStreamFromResource(final String resourcePath, final Lang lang) {
         final Model model = createDefaultModel();
 
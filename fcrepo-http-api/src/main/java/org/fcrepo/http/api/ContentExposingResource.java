@@ -32,7 +32,8 @@ import org.fcrepo.http.commons.domain.MultiPrefer;
 import org.fcrepo.http.commons.domain.PreferTag;
 import org.fcrepo.http.commons.domain.Range;
 import org.fcrepo.http.commons.domain.ldp.LdpPreferTag;
-import org.fcrepo.http.commons.responses.RangeRequestInputStream;
+import org.fcrepo.http.commons.responses.FileContentStreamingOutput;
+import org.fcrepo.http.commons.responses.MultipartByteRangesStreamingOutput;
 import org.fcrepo.http.commons.responses.RdfNamespacedStream;
 import org.fcrepo.kernel.api.FedoraTypes;
 import org.fcrepo.kernel.api.RdfStream;
@@ -84,10 +85,12 @@ import javax.ws.rs.core.Link;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
@@ -138,6 +141,7 @@ import static org.fcrepo.http.commons.domain.RDFMediaType.N3_ALT2;
 import static org.fcrepo.http.commons.domain.RDFMediaType.NTRIPLES;
 import static org.fcrepo.http.commons.domain.RDFMediaType.RDF_XML;
 import static org.fcrepo.http.commons.domain.RDFMediaType.TURTLE;
+import static org.fcrepo.http.commons.responses.FileContentStreamingOutput.transfer;
 import static org.fcrepo.http.commons.session.TransactionConstants.ATOMIC_ID_HEADER;
 import static org.fcrepo.http.commons.session.TransactionConstants.TX_ENDPOINT_REL;
 import static org.fcrepo.http.commons.session.TransactionConstants.TX_PREFIX;
@@ -172,6 +176,12 @@ public abstract class ContentExposingResource extends FedoraBaseResource {
 
     static final String HTTP_HEADER_ACCEPT_PATCH = "Accept-Patch";
 
+    /**
+     * The most separate ranges served from a single request, beyond which the whole content is served instead
+     * (RFC 7233, section 6.1)
+     */
+    static final int MAX_RANGES = 100;
+
     private static final Pattern TRAILING_SLASH_REGEX = Pattern.compile("/+$");
 
     // Note: This pattern is intentionally loose, matching invalid memento strings, for error handling purposes
@@ -355,56 +365,78 @@ public abstract class ContentExposingResource extends FedoraBaseResource {
     protected Response getBinaryContent(final String rangeValue, final FedoraResource resource)
             throws IOException {
             final Binary binary = (Binary)resource;
+            // we set the content-type explicitly to avoid content-negotiation from getting in the way
+            // getBinaryResourceMediaType will try to use the mime type on the resource, falling back on
+            // 'application/octet-stream' if the mime type is syntactically invalid
+            final String contentType = getBinaryResourceMediaType(resource).toString();
             final CacheControl cc = new CacheControl();
             cc.setMaxAge(0);
             cc.setMustRevalidate(true);
             final Response.ResponseBuilder builder;
 
-            if (rangeValue != null && rangeValue.startsWith("bytes")) {
+            final long contentSize = binary.getContentSize();
+            final List<Range> ranges = rangeValue != null && rangeValue.startsWith("bytes") ?
+                    Range.satisfiable(Range.convertAll(rangeValue), contentSize) : null;
 
-                final Range range = Range.convert(rangeValue);
-
-                final long contentSize = binary.getContentSize();
-
-                final String endAsString;
-
-                if (range.end() == -1) {
-                    endAsString = Long.toString(contentSize - 1);
+            if (ranges != null && ranges.isEmpty()) {
+                builder = status(REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header("Content-Range", "bytes */" + contentSize)
+                        .type(contentType);
+            } else if (ranges != null && ranges.size() == 1) {
+                final Range range = ranges.get(0);
+                final String contentRangeValue =
+                        String.format("bytes %s-%s/%s", range.start(), range.end(), contentSize);
+                final var contentFile = binary.openContentFile();
+                final Object rangeContent;
+                if (contentFile.isPresent()) {
+                    rangeContent = new FileContentStreamingOutput(contentFile.get(), range.start(), range.size());
                 } else {
-                    endAsString = Long.toString(range.end());
+                    rangeContent = binary.getContent(range.start(), range.size());
                 }
 
-                final String contentRangeValue =
-                        String.format("bytes %s-%s/%s", range.start(),
-                                endAsString, contentSize);
-
-                if (range.end() > contentSize ||
-                        (range.end() == -1 && range.start() > contentSize)) {
-
-                    builder = status(REQUESTED_RANGE_NOT_SATISFIABLE)
-                            .header("Content-Range", contentRangeValue);
+                builder = status(PARTIAL_CONTENT).entity(rangeContent)
+                        .header("Content-Range", contentRangeValue)
+                        .header(CONTENT_LENGTH, range.size())
+                        .type(contentType);
+            } else if (ranges != null && ranges.size() <= MAX_RANGES) {
+                // Content stored as a plain file is written straight from the file rather than through a
+                // stream, with one channel shared by all of the ranges
+                final var contentFile = binary.openContentFile();
+                final MultipartByteRangesStreamingOutput rangesContent =
+                        new MultipartByteRangesStreamingOutput(ranges, contentSize, contentType,
+                                (output, start, length) -> {
+                                    if (contentFile.isPresent()) {
+                                        transfer(contentFile.get(), start, length, output);
+                                    } else {
+                                        try (final InputStream in = binary.getContent(start, length)) {
+                                            in.transferTo(output);
+                                        }
+                                    }
+                                });
+                final StreamingOutput rangesEntity = contentFile.isEmpty() ? rangesContent : output -> {
+                    final FileChannel channel = contentFile.get();
+                    try (channel) {
+                        rangesContent.write(output);
+                    }
+                };
+                builder = status(PARTIAL_CONTENT).entity(rangesEntity)
+                        .header(CONTENT_LENGTH, rangesContent.getContentLength())
+                        .type(rangesContent.getMediaType());
+            } else {
+                // Content stored as a plain file is written straight from the file rather than through a stream. A
+                // request for more separate ranges than are allowed is answered with the whole content.
+                final var contentFile = binary.openContentFile();
+                if (contentFile.isPresent()) {
+                    builder = ok(new FileContentStreamingOutput(contentFile.get(), binary.getContentSize()))
+                            .type(contentType);
                 } else {
                     @SuppressWarnings("resource")
-                    final RangeRequestInputStream rangeInputStream =
-                            new RangeRequestInputStream(binary.getContent(), range.start(), range.size());
-
-                    builder = status(PARTIAL_CONTENT).entity(rangeInputStream)
-                            .header("Content-Range", contentRangeValue)
-                            .header(CONTENT_LENGTH, range.size());
+                    final InputStream content = binary.getContent();
+                    builder = ok(content).type(contentType);
                 }
-
-            } else {
-                @SuppressWarnings("resource")
-                final InputStream content = binary.getContent();
-                builder = ok(content);
             }
 
-
-            // we set the content-type explicitly to avoid content-negotiation from getting in the way
-            // getBinaryResourceMediaType will try to use the mime type on the resource, falling back on
-            // 'application/octet-stream' if the mime type is syntactically invalid
-            return builder.type(getBinaryResourceMediaType(resource).toString())
-                    .cacheControl(cc)
+            return builder.cacheControl(cc)
                     .build();
 
         }
@@ -18,30 +18,21 @@
 package org.fcrepo.http.api;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_OCTET_STREAM_TYPE;
-import static org.apache.http.HttpHeaders.CONTENT_LENGTH;
-import static org.apache.http.HttpHeaders.CONTENT_TYPE;
-import static org.apache.http.HttpStatus.SC_OK;
 import static org.slf4j.LoggerFactory.getLogger;
 
-import org.apache.http.Header;
-import org.apache.http.client.methods.HttpHead;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.fcrepo.kernel.api.exception.ExternalContentAccessException;
 import org.fcrepo.kernel.api.exception.ExternalMessageBodyException;
 import javax.ws.rs.core.Link;
 
-import java.io.FileInputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.Map;
 
 import org.fcrepo.kernel.api.models.ExternalContent;
+import org.fcrepo.kernel.api.services.ExternalContentService;
+import org.fcrepo.kernel.api.utils.ExternalContentDetails;
 import org.slf4j.Logger;
 
 /**
@@ -52,7 +43,7 @@ import org.slf4j.Logger;
  * @author bseeger
  * @since 5/7/2018
  */
-public class ExternalContentHandler implements ExternalContent {
+public class ExternalContentHandler implements ExternalContent, Closeable {
 
     private static final Logger LOGGER = getLogger(FedoraLdp.class);
 
@@ -63,6 +54,8 @@ public class ExternalContentHandler implements ExternalContent {
     private final String handling;
     private String contentType;
     private Long contentSize;
+    private ExternalContentDetails copyContent;
+    private final ExternalContentService externalContentService;
 
     /* link header for external content should look like this:
           Link: <http://example.org/some/content>;
@@ -75,8 +68,10 @@ public class ExternalContentHandler implements ExternalContent {
      *  Construct an ExternalContentHandler (helper)
      *
      *  @param linkHeader actual link header from request
+     *  @param externalContentService service through which the content is accessed
      */
-    protected ExternalContentHandler(final String linkHeader) {
+    protected ExternalContentHandler(final String linkHeader, final ExternalContentService externalContentService) {
+        this.externalContentService = externalContentService;
         // if it parses, then we're mostly good to go.
         link = parseLinkHeader(linkHeader);
 
@@ -140,22 +135,30 @@ public class ExternalContentHandler implements ExternalContent {
 
     @Override
     public InputStream fetchExternalContent() {
+        // Hand over the response already opened to retrieve the content details, so it is only requested once
+        if (copyContent != null) {
+            final InputStream content = copyContent.getContent();
+            copyContent = null;
+            return content;
+        }
+        return externalContentService.fetchExternalContent(getURI());
+    }
 
-        final URI uri = link.getUri();
-        final String scheme = uri.getScheme();
-        LOGGER.debug("scheme is {}", scheme);
-        if (scheme != null) {
+    /**
+     * Release the response opened for copied content if it was never handed over by fetchExternalContent, so that a
+     * request which fails before the content is read neither holds on to the connection nor downloads the content.
+     */
+    @Override
+    public void close() {
+        if (copyContent != null) {
             try {
-                if (scheme.equals("file")) {
-                    return new FileInputStream(uri.getPath());
-                } else if (scheme.equals("http") || scheme.equals("https")) {
-                    return uri.toURL().openStream();
-                }
+                copyContent.discard();
             } catch (final IOException e) {
-                throw new ExternalContentAccessException("Failed to read external content from " + uri, e);
+                LOGGER.debug("Unable to close external content from {}: {}", getURI(), e.getMessage());
+            } finally {
+                copyContent = null;
             }
         }
-        return null;
     }
 
     /**
@@ -183,37 +186,16 @@ public class ExternalContentHandler implements ExternalContent {
 
     private void retrieveContentDetails() {
         final URI uri = getURI();
-        final String scheme = uri.getScheme().toLowerCase();
-
-        if ("file".equals(scheme)) {
-            final Path path = Paths.get(uri);
-            try {
-                contentSize = Files.size(path);
-            } catch (final IOException e) {
-                throw new ExternalMessageBodyException("Unable to access external binary at URI " + uri, e);
-            }
-        } else if ("http".equals(scheme) || "https".equals(scheme)) {
-            try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-                final HttpHead httpHead = new HttpHead(uri);
-                httpHead.setHeader("Accept-Encoding", "identity");
-                try (CloseableHttpResponse response = httpClient.execute(httpHead)) {
-                    if (response.getStatusLine().getStatusCode() != SC_OK) {
-                        throw new ExternalMessageBodyException("Unable to access external binary at URI " + uri
-                                + " received response " + response.getStatusLine().getStatusCode());
-                    }
-
-                    final Header typeHeader = response.getFirstHeader(CONTENT_TYPE);
-                    if (typeHeader != null) {
-                        contentType = typeHeader.getValue();
-                    }
-                    final Header sizeHeader = response.getFirstHeader(CONTENT_LENGTH);
-                    if (sizeHeader != null) {
-                        contentSize = Long.parseLong(sizeHeader.getValue());
-                    }
-                }
-            } catch (final IOException e) {
-                throw new ExternalMessageBodyException("Unable to access external binary at URI " + uri, e);
-            }
+        final ExternalContentDetails details;
+        try {
+            // Copied content is read in full, so take its details from the same request
+            details = isCopy() ? externalContentService.openContent(uri)
+                    : externalContentService.retrieveContentDetails(uri);
+        } catch (final ExternalContentAccessException e) {
+            throw new ExternalMessageBodyException(e.getMessage(), e);
         }
+        copyContent = details.getContent() == null ? null : details;
+        contentType = details.getContentType();
+        contentSize = details.getContentSize();
     }
 }
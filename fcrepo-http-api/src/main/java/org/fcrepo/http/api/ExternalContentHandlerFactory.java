@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.fcrepo.kernel.api.exception.ExternalMessageBodyException;
+import org.fcrepo.kernel.api.services.ExternalContentService;
 import org.slf4j.Logger;
 
 /**
@@ -37,6 +38,8 @@ public class ExternalContentHandlerFactory {
 
     private ExternalContentPathValidator validator;
 
+    private ExternalContentService externalContentService;
+
     /**
      * Looks for ExternalContent link header and if it finds one it will return a new ExternalContentHandler object
      * based on the found Link header. If multiple external content headers were found or the URI provided in the
@@ -70,7 +73,7 @@ public class ExternalContentHandlerFactory {
                 throw e;
             }
 
-            return new ExternalContentHandler(link);
+            return new ExternalContentHandler(link, externalContentService);
         }
 
         return null;
@@ -98,4 +101,13 @@ public class ExternalContentHandlerFactory {
     public void setValidator(final ExternalContentPathValidator validator) {
         this.validator = validator;
     }
+
+    /**
+     * Set the service through which external content is accessed
+     *
+     * @param externalContentService external content service
+     */
+    public void setExternalContentService(final ExternalContentService externalContentService) {
+        this.externalContentService = externalContentService;
+    }
 }
@@ -27,9 +27,24 @@ import static org.fcrepo.http.commons.domain.RDFMediaType.TEXT_HTML_WITH_CHARSET
 import static org.fcrepo.http.commons.domain.RDFMediaType.TEXT_PLAIN_WITH_CHARSET;
 import static org.fcrepo.http.commons.domain.RDFMediaType.TURTLE_WITH_CHARSET;
 import static org.fcrepo.http.commons.domain.RDFMediaType.TURTLE_X;
+import static org.apache.jena.datatypes.xsd.XSDDatatype.XSDlong;
+import static org.apache.jena.graph.NodeFactory.createLiteral;
+import static org.apache.jena.graph.NodeFactory.createLiteralByValue;
+import static org.apache.jena.graph.NodeFactory.createURI;
+import static org.fcrepo.kernel.api.RdfLexicon.EVENT_OUTCOME_INFORMATION;
+import static org.fcrepo.kernel.api.RdfLexicon.FIXITY_TYPE;
+import static org.fcrepo.kernel.api.RdfLexicon.HAS_FIXITY_RESULT;
+import static org.fcrepo.kernel.api.RdfLexicon.HAS_FIXITY_STATE;
+import static org.fcrepo.kernel.api.RdfLexicon.HAS_MESSAGE_DIGEST;
+import static org.fcrepo.kernel.api.RdfLexicon.HAS_MESSAGE_DIGEST_ALGORITHM;
+import static org.fcrepo.kernel.api.RdfLexicon.HAS_SIZE;
 import static org.fcrepo.kernel.api.RdfLexicon.LDP_NAMESPACE;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.inject.Inject;
 import javax.ws.rs.GET;
 import javax.ws.rs.NotFoundException;
@@ -38,11 +53,15 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Link;
 import com.google.common.annotations.VisibleForTesting;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.vocabulary.RDF;
 import org.fcrepo.http.commons.responses.HtmlTemplate;
 import org.fcrepo.http.commons.responses.RdfNamespacedStream;
 import org.fcrepo.kernel.api.models.Binary;
 import org.fcrepo.kernel.api.rdf.DefaultRdfStream;
 import org.fcrepo.kernel.api.services.FixityService;
+import org.fcrepo.kernel.api.utils.FixityResult;
 import org.slf4j.Logger;
 import org.springframework.context.annotation.Scope;
 
@@ -101,15 +120,28 @@ public class FedoraFixity extends ContentExposingResource {
         final Link.Builder rdfSourceLink = Link.fromUri(LDP_NAMESPACE + "RDFSource").rel("type");
         servletResponse.addHeader(LINK, rdfSourceLink.build().toString());
 
-        // TODO implement fixity check and generate response
-        fixityService.checkFixity((Binary)resource(), null);
+        final Node subject = asNode(resource());
+        final String resultPrefix = subject.getURI() + "#fixity/" + Instant.now().toEpochMilli() + "/";
+        final List<Triple> triples = new ArrayList<>();
+        int index = 0;
+        for (final FixityResult result : fixityService.checkFixity((Binary) resource())) {
+            final Node resultNode = createURI(resultPrefix + index++);
+            triples.add(new Triple(subject, HAS_FIXITY_RESULT.asNode(), resultNode));
+            triples.add(new Triple(resultNode, RDF.type.asNode(), FIXITY_TYPE.asNode()));
+            triples.add(new Triple(resultNode, RDF.type.asNode(), EVENT_OUTCOME_INFORMATION.asNode()));
+            result.getStatus().forEach(state ->
+                    triples.add(new Triple(resultNode, HAS_FIXITY_STATE.asNode(), createLiteral(state.toString()))));
+            triples.add(new Triple(resultNode, HAS_MESSAGE_DIGEST_ALGORITHM.asNode(),
+                    createLiteral(result.getUsedAlgorithm())));
+            triples.add(new Triple(resultNode, HAS_MESSAGE_DIGEST.asNode(),
+                    createURI(result.getComputedChecksum().toString())));
+            triples.add(new Triple(resultNode, HAS_SIZE.asNode(),
+                    createLiteralByValue(result.getComputedSize(), XSDlong)));
+        }
 
         LOGGER.info("Get fixity for '{}'", externalPath);
         return new RdfNamespacedStream(
-            new DefaultRdfStream(
-                asNode(resource()),
-                null
-            ),
+            new DefaultRdfStream(subject, triples.stream()),
             namespaceRegistry.getNamespaces()
         );
     }
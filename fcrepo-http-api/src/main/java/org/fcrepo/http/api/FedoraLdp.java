@@ -104,7 +104,6 @@ import org.fcrepo.kernel.api.exception.UnsupportedAlgorithmException;
 import org.fcrepo.kernel.api.identifiers.FedoraId;
 import org.fcrepo.kernel.api.models.Binary;
 import org.fcrepo.kernel.api.models.Container;
-import org.fcrepo.kernel.api.models.ExternalContent;
 import org.fcrepo.kernel.api.models.FedoraResource;
 import org.fcrepo.kernel.api.models.NonRdfSourceDescription;
 import org.fcrepo.kernel.api.services.FixityService;
@@ -381,98 +380,98 @@ public class FedoraLdp extends ContentExposingResource {
             return status(METHOD_NOT_ALLOWED).build();
         }
 
-        // If request is an external binary, verify link header before proceeding
-        final ExternalContent extContent = extContentHandlerFactory.createFromLinks(links);
+        // If request is an external binary, verify link header before proceeding. Closing the handler releases
+        // the response opened for copied content when the request fails before the content is read.
+        try (final ExternalContentHandler extContent = extContentHandlerFactory.createFromLinks(links)) {
+            final String interactionModel = checkInteractionModel(links);
 
-        final String interactionModel = checkInteractionModel(links);
+            final FedoraId fedoraId = identifierConverter().pathToInternalId(externalPath());
+            final boolean resourceExists = doesResourceExist(transaction, fedoraId);
 
-        final FedoraId fedoraId = identifierConverter().pathToInternalId(externalPath());
-        final boolean resourceExists = doesResourceExist(transaction, fedoraId);
+            if (resourceExists) {
 
-        if (resourceExists) {
+                if (httpConfiguration.putRequiresIfMatch() && StringUtils.isBlank(ifMatch)) {
+                    throw new ClientErrorException("An If-Match header is required", 428);
+                }
 
-            if (httpConfiguration.putRequiresIfMatch() && StringUtils.isBlank(ifMatch)) {
-                throw new ClientErrorException("An If-Match header is required", 428);
+                // TODO: Check existing resources interaction model and make sure we aren't trying to change it.
+                //final String resInteractionModel = getInteractionModel(resource);
+                //if (StringUtils.isNoneBlank(interactionModel) && StringUtils.isNoneBlank(resInteractionModel)
+                //        && !resInteractionModel.equals(interactionModel)) {
+                //    throw new InteractionModelViolationException("Changing the interaction model "
+                //            + resInteractionModel + " to " + interactionModel + " is not allowed!");
+                //}
             }
 
-            // TODO: Check existing resources interaction model and make sure we aren't trying to change it.
-            //final String resInteractionModel = getInteractionModel(resource);
-            //if (StringUtils.isNoneBlank(interactionModel) && StringUtils.isNoneBlank(resInteractionModel)
-            //        && !resInteractionModel.equals(interactionModel)) {
-            //    throw new InteractionModelViolationException("Changing the interaction model " + resInteractionModel
-            //            + " to " + interactionModel + " is not allowed!");
-            //}
-        }
-
-        // TODO: Refactor to check preconditions
-        //evaluateRequestPreconditions(request, servletResponse, resource, transaction);
-
-        final var providedContentType = getSimpleContentType(requestContentType);
-
-        boolean created = false;
-
-        if ((resourceExists && resource() instanceof Binary) ||
-                (!resourceExists && isBinary(interactionModel,
-                        providedContentType,
-                        requestBodyStream != null && providedContentType != null,
-                        extContent != null))) {
-            ensureArchivalGroupHeaderNotPresentForBinaries(links);
-
-            final Collection<URI> checksums = parseDigestHeader(digest);
-            final var binaryType = requestContentType != null ? requestContentType : DEFAULT_NON_RDF_CONTENT_TYPE;
-            final var contentType = extContent == null ? binaryType.toString() : extContent.getContentType();
-            final String originalFileName = contentDisposition != null ? contentDisposition.getFileName() : "";
-            final Long contentSize;
-            if (contentDisposition == null || contentDisposition.getSize() == -1) {
-                contentSize = null;
-            } else {
-                contentSize = contentDisposition.getSize();
-            }
+            // TODO: Refactor to check preconditions
+            //evaluateRequestPreconditions(request, servletResponse, resource, transaction);
+
+            final var providedContentType = getSimpleContentType(requestContentType);
+
+            boolean created = false;
+
+            if ((resourceExists && resource() instanceof Binary) ||
+                    (!resourceExists && isBinary(interactionModel,
+                            providedContentType,
+                            requestBodyStream != null && providedContentType != null,
+                            extContent != null))) {
+                ensureArchivalGroupHeaderNotPresentForBinaries(links);
+
+                final Collection<URI> checksums = parseDigestHeader(digest);
+                final var binaryType = requestContentType != null ? requestContentType : DEFAULT_NON_RDF_CONTENT_TYPE;
+                final var contentType = extContent == null ? binaryType.toString() : extContent.getContentType();
+                final String originalFileName = contentDisposition != null ? contentDisposition.getFileName() : "";
+                final Long contentSize;
+                if (contentDisposition == null || contentDisposition.getSize() == -1) {
+                    contentSize = null;
+                } else {
+                    contentSize = contentDisposition.getSize();
+                }
 
-            if (resourceExists) {
-                replaceBinariesService.perform(transaction.getId(),
-                                               getUserPrincipal(),
-                                               fedoraId,
-                                               originalFileName,
-                                               contentType,
-                                               checksums,
-                                               requestBodyStream,
-                                               contentSize,
-                                               extContent);
+                if (resourceExists) {
+                    replaceBinariesService.perform(transaction.getId(),
+                                                   getUserPrincipal(),
+                                                   fedoraId,
+                                                   originalFileName,
+                                                   contentType,
+                                                   checksums,
+                                                   requestBodyStream,
+                                                   contentSize,
+                                                   extContent);
+                } else {
+                    createResourceService.perform(transaction.getId(),
+                                                  getUserPrincipal(),
+                                                  fedoraId,
+                                                  contentType,
+                                                  originalFileName,
+                                                  contentSize,
+                                                  links,
+                                                  checksums,
+                                                  requestBodyStream,
+                                                  extContent);
+                    created = true;
+                }
             } else {
-                createResourceService.perform(transaction.getId(),
-                                              getUserPrincipal(),
-                                              fedoraId,
-                                              contentType,
-                                              originalFileName,
-                                              contentSize,
-                                              links,
-                                              checksums,
-                                              requestBodyStream,
-                                              extContent);
-                created = true;
+                final var contentType = requestContentType != null ? requestContentType : DEFAULT_RDF_CONTENT_TYPE;
+                final Model model = httpRdfService.bodyToInternalModel(fedoraId.getFullId(), requestBodyStream,
+                        contentType, identifierConverter());
+
+                if (resourceExists) {
+                    replacePropertiesService.perform(transaction.getId(),
+                                                     getUserPrincipal(),
+                                                     fedoraId,
+                                                     model);
+                } else {
+                    createResourceService.perform(transaction.getId(), getUserPrincipal(), fedoraId, links, model);
+                    created = true;
+                }
             }
-        } else {
-            final var contentType = requestContentType != null ? requestContentType : DEFAULT_RDF_CONTENT_TYPE;
-            final Model model = httpRdfService.bodyToInternalModel(fedoraId.getFullId(), requestBodyStream,
-                    contentType, identifierConverter());
 
-            if (resourceExists) {
-                replacePropertiesService.perform(transaction.getId(),
-                                                 getUserPrincipal(),
-                                                 fedoraId,
-                                                 model);
-            } else {
-                createResourceService.perform(transaction.getId(), getUserPrincipal(), fedoraId, links, model);
-                created = true;
-            }
+            // TODO: How to generate a response.
+            LOGGER.debug("Finished creating resource with path: {}", externalPath());
+            transaction.commitIfShortLived();
+            return createUpdateResponse(getFedoraResource(transaction, fedoraId), created);
         }
-
-        // TODO: How to generate a response.
-        LOGGER.debug("Finished creating resource with path: {}", externalPath());
-        transaction.commitIfShortLived();
-        return createUpdateResponse(getFedoraResource(transaction, fedoraId), created);
-
     }
 
     /**
@@ -580,61 +579,62 @@ public class FedoraLdp extends ContentExposingResource {
             return status(METHOD_NOT_ALLOWED).build();
         }
 
-        // If request is an external binary, verify link header before proceeding
-        final ExternalContent extContent = extContentHandlerFactory.createFromLinks(links);
-
-        final String interactionModel = checkInteractionModel(links);
-
-        final FedoraId fedoraId = identifierConverter().pathToInternalId(externalPath());
-        final FedoraId newFedoraId = mintNewPid(fedoraId, slug);
-        final var providedContentType = getSimpleContentType(requestContentType);
-
-        LOGGER.info("POST to create resource with ID: {}, slug: {}", newFedoraId.getFullIdPath(), slug);
-
-        if (isBinary(interactionModel,
-                     providedContentType,
-                     requestBodyStream != null && providedContentType != null,
-                     extContent != null)) {
-            ensureArchivalGroupHeaderNotPresentForBinaries(links);
+        // If request is an external binary, verify link header before proceeding. Closing the handler releases
+        // the response opened for copied content when the request fails before the content is read.
+        try (final ExternalContentHandler extContent = extContentHandlerFactory.createFromLinks(links)) {
+            final String interactionModel = checkInteractionModel(links);
+
+            final FedoraId fedoraId = identifierConverter().pathToInternalId(externalPath());
+            final FedoraId newFedoraId = mintNewPid(fedoraId, slug);
+            final var providedContentType = getSimpleContentType(requestContentType);
+
+            LOGGER.info("POST to create resource with ID: {}, slug: {}", newFedoraId.getFullIdPath(), slug);
+
+            if (isBinary(interactionModel,
+                         providedContentType,
+                         requestBodyStream != null && providedContentType != null,
+                         extContent != null)) {
+                ensureArchivalGroupHeaderNotPresentForBinaries(links);
+
+                final Collection<URI> checksums = parseDigestHeader(digest);
+                final String originalFileName = contentDisposition != null ? contentDisposition.getFileName() : "";
+                final var binaryType = requestContentType != null ? requestContentType : DEFAULT_NON_RDF_CONTENT_TYPE;
+                final var contentType = extContent == null ? binaryType.toString() : extContent.getContentType();
+                final Long contentSize;
+                if (contentDisposition == null || contentDisposition.getSize() == -1) {
+                    contentSize = null;
+                } else {
+                    contentSize = contentDisposition.getSize();
+                }
 
-            final Collection<URI> checksums = parseDigestHeader(digest);
-            final String originalFileName = contentDisposition != null ? contentDisposition.getFileName() : "";
-            final var binaryType = requestContentType != null ? requestContentType : DEFAULT_NON_RDF_CONTENT_TYPE;
-            final var contentType = extContent == null ? binaryType.toString() : extContent.getContentType();
-            final Long contentSize;
-            if (contentDisposition == null || contentDisposition.getSize() == -1) {
-                contentSize = null;
+                createResourceService.perform(transaction.getId(),
+                                              getUserPrincipal(),
+                                              newFedoraId,
+                                              contentType,
+                                              originalFileName,
+                                              contentSize,
+                                              links,
+                                              checksums,
+                                              requestBodyStream,
+                                              extContent);
             } else {
-                contentSize = contentDisposition.getSize();
+                final var contentType = requestContentType != null ? requestContentType : DEFAULT_RDF_CONTENT_TYPE;
+                final Model model = httpRdfService.bodyToInternalModel(newFedoraId.getFullId(), requestBodyStream,
+                        contentType, identifierConverter());
+                createResourceService.perform(transaction.getId(),
+                                              getUserPrincipal(),
+                                              newFedoraId,
+                                              links,
+                                              model);
+            }
+            LOGGER.debug("Finished creating resource with path: {}", externalPath());
+            transaction.commitIfShortLived();
+            try {
+                final var resource = getFedoraResource(transaction, newFedoraId);
+                return createUpdateResponse(resource, true);
+            } catch (final PathNotFoundException e) {
+                throw new PathNotFoundRuntimeException(e.getMessage(), e);
             }
-
-            createResourceService.perform(transaction.getId(),
-                                          getUserPrincipal(),
-                                          newFedoraId,
-                                          contentType,
-                                          originalFileName,
-                                          contentSize,
-                                          links,
-                                          checksums,
-                                          requestBodyStream,
-                                          extContent);
-        } else {
-            final var contentType = requestContentType != null ? requestContentType : DEFAULT_RDF_CONTENT_TYPE;
-            final Model model = httpRdfService.bodyToInternalModel(newFedoraId.getFullId(), requestBodyStream,
-                    contentType, identifierConverter());
-            createResourceService.perform(transaction.getId(),
-                                          getUserPrincipal(),
-                                          newFedoraId,
-                                          links,
-                                          model);
-        }
-        LOGGER.debug("Finished creating resource with path: {}", externalPath());
-        transaction.commitIfShortLived();
-        try {
-            final var resource = getFedoraResource(transaction, newFedoraId);
-            return createUpdateResponse(resource, true);
-        } catch (final PathNotFoundException e) {
-            throw new PathNotFoundRuntimeException(e.getMessage(), e);
         }
     }
 
@@ -17,6 +17,7 @@
  */
 package org.fcrepo.http.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.StringUtils;
 import org.fcrepo.http.commons.api.rdf.HttpIdentifierConverter;
 import org.fcrepo.search.api.Condition;
@@ -35,12 +36,23 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Link;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.Response.ok;
 import static org.fcrepo.http.commons.domain.RDFMediaType.TEXT_PLAIN_WITH_CHARSET;
@@ -58,6 +70,10 @@ public class FedoraSearch extends FedoraBaseResource {
 
     private static final Logger LOGGER = getLogger(FedoraSearch.class);
 
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    public static final String TEXT_CSV_WITH_CHARSET = "text/csv;charset=utf-8";
+
     @Inject
     private SearchIndex service;
 
@@ -77,6 +93,9 @@ public class FedoraSearch extends FedoraBaseResource {
      * @param offset     The zero-based offset of the first result to be returned
      * @param order      The order: ie "asc" or "desc"
      * @param orderBy    The field by which to order the results
+     * @param cursor     The continuation token returned with the previous page, used in place of the offset
+     * @param includeTotalResultCount Whether to include the total number of matching results
+     * @param countOnly  Whether to return only the total number of matching results
      * @return A response object with the search results
      */
     @GET
@@ -87,64 +106,236 @@ public class FedoraSearch extends FedoraBaseResource {
                              @DefaultValue("100") @QueryParam("max_results") final int maxResults,
                              @DefaultValue("0") @QueryParam("offset") final int offset,
                              @DefaultValue("asc") @QueryParam("order") final String order,
-                             @DefaultValue("fedora_id") @QueryParam("order_by") final String orderBy) {
+                             @DefaultValue("fedora_id") @QueryParam("order_by") final String orderBy,
+                             @QueryParam("cursor") final String cursor,
+                             @DefaultValue("false") @QueryParam("include_total_result_count")
+                             final boolean includeTotalResultCount,
+                             @DefaultValue("false") @QueryParam("count_only") final boolean countOnly) {
 
         LOGGER.info("GET on search with conditions: {}, and fields: {}", conditions, fields);
         try {
-            final var conditionList = new ArrayList<Condition>();
-            for (String condition : conditions) {
-                final var parsedCondition = parse(condition, identifierConverter());
-                conditionList.add(parsedCondition);
+            final var params = buildParameters(conditions, fields, maxResults, offset, order, orderBy, cursor,
+                    includeTotalResultCount, countOnly);
+            final Response.ResponseBuilder builder = ok();
+            final var result = this.service.doSearch(params);
+            final var translatedResults = translateResults(result);
+
+            final var nextCursor = result.getPagination().getNextCursor();
+            if (nextCursor != null) {
+                final var nextUri = uriInfo.getRequestUriBuilder()
+                        .replaceQueryParam("offset")
+                        .replaceQueryParam("cursor", nextCursor)
+                        .build();
+                builder.links(Link.fromUri(nextUri).rel("next").build());
             }
 
-            List<Condition.Field> parsedFields = null;
-            if (StringUtils.isBlank(fields) || fields.equals("*")) {
-                parsedFields = Arrays.asList(Condition.Field.values());
-            } else {
-                parsedFields = new ArrayList<>();
-                for (String field : fields.split(",")) {
-                    try {
-                        parsedFields.add(Condition.Field.fromString(field));
-                    } catch (Exception e) {
-                        throw new InvalidQueryException("The field \"" + field + "\" is not a valid output field.");
+            builder.entity(translatedResults);
+            return builder.build();
+        } catch (final InvalidConditionExpressionException | InvalidQueryException ex) {
+            throw new BadRequestException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Perform simple search on the repository, streaming every result as newline delimited JSON. Results are
+     * written as they are read from the index, so the number of results is unlimited by default.
+     *
+     * @param conditions The conditions constraining the query
+     * @param fields     The fields to return in results
+     * @param maxResults The max number of results to return, a negative value returns all results
+     * @param offset     The zero-based offset of the first result to be returned
+     * @param order      The order: ie "asc" or "desc"
+     * @param orderBy    The field by which to order the results
+     * @param cursor     The continuation token returned with a previous page, used in place of the offset
+     * @return A response streaming the search results
+     */
+    @GET
+    @Produces({APPLICATION_NDJSON + ";qs=0.5"})
+    public Response doSearchNdjson(@QueryParam(value = "condition") final List<String> conditions,
+                                   @QueryParam(value = "fields") final String fields,
+                                   @DefaultValue("-1") @QueryParam("max_results") final int maxResults,
+                                   @DefaultValue("0") @QueryParam("offset") final int offset,
+                                   @DefaultValue("asc") @QueryParam("order") final String order,
+                                   @DefaultValue("fedora_id") @QueryParam("order_by") final String orderBy,
+                                   @QueryParam("cursor") final String cursor) {
+        LOGGER.info("GET on streaming ndjson search with conditions: {}, and fields: {}", conditions, fields);
+        final var params = buildStreamingParameters(conditions, fields, maxResults, offset, order, orderBy,
+                cursor);
+        final var mapper = new ObjectMapper();
+        final StreamingOutput stream = out -> streamResults(params, out, (writer, item) -> {
+            writer.write(mapper.writeValueAsString(item));
+            writer.write('\n');
+        });
+        return ok(stream).build();
+    }
+
+    /**
+     * Perform simple search on the repository, streaming every result as a CSV row. Results are written as they
+     * are read from the index, so the number of results is unlimited by default.
+     *
+     * @param conditions The conditions constraining the query
+     * @param fields     The fields to return in results
+     * @param maxResults The max number of results to return, a negative value returns all results
+     * @param offset     The zero-based offset of the first result to be returned
+     * @param order      The order: ie "asc" or "desc"
+     * @param orderBy    The field by which to order the results
+     * @param cursor     The continuation token returned with a previous page, used in place of the offset
+     * @return A response streaming the search results
+     */
+    @GET
+    @Produces({TEXT_CSV_WITH_CHARSET + ";qs=0.5"})
+    public Response doSearchCsv(@QueryParam(value = "condition") final List<String> conditions,
+                                @QueryParam(value = "fields") final String fields,
+                                @DefaultValue("-1") @QueryParam("max_results") final int maxResults,
+                                @DefaultValue("0") @QueryParam("offset") final int offset,
+                                @DefaultValue("asc") @QueryParam("order") final String order,
+                                @DefaultValue("fedora_id") @QueryParam("order_by") final String orderBy,
+                                @QueryParam("cursor") final String cursor) {
+        LOGGER.info("GET on streaming csv search with conditions: {}, and fields: {}", conditions, fields);
+        final var params = buildStreamingParameters(conditions, fields, maxResults, offset, order, orderBy,
+                cursor);
+        final var columns = params.getFields().stream().map(Condition.Field::toString).collect(Collectors.toList());
+        final StreamingOutput stream = out -> streamResults(params, out, new ResultWriter() {
+            @Override
+            public void start(final Writer writer) throws IOException {
+                writeCsvRow(writer, columns);
+            }
+
+            @Override
+            public void write(final Writer writer, final Map<String, Object> item) throws IOException {
+                final var values = new ArrayList<String>(columns.size());
+                for (final var column : columns) {
+                    final var value = item.get(column);
+                    if (value == null) {
+                        values.add("");
+                    } else if (value instanceof String[]) {
+                        values.add(String.join(" ", (String[]) value));
+                    } else {
+                        values.add(value.toString());
                     }
                 }
+                writeCsvRow(writer, values);
             }
+        });
+        return ok(stream).build();
+    }
 
-            final Condition.Field orderByField;
-            try {
-                orderByField = Condition.Field.fromString(orderBy);
-            } catch (final Exception e) {
-                throw new InvalidQueryException("The order_by field must contain a valid value such as " +
-                        StringUtils.join(Condition.Field.values(), ","));
-            }
+    /**
+     * Writes a single search result to the response.
+     */
+    @FunctionalInterface
+    private interface ResultWriter {
+        default void start(final Writer writer) throws IOException {
+        }
 
-            if (!(order.equalsIgnoreCase("asc") || order.equalsIgnoreCase("desc"))) {
-                throw new InvalidQueryException("The order field is invalid:  valid values are \"asc\" and \"desc\"");
-            }
+        void write(Writer writer, Map<String, Object> item) throws IOException;
+    }
 
-            final var params = new SearchParameters(parsedFields, conditionList, maxResults, offset, orderByField,
-                    order);
-            final Response.ResponseBuilder builder = ok();
-            final var result = this.service.doSearch(params);
-            final var translatedResults = translateResults(result);
+    private void streamResults(final SearchParameters params, final OutputStream out,
+                               final ResultWriter resultWriter) throws IOException {
+        final var writer = new BufferedWriter(new OutputStreamWriter(out, UTF_8));
+        resultWriter.start(writer);
+        try {
+            this.service.doSearch(params, item -> {
+                translateItem(item);
+                try {
+                    resultWriter.write(writer, item);
+                } catch (final IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (final InvalidQueryException ex) {
+            throw new BadRequestException(ex.getMessage(), ex);
+        } catch (final UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.flush();
+    }
 
-            builder.entity(translatedResults);
-            return builder.build();
+    private static void writeCsvRow(final Writer writer, final List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            final var value = values.get(i);
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 ||
+                    value.indexOf('\r') >= 0) {
+                writer.write('"' + value.replace("\"", "\"\"") + '"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private SearchParameters buildStreamingParameters(final List<String> conditions, final String fields,
+                                                      final int maxResults, final int offset, final String order,
+                                                      final String orderBy, final String cursor) {
+        try {
+            final var params = buildParameters(conditions, fields, maxResults, offset, order, orderBy, cursor,
+                    false, false);
+            //the response is committed once streaming starts, so the query must be rejected before then
+            this.service.validate(params);
+            return params;
         } catch (final InvalidConditionExpressionException | InvalidQueryException ex) {
             throw new BadRequestException(ex.getMessage(), ex);
         }
     }
 
+    private SearchParameters buildParameters(final List<String> conditions, final String fields,
+                                             final int maxResults, final int offset, final String order,
+                                             final String orderBy, final String cursor,
+                                             final boolean includeTotalResultCount, final boolean countOnly)
+            throws InvalidConditionExpressionException, InvalidQueryException {
+        final var conditionList = new ArrayList<Condition>();
+        for (String condition : conditions) {
+            final var parsedCondition = parse(condition, identifierConverter());
+            conditionList.add(parsedCondition);
+        }
+
+        List<Condition.Field> parsedFields = null;
+        if (StringUtils.isBlank(fields) || fields.equals("*")) {
+            parsedFields = Arrays.asList(Condition.Field.values());
+        } else {
+            parsedFields = new ArrayList<>();
+            for (String field : fields.split(",")) {
+                try {
+                    parsedFields.add(Condition.Field.fromString(field));
+                } catch (Exception e) {
+                    throw new InvalidQueryException("The field \"" + field + "\" is not a valid output field.");
+                }
+            }
+        }
+
+        final Condition.Field orderByField;
+        try {
+            orderByField = Condition.Field.fromString(orderBy);
+        } catch (final Exception e) {
+            throw new InvalidQueryException("The order_by field must contain a valid value such as " +
+                    StringUtils.join(Condition.Field.values(), ","));
+        }
+
+        if (!(order.equalsIgnoreCase("asc") || order.equalsIgnoreCase("desc"))) {
+            throw new InvalidQueryException("The order field is invalid:  valid values are \"asc\" and \"desc\"");
+        }
+
+        return new SearchParameters(parsedFields, conditionList, maxResults, offset, orderByField,
+                order, StringUtils.isBlank(cursor) ? null : cursor, includeTotalResultCount, countOnly);
+    }
+
     private SearchResult translateResults(final SearchResult result) {
-        result.getItems().forEach(item -> {
-            final var key = Condition.Field.FEDORA_ID.toString();
+        result.getItems().forEach(this::translateItem);
+        return result;
+    }
+
+    private void translateItem(final Map<String, Object> item) {
+        for (final var field : List.of(Condition.Field.FEDORA_ID, Condition.Field.PARENT)) {
+            final var key = field.toString();
             final var fedoraId = item.get(key);
             if (fedoraId != null) {
                 item.put(key, identifierConverter().toExternalId(fedoraId.toString()));
             }
-        });
-        return result;
+        }
     }
 
     /**
@@ -157,7 +348,8 @@ public class FedoraSearch extends FedoraBaseResource {
     protected static Condition parse(final String expression, final HttpIdentifierConverter converter)
             throws InvalidConditionExpressionException {
         final Condition condition = Condition.fromExpression(expression);
-        if (condition.getField().equals(Condition.Field.FEDORA_ID)) {
+        if (condition.getField().equals(Condition.Field.FEDORA_ID) ||
+                condition.getField().equals(Condition.Field.PARENT)) {
             //convert the object value to an internal identifier stem where appropriate
             final var object = condition.getObject();
             final var field = condition.getField();
@@ -19,15 +19,25 @@ package org.fcrepo.http.api;
 
 import static org.fcrepo.kernel.api.RdfLexicon.EXTERNAL_CONTENT;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.io.Closeable;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import javax.ws.rs.core.Link;
 import org.fcrepo.kernel.api.exception.ExternalMessageBodyException;
+import org.fcrepo.kernel.api.services.ExternalContentService;
+import org.fcrepo.kernel.api.utils.ExternalContentDetails;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -43,16 +53,23 @@ public class ExternalContentHandlerFactoryTest {
     @Mock
     private ExternalContentPathValidator validator;
 
+    @Mock
+    private ExternalContentService externalContentService;
+
     private ExternalContentHandlerFactory factory;
 
     @Before
     public void init() {
         factory = new ExternalContentHandlerFactory();
         factory.setValidator(validator);
+        factory.setExternalContentService(externalContentService);
     }
 
     @Test
     public void testValidLinkHeader() {
+        when(externalContentService.retrieveContentDetails(URI.create("http://test.com")))
+                .thenReturn(new ExternalContentDetails(null, 10L, null));
+
         final ExternalContentHandler handler = factory.createFromLinks(
                 makeLinks("http://test.com"));
 
@@ -61,6 +78,37 @@ public class ExternalContentHandlerFactoryTest {
         assertEquals("proxy", handler.getHandling());
     }
 
+    @Test
+    public void testCloseReleasesUnreadCopyContent() throws Exception {
+        final InputStream content = mock(InputStream.class);
+        final Closeable discard = mock(Closeable.class);
+        when(externalContentService.openContent(URI.create("http://test.com")))
+                .thenReturn(new ExternalContentDetails("text/plain", 10L, content, discard));
+
+        final ExternalContentHandler handler =
+                factory.createFromLinks(makeLinksWithHandling("copy", "http://test.com"));
+        handler.close();
+
+        verify(discard).close();
+        verify(content, never()).close();
+    }
+
+    @Test
+    public void testCloseAfterFetchLeavesCopyContentOpen() throws Exception {
+        final InputStream content = mock(InputStream.class);
+        final Closeable discard = mock(Closeable.class);
+        when(externalContentService.openContent(URI.create("http://test.com")))
+                .thenReturn(new ExternalContentDetails("text/plain", 10L, content, discard));
+
+        final ExternalContentHandler handler =
+                factory.createFromLinks(makeLinksWithHandling("copy", "http://test.com"));
+        assertSame(content, handler.fetchExternalContent());
+        handler.close();
+
+        verify(content, never()).close();
+        verify(discard, never()).close();
+    }
+
     @Test(expected = ExternalMessageBodyException.class)
     public void testValidationFailure() {
         doThrow(new ExternalMessageBodyException("")).when(validator).validate(anyString());
@@ -76,10 +124,14 @@ public class ExternalContentHandlerFactoryTest {
     }
 
     private List<String> makeLinks(final String... uris) {
+        return makeLinksWithHandling("proxy", uris);
+    }
+
+    private List<String> makeLinksWithHandling(final String handling, final String... uris) {
         return Arrays.stream(uris)
                 .map(uri -> Link.fromUri(uri)
                         .rel(EXTERNAL_CONTENT.toString())
-                        .param("handling", "proxy")
+                        .param("handling", handling)
                         .type("text/plain")
                         .build()
                         .toString())
@@ -71,6 +71,7 @@ import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -1017,6 +1018,29 @@ public class FedoraLdpTest {
 
     }
 
+    @Test
+    public void testPutCopyFailingValidationClosesExternalContent() throws Exception {
+        final ExternalContentHandler extContent = mock(ExternalContentHandler.class);
+        when(extContentHandlerFactory.createFromLinks(anyList())).thenReturn(extContent);
+        when(mockHttpConfiguration.putRequiresIfMatch()).thenReturn(true);
+        when(resourceFactory.getResource(mockTransaction, pathId)).thenReturn(mockBinary);
+        when(resourceFactory.doesResourceExist(mockTransaction, pathId)).thenReturn(true);
+
+        final String copyLink = Link.fromUri("http://test.com")
+                .rel(EXTERNAL_CONTENT.toString())
+                .param("handling", "copy")
+                .type("text/plain")
+                .build()
+                .toString();
+        try {
+            testObj.createOrReplaceObjectRdf(null, null, null, null, singletonList(copyLink), null);
+            fail("Expected the missing If-Match header to be rejected");
+        } catch (final ClientErrorException e) {
+            verify(extContent).close();
+            verify(extContent, never()).fetchExternalContent();
+        }
+    }
+
     @Test
     public void testPatchObject() throws Exception {
 
@@ -28,9 +28,11 @@ import org.mockito.junit.MockitoJUnitRunner;
 import javax.ws.rs.core.UriBuilder;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.fcrepo.kernel.api.FedoraTypes.FEDORA_ID_PREFIX;
 import static org.fcrepo.search.api.Condition.Field.FEDORA_ID;
+import static org.fcrepo.search.api.Condition.Field.PARENT;
 import static org.fcrepo.search.api.Condition.Operator.EQ;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -63,6 +65,7 @@ public class FedoraSearchTest {
         for (String object : objects) {
             for (Condition.Operator operator : Condition.Operator.values()) {
                 conditions.add(FEDORA_ID.name().toLowerCase() + operator.getStringValue() + object);
+                conditions.add(PARENT.name().toLowerCase() + operator.getStringValue() + object);
             }
         }
 
@@ -88,7 +91,8 @@ public class FedoraSearchTest {
     public void testValidConditionsNonFedoraId() throws InvalidConditionExpressionException {
         final var conditions = new ArrayList<String>();
         final var object = "test";
-        Arrays.stream(Condition.Field.values()).filter(x -> !x.equals(FEDORA_ID)).forEach(field -> {
+        final var idFields = List.of(FEDORA_ID, PARENT);
+        Arrays.stream(Condition.Field.values()).filter(x -> !idFields.contains(x)).forEach(field -> {
             for (Condition.Operator operator : Condition.Operator.values()) {
                 conditions.add(field.name().toLowerCase() + operator.getStringValue() + object);
             }
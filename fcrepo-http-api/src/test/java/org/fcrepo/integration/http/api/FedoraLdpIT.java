@@ -2092,6 +2092,51 @@ public class FedoraLdpIT extends AbstractResourceIT {
         }
     }
 
+    @Test
+    public void testGetRangePastEndOfContent() throws IOException {
+        final String id = getRandomUniqueId();
+        createObjectAndClose(id);
+        createDatastream(id, "ds1", "0123456789");
+
+        final HttpGet get = getDSMethod(id, "ds1");
+        get.setHeader("Range", "bytes=5-999999");
+        try (final CloseableHttpResponse response = execute(get)) {
+            assertEquals(PARTIAL_CONTENT.getStatusCode(), getStatus(response));
+            assertEquals("bytes 5-9/10", response.getFirstHeader("Content-Range").getValue());
+            assertEquals("56789", EntityUtils.toString(response.getEntity()));
+        }
+    }
+
+    @Test
+    public void testGetSuffixRange() throws IOException {
+        final String id = getRandomUniqueId();
+        createObjectAndClose(id);
+        createDatastream(id, "ds1", "0123456789");
+
+        final HttpGet get = getDSMethod(id, "ds1");
+        get.setHeader("Range", "bytes=-3");
+        try (final CloseableHttpResponse response = execute(get)) {
+            assertEquals(PARTIAL_CONTENT.getStatusCode(), getStatus(response));
+            assertEquals("bytes 7-9/10", response.getFirstHeader("Content-Range").getValue());
+            assertEquals("789", EntityUtils.toString(response.getEntity()));
+        }
+    }
+
+    @Test
+    public void testGetOverlappingRangesCombined() throws IOException {
+        final String id = getRandomUniqueId();
+        createObjectAndClose(id);
+        createDatastream(id, "ds1", "0123456789");
+
+        final HttpGet get = getDSMethod(id, "ds1");
+        get.setHeader("Range", "bytes=2-4,0-3,3-5");
+        try (final CloseableHttpResponse response = execute(get)) {
+            assertEquals(PARTIAL_CONTENT.getStatusCode(), getStatus(response));
+            assertEquals("bytes 0-5/10", response.getFirstHeader("Content-Range").getValue());
+            assertEquals("012345", EntityUtils.toString(response.getEntity()));
+        }
+    }
+
     @Test
     public void testDeleteDatastream() throws IOException {
         final String id = getRandomUniqueId();
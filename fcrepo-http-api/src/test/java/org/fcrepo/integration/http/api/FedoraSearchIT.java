@@ -23,11 +23,13 @@ import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPatch;
 import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
 import org.fcrepo.search.api.Condition;
 import org.fcrepo.search.api.SearchResult;
 import org.junit.Test;
 import org.springframework.test.context.TestExecutionListeners;
 
+import javax.ws.rs.core.Link;
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -45,11 +47,14 @@ import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
 import static javax.ws.rs.core.Response.Status.NO_CONTENT;
 import static javax.ws.rs.core.Response.Status.OK;
 import static org.fcrepo.kernel.api.FedoraTypes.FEDORA_ID_PREFIX;
+import static org.fcrepo.kernel.api.RdfLexicon.NON_RDF_SOURCE;
 import static org.fcrepo.search.api.Condition.Field.CONTENT_SIZE;
 import static org.fcrepo.search.api.Condition.Field.CREATED;
 import static org.fcrepo.search.api.Condition.Field.FEDORA_ID;
+import static org.fcrepo.search.api.Condition.Field.INTERACTION_MODEL;
 import static org.fcrepo.search.api.Condition.Field.MIME_TYPE;
 import static org.fcrepo.search.api.Condition.Field.MODIFIED;
+import static org.fcrepo.search.api.Condition.Field.PARENT;
 import static org.fcrepo.search.api.Condition.Field.RDF_TYPE;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
@@ -363,6 +368,89 @@ public class FedoraSearchIT extends AbstractResourceIT {
         }
     }
 
+    @Test
+    public void testCursorPagination() throws Exception {
+        final var prefix = getRandomUniqueId();
+        final int count = 5;
+        final var resources = createResources(prefix, count);
+        final var condition = FEDORA_ID + "=" + prefix + "*";
+        final var maxResults = 2;
+        String searchUrl = getSearchEndpoint() + "condition=" + encode(condition) + "&max_results=" + maxResults;
+        final var returnedIds = new ArrayList<Object>();
+        while (searchUrl != null) {
+            try (final CloseableHttpResponse response = execute(new HttpGet(searchUrl))) {
+                assertEquals(OK.getStatusCode(), getStatus(response));
+                final ObjectMapper objectMapper = new ObjectMapper();
+                final SearchResult result =
+                        objectMapper.readValue(response.getEntity().getContent(), SearchResult.class);
+                result.getItems().forEach(x -> returnedIds.add(x.get("fedora_id")));
+                final var nextLinks = getLinkHeaders(response).stream().map(Link::valueOf)
+                        .filter(x -> x.getRel().equals("next")).collect(Collectors.toList());
+                if (result.getPagination().getNextCursor() == null) {
+                    assertTrue(nextLinks.isEmpty());
+                    searchUrl = null;
+                } else {
+                    assertEquals(1, nextLinks.size());
+                    searchUrl = nextLinks.get(0).getUri().toString();
+                }
+            }
+        }
+        assertEquals(resources, returnedIds);
+    }
+
+    @Test
+    public void testCursorWithDifferentOrderIsRejected() throws Exception {
+        final var prefix = getRandomUniqueId();
+        createResources(prefix, 3);
+        final var condition = FEDORA_ID + "=" + prefix + "*";
+        final String searchUrl = getSearchEndpoint() + "condition=" + encode(condition) + "&max_results=1";
+        final String cursor;
+        try (final CloseableHttpResponse response = execute(new HttpGet(searchUrl))) {
+            assertEquals(OK.getStatusCode(), getStatus(response));
+            final ObjectMapper objectMapper = new ObjectMapper();
+            final SearchResult result = objectMapper.readValue(response.getEntity().getContent(), SearchResult.class);
+            cursor = result.getPagination().getNextCursor();
+            assertNotNull(cursor);
+        }
+        try (final CloseableHttpResponse response = execute(new HttpGet(searchUrl + "&order=desc&cursor=" +
+                cursor))) {
+            assertEquals(BAD_REQUEST.getStatusCode(), getStatus(response));
+        }
+    }
+
+    @Test
+    public void testIncludeTotalResultCount() throws Exception {
+        final var prefix = getRandomUniqueId();
+        final int count = 3;
+        createResources(prefix, count);
+        final var condition = FEDORA_ID + "=" + prefix + "*";
+        final String searchUrl = getSearchEndpoint() + "condition=" + encode(condition) +
+                "&max_results=1&include_total_result_count=true";
+        try (final CloseableHttpResponse response = execute(new HttpGet(searchUrl))) {
+            assertEquals(OK.getStatusCode(), getStatus(response));
+            final ObjectMapper objectMapper = new ObjectMapper();
+            final SearchResult result = objectMapper.readValue(response.getEntity().getContent(), SearchResult.class);
+            assertEquals(1, result.getItems().size());
+            assertEquals(Integer.valueOf(count), result.getPagination().getTotalResults());
+        }
+    }
+
+    @Test
+    public void testCountOnly() throws Exception {
+        final var prefix = getRandomUniqueId();
+        final int count = 3;
+        createResources(prefix, count);
+        final var condition = FEDORA_ID + "=" + prefix + "*";
+        final String searchUrl = getSearchEndpoint() + "condition=" + encode(condition) + "&count_only=true";
+        try (final CloseableHttpResponse response = execute(new HttpGet(searchUrl))) {
+            assertEquals(OK.getStatusCode(), getStatus(response));
+            final ObjectMapper objectMapper = new ObjectMapper();
+            final SearchResult result = objectMapper.readValue(response.getEntity().getContent(), SearchResult.class);
+            assertEquals(0, result.getItems().size());
+            assertEquals(Integer.valueOf(count), result.getPagination().getTotalResults());
+        }
+    }
+
     @Test
     public void testSearchByContentSize() throws Exception {
         final var resourceId = getRandomUniqueId();
@@ -553,6 +641,101 @@ public class FedoraSearchIT extends AbstractResourceIT {
         }
     }
 
+    @Test
+    public void testSearchByRdfTypeWithoutRdfTypeField() throws Exception {
+        final var resourceId = getRandomUniqueId();
+        createObjectAndClose(resourceId);
+        final var condition = FEDORA_ID + "=" + resourceId;
+        final String searchUrl = getSearchEndpoint() + "condition=" + encode(condition) +
+                "&condition=" + encode(RDF_TYPE + "=*NonRDFSource") + "&fields=" + FEDORA_ID;
+        try (final CloseableHttpResponse response = execute(new HttpGet(searchUrl))) {
+            assertEquals(OK.getStatusCode(), getStatus(response));
+            final ObjectMapper objectMapper = new ObjectMapper();
+            final SearchResult result = objectMapper.readValue(response.getEntity().getContent(), SearchResult.class);
+            assertEquals(0, result.getItems().size());
+        }
+    }
+
+    @Test
+    public void testSearchByParentAndInteractionModel() throws Exception {
+        final var resourceId = getRandomUniqueId();
+        createObjectAndClose(resourceId);
+        final var container = resourceId + "/container";
+        final var binary = resourceId + "/binary";
+        createObjectAndClose(container);
+        assertEquals(201, getStatus(putObjMethod(binary, "text/plain", "text")));
+
+        final var parentCondition = PARENT + "=" + resourceId;
+        final String searchUrl = getSearchEndpoint() + "condition=" + encode(parentCondition) +
+                "&fields=" + FEDORA_ID + "," + PARENT;
+        try (final CloseableHttpResponse response = execute(new HttpGet(searchUrl))) {
+            assertEquals(OK.getStatusCode(), getStatus(response));
+            final ObjectMapper objectMapper = new ObjectMapper();
+            final SearchResult result = objectMapper.readValue(response.getEntity().getContent(), SearchResult.class);
+            assertEquals(List.of(serverAddress + binary, serverAddress + container),
+                    result.getItems().stream().map(x -> x.get("fedora_id")).collect(Collectors.toList()));
+            result.getItems().forEach(x -> assertEquals(serverAddress + resourceId, x.get("parent")));
+        }
+
+        final var modelCondition = INTERACTION_MODEL + "=" + NON_RDF_SOURCE.getURI();
+        final String modelSearchUrl = getSearchEndpoint() + "condition=" + encode(parentCondition) +
+                "&condition=" + encode(modelCondition);
+        try (final CloseableHttpResponse response = execute(new HttpGet(modelSearchUrl))) {
+            assertEquals(OK.getStatusCode(), getStatus(response));
+            final ObjectMapper objectMapper = new ObjectMapper();
+            final SearchResult result = objectMapper.readValue(response.getEntity().getContent(), SearchResult.class);
+            assertEquals(List.of(serverAddress + binary),
+                    result.getItems().stream().map(x -> x.get("fedora_id")).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testStreamingNdjsonAndCsv() throws Exception {
+        final var prefix = getRandomUniqueId();
+        final var resources = createResources(prefix, 3);
+        final var condition = FEDORA_ID + "=" + prefix + "*";
+        final String searchUrl = getSearchEndpoint() + "condition=" + encode(condition) +
+                "&fields=" + FEDORA_ID + "," + RDF_TYPE;
+
+        final var ndjsonGet = new HttpGet(searchUrl);
+        ndjsonGet.addHeader("Accept", "application/x-ndjson");
+        try (final CloseableHttpResponse response = execute(ndjsonGet)) {
+            assertEquals(OK.getStatusCode(), getStatus(response));
+            final ObjectMapper objectMapper = new ObjectMapper();
+            final var lines = EntityUtils.toString(response.getEntity()).lines().collect(Collectors.toList());
+            assertEquals(resources.size(), lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                final Map<?, ?> item = objectMapper.readValue(lines.get(i), Map.class);
+                assertEquals(resources.get(i), item.get(FEDORA_ID.toString()));
+                assertNotNull(item.get(RDF_TYPE.toString()));
+            }
+        }
+
+        final var csvGet = new HttpGet(searchUrl);
+        csvGet.addHeader("Accept", "text/csv");
+        try (final CloseableHttpResponse response = execute(csvGet)) {
+            assertEquals(OK.getStatusCode(), getStatus(response));
+            final var lines = EntityUtils.toString(response.getEntity()).lines().collect(Collectors.toList());
+            assertEquals(FEDORA_ID + "," + RDF_TYPE, lines.get(0));
+            assertEquals(resources.size() + 1, lines.size());
+            for (int i = 0; i < resources.size(); i++) {
+                assertTrue(lines.get(i + 1).startsWith(resources.get(i) + ","));
+            }
+        }
+    }
+
+    @Test
+    public void testStreamingInvalidCursorIsRejected() throws Exception {
+        final String searchUrl = getSearchEndpoint() + "condition=" + encode(FEDORA_ID + "=*") + "&cursor=invalid";
+        for (final String type : List.of("application/x-ndjson", "text/csv")) {
+            final var get = new HttpGet(searchUrl);
+            get.addHeader("Accept", type);
+            try (final CloseableHttpResponse response = execute(get)) {
+                assertEquals(BAD_REQUEST.getStatusCode(), getStatus(response));
+            }
+        }
+    }
+
     private String encode(final String value) {
         return URLEncoder.encode(value, StandardCharsets.UTF_8);
     }
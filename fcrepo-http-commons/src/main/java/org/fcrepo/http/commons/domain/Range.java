@@ -20,6 +20,10 @@ package org.fcrepo.http.commons.domain;
 import static java.lang.Long.parseLong;
 import static java.util.regex.Pattern.compile;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -34,9 +38,15 @@ public class Range {
 
     private final long end;
 
+    private final long suffixLength;
+
     private static final Pattern rangePattern =
         compile("^bytes\\s*=\\s*(\\d*)\\s*-\\s*(\\d*)");
 
+    private static final Pattern rangeSetPattern = compile("^bytes\\s*=(.*)$");
+
+    private static final Pattern rangeSpecPattern = compile("^\\s*(\\d*)\\s*-\\s*(\\d*)\\s*$");
+
     /**
      * Unbounded Range
      */
@@ -58,8 +68,76 @@ public class Range {
      * @param end the end
      */
     private Range(final long start, final long end) {
+        this(start, end, -1L);
+    }
+
+    private Range(final long start, final long end, final long suffixLength) {
         this.start = start;
         this.end = end;
+        this.suffixLength = suffixLength;
+    }
+
+    /**
+     * Range of the last bytes of the content, whose start depends on the size of the content
+     * @param length the number of bytes
+     * @return the suffix range
+     */
+    private static Range suffix(final long length) {
+        return new Range(0, -1L, length);
+    }
+
+    /**
+     * Is this a range of the last bytes of the content, as with "bytes=-500"
+     * @return true if the range is a suffix range
+     */
+    public boolean isSuffix() {
+        return suffixLength != -1;
+    }
+
+    /**
+     * Resolve this range against the content it is taken from, cutting a range which runs past the end of the
+     * content short there (RFC 7233, section 2.1)
+     * @param contentSize the size of the content
+     * @return the bounded range within the content, or empty if the range is not satisfiable
+     */
+    public Optional<Range> resolve(final long contentSize) {
+        if (isSuffix()) {
+            if (suffixLength == 0 || contentSize == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new Range(Math.max(0, contentSize - suffixLength), contentSize - 1));
+        }
+        if (start >= contentSize || (end != -1 && end < start)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Range(start, end == -1 || end >= contentSize ? contentSize - 1 : end));
+    }
+
+    /**
+     * Resolve the requested ranges against the content they are taken from, dropping those which are not
+     * satisfiable, and combining any which overlap or are adjacent into one (RFC 7233, section 6.1)
+     * @param ranges the requested ranges
+     * @param contentSize the size of the content
+     * @return the bounded ranges, in ascending order
+     */
+    public static List<Range> satisfiable(final List<Range> ranges, final long contentSize) {
+        final List<Range> resolved = new ArrayList<>();
+        for (final Range range : ranges) {
+            range.resolve(contentSize).ifPresent(resolved::add);
+        }
+        resolved.sort(Comparator.comparingLong(Range::start));
+
+        final List<Range> combined = new ArrayList<>();
+        for (final Range range : resolved) {
+            final int last = combined.size() - 1;
+            if (last >= 0 && range.start() <= combined.get(last).end() + 1) {
+                final Range previous = combined.get(last);
+                combined.set(last, new Range(previous.start(), Math.max(previous.end(), range.end())));
+            } else {
+                combined.add(range);
+            }
+        }
+        return combined;
     }
 
     /**
@@ -67,7 +145,7 @@ public class Range {
      * @return true if the range imposes limits
      */
     public boolean hasRange() {
-        return !(start == 0 && end == -1);
+        return isSuffix() || !(start == 0 && end == -1);
     }
 
     /**
@@ -110,9 +188,43 @@ public class Range {
             return new Range();
         }
 
-        final String from = matcher.group(1);
-        final String to = matcher.group(2);
+        return fromBounds(matcher.group(1), matcher.group(2));
+    }
+
+    /**
+     * Convert an HTTP Range header, which may request several ranges, to Range objects. A header which cannot be
+     * parsed gives a single unbounded Range, as with {@link #convert(String)}. Unlike {@link #convert(String)}, a
+     * range without a start is a suffix range of the last bytes of the content.
+     * @param source the source
+     * @return the range objects, in the order requested
+     */
+    public static List<Range> convertAll(final String source) {
+
+        final Matcher matcher = rangeSetPattern.matcher(source);
+
+        if (!matcher.matches()) {
+            return List.of(new Range());
+        }
+
+        final List<Range> ranges = new ArrayList<>();
+        for (final String spec : matcher.group(1).split(",")) {
+            if (spec.isBlank()) {
+                continue;
+            }
+            final Matcher specMatcher = rangeSpecPattern.matcher(spec);
+            if (!specMatcher.matches()) {
+                return List.of(new Range());
+            }
+            if (specMatcher.group(1).isEmpty() && !specMatcher.group(2).isEmpty()) {
+                ranges.add(suffix(parseLong(specMatcher.group(2))));
+            } else {
+                ranges.add(fromBounds(specMatcher.group(1), specMatcher.group(2)));
+            }
+        }
+        return ranges.isEmpty() ? List.of(new Range()) : ranges;
+    }
 
+    private static Range fromBounds(final String from, final String to) {
         final long start;
 
         if (from.equals("")) {
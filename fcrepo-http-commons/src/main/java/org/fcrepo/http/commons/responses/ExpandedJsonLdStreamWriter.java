@@ -0,0 +1,185 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.responses;
+
+import static org.apache.jena.datatypes.xsd.XSDDatatype.XSDstring;
+import static org.apache.jena.riot.out.NodeFmtLib.encodeBNodeLabel;
+import static org.fcrepo.kernel.api.RdfLexicon.RDF_NAMESPACE;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * Writes triples as a flat, expanded JSON-LD document as they are received. The triples of each run with the same
+ * subject are grouped by property into a node object, which is written when the subject changes or, for very large
+ * runs, once a bounded number of triples is held. JSON-LD processors merge node objects with the same @id, so the
+ * document needn't be held in memory to group them.
+ *
+ * @author agent
+ */
+public class ExpandedJsonLdStreamWriter implements StreamRDF {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String RDF_TYPE = RDF_NAMESPACE + "type";
+
+    private static final String RDF_LANG_STRING = RDF_NAMESPACE + "langString";
+
+    /**
+     * The most triples held before a node object is written.
+     */
+    private static final int MAX_PENDING_TRIPLES = 10000;
+
+    private final JsonGenerator generator;
+
+    private Node currentSubject;
+
+    /**
+     * The objects of the triples about the current subject not yet written, by property.
+     */
+    private final Map<String, List<Node>> pendingObjects = new LinkedHashMap<>();
+
+    private int pendingTriples;
+
+    /**
+     * Constructor
+     *
+     * @param output the stream to write to
+     */
+    public ExpandedJsonLdStreamWriter(final OutputStream output) {
+        try {
+            this.generator = JSON_FACTORY.createGenerator(output, JsonEncoding.UTF8);
+        } catch (final IOException e) {
+            throw new RiotException(e);
+        }
+    }
+
+    @Override
+    public void start() {
+        try {
+            generator.writeStartArray();
+        } catch (final IOException e) {
+            throw new RiotException(e);
+        }
+    }
+
+    @Override
+    public void triple(final Triple triple) {
+        if (!triple.getSubject().equals(currentSubject) || pendingTriples >= MAX_PENDING_TRIPLES) {
+            writeNodeObject();
+            currentSubject = triple.getSubject();
+        }
+        final Node object = triple.getObject();
+        final boolean isType = RDF_TYPE.equals(triple.getPredicate().getURI()) && !object.isLiteral();
+        final String property = isType ? "@type" : triple.getPredicate().getURI();
+        pendingObjects.computeIfAbsent(property, key -> new ArrayList<>()).add(object);
+        pendingTriples++;
+    }
+
+    @Override
+    public void quad(final Quad quad) {
+        triple(quad.asTriple());
+    }
+
+    @Override
+    public void base(final String base) {
+        // Expanded JSON-LD uses absolute IRIs
+    }
+
+    @Override
+    public void prefix(final String prefix, final String iri) {
+        // Expanded JSON-LD has no context in which to declare prefixes
+    }
+
+    @Override
+    public void finish() {
+        try {
+            writeNodeObject();
+            generator.writeEndArray();
+            generator.flush();
+        } catch (final IOException e) {
+            throw new RiotException(e);
+        }
+    }
+
+    private void writeNodeObject() {
+        if (currentSubject == null) {
+            return;
+        }
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("@id", toId(currentSubject));
+            for (final Map.Entry<String, List<Node>> property : pendingObjects.entrySet()) {
+                final boolean isType = property.getKey().equals("@type");
+                generator.writeArrayFieldStart(property.getKey());
+                for (final Node object : property.getValue()) {
+                    if (isType) {
+                        generator.writeString(toId(object));
+                    } else {
+                        writeObject(object);
+                    }
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        } catch (final IOException e) {
+            throw new RiotException(e);
+        }
+        pendingObjects.clear();
+        pendingTriples = 0;
+        currentSubject = null;
+    }
+
+    private void writeObject(final Node object) throws IOException {
+        generator.writeStartObject();
+        if (object.isLiteral()) {
+            generator.writeStringField("@value", object.getLiteralLexicalForm());
+            final String language = object.getLiteralLanguage();
+            final String datatype = object.getLiteralDatatypeURI();
+            if (language != null && !language.isEmpty()) {
+                generator.writeStringField("@language", language);
+            } else if (datatype != null && !datatype.equals(XSDstring.getURI()) &&
+                    !datatype.equals(RDF_LANG_STRING)) {
+                generator.writeStringField("@type", datatype);
+            }
+        } else {
+            generator.writeStringField("@id", toId(object));
+        }
+        generator.writeEndObject();
+    }
+
+    private static String toId(final Node node) {
+        if (node.isBlank()) {
+            return "_:" + encodeBNodeLabel(node.getBlankNodeLabel());
+        }
+        return node.getURI();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.responses;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Writes a byte range of a file with {@link FileChannel#transferTo}, which leaves it to the JDK to move the bytes by
+ * the most direct means available, rather than copying them through an {@link java.io.InputStream} entity.
+ *
+ * The file is read through a channel opened when the response is prepared, so the content remains readable if the
+ * file is removed before the response is written.
+ *
+ * @author agent
+ */
+public class FileContentStreamingOutput implements StreamingOutput {
+
+    private final FileChannel channel;
+
+    private final long start;
+
+    private final long length;
+
+    /**
+     * Write the whole file
+     *
+     * @param channel channel over the file, which is closed once written
+     * @param length the size of the file
+     */
+    public FileContentStreamingOutput(final FileChannel channel, final long length) {
+        this(channel, 0, length);
+    }
+
+    /**
+     * Write a range of the file
+     *
+     * @param channel channel over the file, which is closed once written
+     * @param start the position of the first byte to write
+     * @param length the number of bytes to write
+     */
+    public FileContentStreamingOutput(final FileChannel channel, final long start, final long length) {
+        this.channel = channel;
+        this.start = start;
+        this.length = length;
+    }
+
+    @Override
+    public void write(final OutputStream output) throws IOException {
+        try (channel) {
+            transfer(channel, start, length, output);
+        }
+    }
+
+    /**
+     * Write a range of a file, leaving the channel open
+     *
+     * @param channel channel over the file
+     * @param start the position of the first byte to write
+     * @param length the number of bytes to write
+     * @param output the stream to write to
+     * @throws IOException if the file ends before the range, or cannot be read or written
+     */
+    public static void transfer(final FileChannel channel, final long start, final long length,
+                                final OutputStream output) throws IOException {
+        final WritableByteChannel target = Channels.newChannel(output);
+        final long end = start + length;
+        long position = start;
+        while (position < end) {
+            final long transferred = channel.transferTo(position, end - position, target);
+            if (transferred <= 0 && position >= channel.size()) {
+                throw new EOFException("Content ended after " + (position - start) + " of " + length + " bytes");
+            }
+            position += transferred;
+        }
+    }
+}
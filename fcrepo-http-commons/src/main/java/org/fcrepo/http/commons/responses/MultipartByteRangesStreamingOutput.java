@@ -0,0 +1,129 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.responses;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.fcrepo.http.commons.domain.Range;
+
+/**
+ * Writes several byte ranges of a binary as a multipart/byteranges body (RFC 7233, Appendix A), reading each range
+ * from its offset in turn.
+ *
+ * @author agent
+ */
+public class MultipartByteRangesStreamingOutput implements StreamingOutput {
+
+    /**
+     * Writes a range of the content
+     */
+    @FunctionalInterface
+    public interface RangeWriter {
+
+        /**
+         * Write a range of the content
+         *
+         * @param output the stream to write to, which must be left open
+         * @param start the position of the first byte of the range
+         * @param length the number of bytes in the range
+         * @throws IOException if the content cannot be read or written
+         */
+        void write(OutputStream output, long start, long length) throws IOException;
+    }
+
+    private final List<Range> ranges;
+
+    private final long contentSize;
+
+    private final String contentType;
+
+    private final RangeWriter rangeWriter;
+
+    private final String boundary = UUID.randomUUID().toString();
+
+    /**
+     * Constructor
+     *
+     * @param ranges the ranges to write, each of which must lie within the content
+     * @param contentSize the size of the content
+     * @param contentType the media type of the content
+     * @param rangeWriter writes a range of the content
+     */
+    public MultipartByteRangesStreamingOutput(final List<Range> ranges, final long contentSize,
+                                              final String contentType, final RangeWriter rangeWriter) {
+        this.ranges = ranges;
+        this.contentSize = contentSize;
+        this.contentType = contentType;
+        this.rangeWriter = rangeWriter;
+    }
+
+    /**
+     * @return the media type of the multipart body, naming its boundary
+     */
+    public MediaType getMediaType() {
+        return new MediaType("multipart", "byteranges", Map.of("boundary", boundary));
+    }
+
+    /**
+     * @return the number of bytes which will be written
+     */
+    public long getContentLength() {
+        long length = closeDelimiter().length;
+        for (int i = 0; i < ranges.size(); i++) {
+            length += partHeader(i).length + size(ranges.get(i));
+        }
+        return length;
+    }
+
+    @Override
+    public void write(final OutputStream output) throws IOException {
+        for (int i = 0; i < ranges.size(); i++) {
+            final Range range = ranges.get(i);
+            output.write(partHeader(i));
+            rangeWriter.write(output, range.start(), size(range));
+        }
+        output.write(closeDelimiter());
+        output.flush();
+    }
+
+    private byte[] partHeader(final int index) {
+        final Range range = ranges.get(index);
+        final long end = range.start() + size(range) - 1;
+        return ((index == 0 ? "" : "\r\n") + "--" + boundary + "\r\n" +
+                "Content-Type: " + contentType + "\r\n" +
+                "Content-Range: bytes " + range.start() + "-" + end + "/" + contentSize + "\r\n" +
+                "\r\n").getBytes(US_ASCII);
+    }
+
+    private byte[] closeDelimiter() {
+        return ("\r\n--" + boundary + "--\r\n").getBytes(US_ASCII);
+    }
+
+    private long size(final Range range) {
+        return range.size() == -1 ? contentSize - range.start() : range.size();
+    }
+}
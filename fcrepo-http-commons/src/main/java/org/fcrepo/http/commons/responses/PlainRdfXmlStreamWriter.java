@@ -0,0 +1,282 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.responses;
+
+import static org.apache.jena.datatypes.xsd.XSDDatatype.XSDstring;
+import static org.apache.jena.riot.out.NodeFmtLib.encodeBNodeLabel;
+import static org.fcrepo.kernel.api.RdfLexicon.RDF_NAMESPACE;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.jena.ext.xerces.util.XMLChar;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.impl.Util;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * Writes triples as plain RDF/XML as they are received, with an rdf:Description element for each run of triples
+ * with the same subject. Namespaces must be declared on the root element before any triples are written, so the
+ * first triples are held back until the root element is written, and the given prefixes of the namespaces which
+ * they use are declared on it. Any other namespaces are declared on the property elements which use them, with
+ * their given prefix if there is one.
+ *
+ * @author agent
+ */
+public class PlainRdfXmlStreamWriter implements StreamRDF {
+
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private static final String RDF_LANG_STRING = RDF_NAMESPACE + "langString";
+
+    /**
+     * The most triples held back to find the namespaces to declare on the root element
+     */
+    private static final int LOOKAHEAD = 1000;
+
+    private final XMLStreamWriter writer;
+
+    /**
+     * The given prefixes which can be declared, by namespace.
+     */
+    private final Map<String, String> givenPrefixes = new HashMap<>();
+
+    /**
+     * The triples held back until the root element is written.
+     */
+    private final List<Triple> pending = new ArrayList<>();
+
+    private boolean rootWritten;
+
+    /**
+     * The prefixes declared on the root element, by namespace.
+     */
+    private final Map<String, String> declaredPrefixes = new HashMap<>();
+
+    /**
+     * The prefixes for other namespaces, which are declared where they are used.
+     */
+    private final Map<String, String> elementPrefixes = new HashMap<>();
+
+    private Node currentSubject;
+
+    /**
+     * Constructor
+     *
+     * @param output the stream to write to
+     * @param nsPrefixes the namespace prefixes which may be declared
+     */
+    public PlainRdfXmlStreamWriter(final OutputStream output, final Map<String, String> nsPrefixes) {
+        try {
+            this.writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(output, "UTF-8");
+        } catch (final XMLStreamException e) {
+            throw new RiotException(e);
+        }
+        for (final Map.Entry<String, String> ns : nsPrefixes.entrySet()) {
+            final String prefix = ns.getKey();
+            // Prefixes reserved for xml and rdf, or which could clash with generated prefixes, are not used
+            if (XMLChar.isValidNCName(prefix) && !prefix.toLowerCase().startsWith("xml") && !prefix.equals("rdf")
+                    && !prefix.startsWith("j.") && !ns.getValue().equals(RDF_NAMESPACE)
+                    && !givenPrefixes.containsValue(prefix)) {
+                givenPrefixes.putIfAbsent(ns.getValue(), prefix);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        try {
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeCharacters("\n");
+        } catch (final XMLStreamException e) {
+            throw new RiotException(e);
+        }
+    }
+
+    @Override
+    public void triple(final Triple triple) {
+        if (rootWritten) {
+            writeTriple(triple);
+            return;
+        }
+        pending.add(triple);
+        if (pending.size() >= LOOKAHEAD) {
+            writeRoot();
+        }
+    }
+
+    /**
+     * Write the root element, declaring the namespaces used by the triples held back, and then those triples
+     */
+    private void writeRoot() {
+        try {
+            writer.writeStartElement("rdf", "RDF", RDF_NAMESPACE);
+            writer.writeNamespace("rdf", RDF_NAMESPACE);
+            declaredPrefixes.put(RDF_NAMESPACE, "rdf");
+            for (final Triple triple : pending) {
+                final String namespace = namespace(triple.getPredicate().getURI());
+                final String prefix = givenPrefixes.get(namespace);
+                if (prefix != null && !declaredPrefixes.containsKey(namespace)) {
+                    writer.writeNamespace(prefix, namespace);
+                    declaredPrefixes.put(namespace, prefix);
+                }
+            }
+        } catch (final XMLStreamException e) {
+            throw new RiotException(e);
+        }
+        rootWritten = true;
+        pending.forEach(this::writeTriple);
+        pending.clear();
+    }
+
+    private void writeTriple(final Triple triple) {
+        try {
+            if (!triple.getSubject().equals(currentSubject)) {
+                endDescription();
+                writer.writeCharacters("\n  ");
+                writer.writeStartElement("rdf", "Description", RDF_NAMESPACE);
+                writeNodeAttribute(triple.getSubject(), "about");
+                currentSubject = triple.getSubject();
+            }
+            writer.writeCharacters("\n    ");
+
+            final String predicate = triple.getPredicate().getURI();
+            final String namespace = namespace(predicate);
+            final String localName = predicate.substring(namespace.length());
+            String prefix = declaredPrefixes.get(namespace);
+            final boolean declare = prefix == null;
+            if (declare) {
+                prefix = elementPrefixes.computeIfAbsent(namespace, this::elementPrefix);
+            }
+
+            final Node object = triple.getObject();
+            if (object.isLiteral()) {
+                writer.writeStartElement(prefix, localName, namespace);
+            } else {
+                writer.writeEmptyElement(prefix, localName, namespace);
+            }
+            if (declare) {
+                writer.writeNamespace(prefix, namespace);
+            }
+
+            if (object.isLiteral()) {
+                final String language = object.getLiteralLanguage();
+                final String datatype = object.getLiteralDatatypeURI();
+                if (language != null && !language.isEmpty()) {
+                    writer.writeAttribute(XMLConstants.XML_NS_PREFIX, XMLConstants.XML_NS_URI, "lang", language);
+                } else if (datatype != null && !datatype.equals(XSDstring.getURI()) &&
+                        !datatype.equals(RDF_LANG_STRING)) {
+                    writer.writeAttribute("rdf", RDF_NAMESPACE, "datatype", datatype);
+                }
+                writer.writeCharacters(object.getLiteralLexicalForm());
+                writer.writeEndElement();
+            } else {
+                writeNodeAttribute(object, "resource");
+            }
+        } catch (final XMLStreamException e) {
+            throw new RiotException(e);
+        }
+    }
+
+    @Override
+    public void quad(final Quad quad) {
+        triple(quad.asTriple());
+    }
+
+    @Override
+    public void base(final String base) {
+        // IRIs are written in full
+    }
+
+    @Override
+    public void prefix(final String prefix, final String iri) {
+        // Prefixes are declared on the root element when the document is started
+    }
+
+    @Override
+    public void finish() {
+        if (!rootWritten) {
+            writeRoot();
+        }
+        try {
+            endDescription();
+            writer.writeCharacters("\n");
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+            writer.writeEndDocument();
+            writer.flush();
+        } catch (final XMLStreamException e) {
+            throw new RiotException(e);
+        }
+    }
+
+    /**
+     * The namespace of a predicate, which is the part before the local name of its RDF/XML element
+     */
+    private static String namespace(final String predicate) {
+        final int split = Util.splitNamespaceXML(predicate);
+        if (split == predicate.length()) {
+            throw new RiotException("Cannot write predicate as an RDF/XML element: " + predicate);
+        }
+        return predicate.substring(0, split);
+    }
+
+    /**
+     * The given prefix of a namespace declared on a property element, or a generated one
+     */
+    private String elementPrefix(final String namespace) {
+        final String given = givenPrefixes.get(namespace);
+        if (given != null && !declaredPrefixes.containsValue(given)) {
+            return given;
+        }
+        int i = elementPrefixes.size();
+        while (declaredPrefixes.containsValue("j." + i) || elementPrefixes.containsValue("j." + i)) {
+            i++;
+        }
+        return "j." + i;
+    }
+
+    private void endDescription() throws XMLStreamException {
+        if (currentSubject != null) {
+            writer.writeCharacters("\n  ");
+            writer.writeEndElement();
+            currentSubject = null;
+        }
+    }
+
+    /**
+     * Identify a node with an rdf:nodeID attribute if it is a blank node, otherwise the given rdf attribute
+     */
+    private void writeNodeAttribute(final Node node, final String uriAttribute) throws XMLStreamException {
+        if (node.isBlank()) {
+            writer.writeAttribute("rdf", RDF_NAMESPACE, "nodeID", encodeBNodeLabel(node.getBlankNodeLabel()));
+        } else {
+            writer.writeAttribute("rdf", RDF_NAMESPACE, uriAttribute, node.getURI());
+        }
+    }
+}
@@ -22,7 +22,6 @@ import static org.apache.jena.riot.Lang.JSONLD;
 import static org.apache.jena.riot.Lang.RDFXML;
 import static org.apache.jena.riot.RDFLanguages.contentTypeToLang;
 import static org.apache.jena.riot.RDFLanguages.getRegisteredLanguages;
-import static org.apache.jena.riot.RDFFormat.RDFXML_PLAIN;
 import static org.apache.jena.riot.RDFFormat.JSONLD_COMPACT_FLAT;
 import static org.apache.jena.riot.RDFFormat.JSONLD_EXPAND_FLAT;
 import static org.apache.jena.riot.RDFFormat.JSONLD_FLATTEN_FLAT;
@@ -33,12 +32,11 @@ import static org.slf4j.LoggerFactory.getLogger;
 import static org.fcrepo.kernel.api.RdfLexicon.RDF_NAMESPACE;
 
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.stream.Collectors;
 import java.util.Optional;
 import java.util.Set;
 import javax.ws.rs.WebApplicationException;
@@ -54,6 +52,7 @@ import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.RDFFormat;
 import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWrapper;
 import org.fcrepo.kernel.api.RdfStream;
 import org.slf4j.Logger;
 
@@ -136,61 +135,40 @@ public class RdfStreamStreamingOutput extends AbstractFuture<Void> implements
         if (format != null) {
             LOGGER.debug("Stream-based serialization of {}", dataFormat.toString());
             if (RDFFormat.NTRIPLES.equals(format)) {
-                serializeNTriples(rdfStream, format, output);
+                serializeStreamed(rdfStream, getWriterStream(output, format));
             } else {
-                serializeBlockStreamed(rdfStream, output, format, nsPrefixes);
+                serializeStreamed(rdfStream, new PrefixDeclaringStreamRDF(getWriterStream(output, format),
+                        nsPrefixes));
             }
-        // For formats that require analysis of the entire model and cannot be streamed directly (rdfxml, n3)
+        // Plain RDF/XML and flat expanded JSON-LD can be written as the triples are read
+        } else if (RDFXML.equals(dataFormat)) {
+            LOGGER.debug("Stream-based serialization of {}", dataFormat.toString());
+            serializeStreamed(rdfStream, new PlainRdfXmlStreamWriter(output, nsPrefixes));
+        } else if (JSONLD.equals(dataFormat) && JSONLD_EXPAND_FLAT.equals(getFormatFromMediaType(dataMediaType))) {
+            LOGGER.debug("Stream-based serialization of {}", dataFormat.toString());
+            serializeStreamed(rdfStream, new ExpandedJsonLdStreamWriter(output));
+        // For formats that require analysis of the entire model and cannot be streamed directly (n3, compacted or
+        // flattened json-ld)
         } else {
             LOGGER.debug("Non-stream serialization of {}", dataFormat.toString());
             serializeNonStreamed(rdfStream, output, dataFormat, dataMediaType, nsPrefixes);
         }
     }
 
-    private static void serializeNTriples(final RdfStream rdfStream, final RDFFormat format,
-            final OutputStream output) {
-        final StreamRDF stream = new SynchonizedStreamRDFWrapper(getWriterStream(output, format));
+    private static void serializeStreamed(final RdfStream rdfStream, final StreamRDF writer) {
+        // Only a parallel stream hands triples to the writer from several threads
+        final StreamRDF stream = rdfStream.isParallel() ? new SynchonizedStreamRDFWrapper(writer) : writer;
         stream.start();
         rdfStream.forEach(stream::triple);
         stream.finish();
     }
 
-    private static void serializeBlockStreamed(final RdfStream rdfStream, final OutputStream output,
-            final RDFFormat format, final Map<String, String> nsPrefixes) {
-
-        final Set<String> namespacesPresent = new HashSet<>();
-
-        final StreamRDF stream = new SynchonizedStreamRDFWrapper(getWriterStream(output, format));
-        stream.start();
-        // Must read the rdf stream before writing out ns prefixes, otherwise the prefixes come after the triples
-        final List<Triple> tripleList = rdfStream.peek(t -> {
-            // Collect the namespaces present in the RDF stream, using the same
-            // criteria for where to look that jena's model.listNameSpaces() does
-            namespacesPresent.add(t.getPredicate().getNameSpace());
-            if (RDF_TYPE.equals(t.getPredicate().getURI()) && t.getObject().isURI()) {
-                namespacesPresent.add(t.getObject().getNameSpace());
-            }
-        }).collect(Collectors.toList());
-
-        nsPrefixes.forEach((prefix, uri) -> {
-            // Only add namespace prefixes if the namespace is present in the rdf stream
-            if (namespacesPresent.contains(uri)) {
-                stream.prefix(prefix, uri);
-            }
-        });
-        tripleList.forEach(stream::triple);
-        stream.finish();
-    }
-
     private static void serializeNonStreamed(final RdfStream rdfStream, final OutputStream output,
             final Lang dataFormat, final MediaType dataMediaType, final Map<String, String> nsPrefixes) {
         final Model model = rdfStream.collect(toModel());
 
         model.setNsPrefixes(filterNamespacesToPresent(model, nsPrefixes));
-        // use block output streaming for RDFXML
-        if (RDFXML.equals(dataFormat)) {
-            RDFDataMgr.write(output, model.getGraph(), RDFXML_PLAIN);
-        } else if (JSONLD.equals(dataFormat)) {
+        if (JSONLD.equals(dataFormat)) {
             final RDFFormat jsonldFormat = getFormatFromMediaType(dataMediaType);
             RDFDataMgr.write(output, model.getGraph(), jsonldFormat);
         } else {
@@ -234,4 +212,40 @@ public class RdfStreamStreamingOutput extends AbstractFuture<Void> implements
         }
         return JSONLD_EXPAND_FLAT;
     }
+
+    /**
+     * Declares each namespace prefix just before the first triple using its namespace, so that only the prefixes of
+     * namespaces present are written without reading the rdf stream ahead. The namespaces present are found using
+     * the same criteria for where to look that jena's model.listNameSpaces() does. Prefixes may be declared
+     * anywhere in a document, and apply to the triples after them.
+     */
+    private static class PrefixDeclaringStreamRDF extends StreamRDFWrapper {
+
+        // The prefixes not yet declared, by namespace
+        private final Map<String, List<String>> undeclaredPrefixes = new HashMap<>();
+
+        private PrefixDeclaringStreamRDF(final StreamRDF stream, final Map<String, String> nsPrefixes) {
+            super(stream);
+            nsPrefixes.forEach((prefix, uri) ->
+                    undeclaredPrefixes.computeIfAbsent(uri, key -> new ArrayList<>()).add(prefix));
+        }
+
+        @Override
+        public void triple(final Triple triple) {
+            declarePrefixes(triple.getPredicate().getNameSpace());
+            if (RDF_TYPE.equals(triple.getPredicate().getURI()) && triple.getObject().isURI()) {
+                declarePrefixes(triple.getObject().getNameSpace());
+            }
+            super.triple(triple);
+        }
+
+        private void declarePrefixes(final String namespace) {
+            if (!undeclaredPrefixes.isEmpty()) {
+                final List<String> prefixes = undeclaredPrefixes.remove(namespace);
+                if (prefixes != null) {
+                    prefixes.forEach(prefix -> prefix(prefix, namespace));
+                }
+            }
+        }
+    }
 }
@@ -21,6 +21,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.List;
+
 import org.junit.Test;
 
 /**
@@ -80,4 +82,80 @@ public class RangeTest {
         assertEquals(-1L, range.size());
 
     }
+
+    @Test
+    public void testMultipleRangeParsing() {
+        final List<Range> ranges = Range.convertAll("bytes=0-9, 50-, 20-29");
+
+        assertEquals(3, ranges.size());
+        assertEquals(0L, ranges.get(0).start());
+        assertEquals(10L, ranges.get(0).size());
+        assertEquals(50L, ranges.get(1).start());
+        assertEquals(-1L, ranges.get(1).end());
+        assertEquals(20L, ranges.get(2).start());
+        assertEquals(29L, ranges.get(2).end());
+    }
+
+    @Test
+    public void testSingleRangeParsingAsSet() {
+        final List<Range> ranges = Range.convertAll("bytes=50-100");
+
+        assertEquals(1, ranges.size());
+        assertEquals(50L, ranges.get(0).start());
+        assertEquals(100L, ranges.get(0).end());
+    }
+
+    @Test
+    public void testGarbageMultipleRangeParsing() {
+        final List<Range> ranges = Range.convertAll("bytes=0-9,garbage");
+
+        assertEquals(1, ranges.size());
+        assertFalse(ranges.get(0).hasRange());
+    }
+
+    @Test
+    public void testSuffixRangeParsingAsSet() {
+        final List<Range> ranges = Range.convertAll("bytes=-500");
+
+        assertEquals(1, ranges.size());
+        assertTrue(ranges.get(0).isSuffix());
+        assertTrue(ranges.get(0).hasRange());
+
+        final Range range = ranges.get(0).resolve(2000).orElseThrow();
+        assertEquals(1500L, range.start());
+        assertEquals(1999L, range.end());
+        assertEquals(0L, ranges.get(0).resolve(100).orElseThrow().start());
+    }
+
+    @Test
+    public void testResolveCutsRangeShortAtEndOfContent() {
+        final Range range = Range.convertAll("bytes=0-999999").get(0).resolve(10).orElseThrow();
+
+        assertEquals(0L, range.start());
+        assertEquals(9L, range.end());
+        assertEquals(10L, range.size());
+        assertEquals(9L, new Range(5).resolve(10).orElseThrow().end());
+    }
+
+    @Test
+    public void testResolveUnsatisfiableRanges() {
+        assertFalse(Range.convertAll("bytes=10-20").get(0).resolve(10).isPresent());
+        assertFalse(Range.convertAll("bytes=5-2").get(0).resolve(10).isPresent());
+        assertFalse(Range.convertAll("bytes=-0").get(0).resolve(10).isPresent());
+        assertFalse(Range.convertAll("bytes=-5").get(0).resolve(0).isPresent());
+    }
+
+    @Test
+    public void testSatisfiableRangesCombined() {
+        final List<Range> ranges = Range.satisfiable(Range.convertAll("bytes=50-59, 0-9, 5-14, 15-19, -5, 200-"),
+                100);
+
+        assertEquals(3, ranges.size());
+        assertEquals(0L, ranges.get(0).start());
+        assertEquals(19L, ranges.get(0).end());
+        assertEquals(50L, ranges.get(1).start());
+        assertEquals(59L, ranges.get(1).end());
+        assertEquals(95L, ranges.get(2).start());
+        assertEquals(99L, ranges.get(2).end());
+    }
 }
@@ -0,0 +1,82 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.responses;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class FileContentStreamingOutputTest {
+
+    @Rule
+    public TemporaryFolder tmpDir = new TemporaryFolder();
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = tmpDir.newFile().toPath();
+        Files.writeString(file, "0123456789");
+    }
+
+    @Test
+    public void shouldWriteTheWholeFile() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final FileChannel channel = FileChannel.open(file, READ);
+        new FileContentStreamingOutput(channel, 10L).write(out);
+        assertEquals("0123456789", out.toString(UTF_8));
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    public void shouldWriteARange() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new FileContentStreamingOutput(FileChannel.open(file, READ), 5L, 3L).write(out);
+        assertEquals("567", out.toString(UTF_8));
+    }
+
+    @Test(expected = EOFException.class)
+    public void shouldFailWhenTheFileIsShorterThanExpected() throws IOException {
+        new FileContentStreamingOutput(FileChannel.open(file, READ), 5L, 10L).write(new ByteArrayOutputStream());
+    }
+
+    @Test
+    public void shouldWriteAFileRemovedOnceOpened() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final FileContentStreamingOutput content = new FileContentStreamingOutput(FileChannel.open(file, READ), 10L);
+        Files.delete(file);
+        content.write(out);
+        assertEquals("0123456789", out.toString(UTF_8));
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.responses;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.fcrepo.http.commons.domain.Range;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class MultipartByteRangesStreamingOutputTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes(UTF_8);
+
+    @Test
+    public void shouldWriteEachRangeAsAPart() throws IOException {
+        final MultipartByteRangesStreamingOutput output = new MultipartByteRangesStreamingOutput(
+                Range.convertAll("bytes=1-2,7-"), CONTENT.length, "text/plain",
+                (out, start, length) -> out.write(CONTENT, (int) start, (int) length));
+        final String boundary = output.getMediaType().getParameters().get("boundary");
+        assertEquals("multipart", output.getMediaType().getType());
+        assertEquals("byteranges", output.getMediaType().getSubtype());
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        output.write(out);
+
+        assertEquals("--" + boundary + "\r\n" +
+                "Content-Type: text/plain\r\n" +
+                "Content-Range: bytes 1-2/10\r\n" +
+                "\r\n" +
+                "12\r\n" +
+                "--" + boundary + "\r\n" +
+                "Content-Type: text/plain\r\n" +
+                "Content-Range: bytes 7-9/10\r\n" +
+                "\r\n" +
+                "789\r\n" +
+                "--" + boundary + "--\r\n", out.toString(UTF_8));
+        assertEquals(out.size(), output.getContentLength());
+    }
+}
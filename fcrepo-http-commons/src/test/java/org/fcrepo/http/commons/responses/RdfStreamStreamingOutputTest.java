@@ -17,6 +17,8 @@
  */
 package org.fcrepo.http.commons.responses;
 
+import static java.util.stream.IntStream.range;
+import static java.util.stream.Stream.concat;
 import static java.util.stream.Stream.of;
 import static com.google.common.util.concurrent.Futures.addCallback;
 import static javax.ws.rs.core.MediaType.valueOf;
@@ -29,6 +31,8 @@ import static org.apache.jena.rdf.model.ResourceFactory.createProperty;
 import static org.apache.jena.rdf.model.ResourceFactory.createResource;
 import static org.apache.jena.rdf.model.ResourceFactory.createTypedLiteral;
 import static org.fcrepo.http.commons.domain.RDFMediaType.TURTLE_TYPE;
+import static org.fcrepo.kernel.api.RdfLexicon.RDF_NAMESPACE;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -49,6 +53,7 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.MoreExecutors;
 
 import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.riot.RiotException;
 import org.fcrepo.kernel.api.rdf.DefaultRdfStream;
 import org.fcrepo.kernel.api.RdfStream;
@@ -127,6 +132,120 @@ public class RdfStreamStreamingOutputTest {
         }
     }
 
+    @Test
+    public void testWriteDeclaresOnlyNamespacesPresent() throws IOException {
+        final Map<String, String> namespaces = new HashMap<>();
+        namespaces.put("a", "info:");
+        namespaces.put("ex", "http://example.org/ns#");
+        namespaces.put("unused", "http://example.org/unused#");
+        final Triple exampleTriple = create(createURI("info:testSubject"),
+                createURI("http://example.org/ns#predicate"), createLiteral("value"));
+        try (final RdfStream input = new DefaultRdfStream(triple.getSubject(), of(triple, exampleTriple));
+                final ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+            new RdfStreamStreamingOutput(input, namespaces, TURTLE_TYPE).write(output);
+            final String s = output.toString("UTF-8").replaceAll("\\s+", " ");
+            assertTrue(s.contains("@prefix a: <info:>"));
+            assertTrue(s.contains("@prefix ex: <http://example.org/ns#>"));
+            assertFalse(s.contains("@prefix unused:"));
+            try (final InputStream resultStream = new ByteArrayInputStream(output.toByteArray())) {
+                final Model result = createDefaultModel().read(resultStream, null, "TTL");
+                assertTrue(result.contains(result.asStatement(triple)));
+                assertTrue(result.contains(result.asStatement(exampleTriple)));
+            }
+        }
+    }
+
+    @Test
+    public void testRdfXmlDeclaresOnlyNamespacesPresent() throws IOException {
+        final Map<String, String> namespaces = new HashMap<>();
+        namespaces.put("ex", "http://example.org/ns#");
+        namespaces.put("late", "http://example.org/late#");
+        namespaces.put("unused", "http://example.org/unused#");
+        final Model expected = createDefaultModel();
+        // Enough triples that the last is written after the root element
+        range(0, 1500).mapToObj(i -> create(createURI("info:testSubject"),
+                createURI("http://example.org/ns#p" + i), createTypedLiteral(i).asNode()))
+                .forEach(t -> expected.add(expected.asStatement(t)));
+        final Triple lateTriple = create(createURI("info:testSubject"), createURI("http://example.org/late#p"),
+                createLiteral("late"));
+        expected.add(expected.asStatement(lateTriple));
+
+        try (final RdfStream input = new DefaultRdfStream(triple.getSubject(), concat(
+                expected.listStatements().toList().stream().map(Statement::asTriple)
+                        .filter(t -> !t.equals(lateTriple)), of(lateTriple)));
+                final ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+            new RdfStreamStreamingOutput(input, namespaces, testMediaType).write(output);
+            final String s = output.toString("UTF-8");
+            final String root = s.substring(s.indexOf("<rdf:RDF"), s.indexOf('>', s.indexOf("<rdf:RDF")));
+            assertTrue(root.contains("xmlns:ex=\"http://example.org/ns#\""));
+            assertFalse(root.contains("xmlns:late="));
+            assertFalse(s.contains("xmlns:unused="));
+            assertTrue(s.contains("<late:p xmlns:late=\"http://example.org/late#\">late</late:p>"));
+            try (final InputStream resultStream = new ByteArrayInputStream(output.toByteArray())) {
+                final Model result = createDefaultModel().read(resultStream, null, "RDF/XML");
+                assertTrue(result.isIsomorphicWith(expected));
+            }
+        }
+    }
+
+    @Test
+    public void testWriteParallelStream() throws IOException {
+        final Map<String, String> namespaces = new HashMap<>();
+        namespaces.put("a", "info:");
+        for (final MediaType mediaType : new MediaType[]{ valueOf("application/n-triples"), TURTLE_TYPE }) {
+            final Model expected = createDefaultModel();
+            range(0, 1000).mapToObj(i -> create(createURI("info:testSubject" + i % 10),
+                    createURI("info:testPredicate"), createTypedLiteral(i).asNode()))
+                    .forEach(t -> expected.add(expected.asStatement(t)));
+            try (final RdfStream input = new DefaultRdfStream(triple.getSubject(),
+                    expected.listStatements().toList().stream().map(Statement::asTriple)).parallel();
+                    final ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+                new RdfStreamStreamingOutput(input, namespaces, mediaType).write(output);
+                try (final InputStream resultStream = new ByteArrayInputStream(output.toByteArray())) {
+                    final Model result = createDefaultModel().read(resultStream, null,
+                            mediaType.equals(TURTLE_TYPE) ? "TTL" : "N-TRIPLES");
+                    assertTrue(result.isIsomorphicWith(expected));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testStreamedJsonLd() throws IOException {
+        assertRoundTrip(valueOf("application/ld+json"), "JSON-LD");
+    }
+
+    @Test
+    public void testStreamedRdfXml() throws IOException {
+        assertRoundTrip(testMediaType, "RDF/XML");
+    }
+
+    private static void assertRoundTrip(final MediaType mediaType, final String lang) throws IOException {
+        final Node subject = createURI("info:testSubject");
+        final Node blank = createResource().asNode();
+        final Model expected = createDefaultModel();
+        of(create(subject, createURI(RDF_NAMESPACE + "type"), createURI("http://example.org/ns#Thing")),
+                create(subject, createURI("http://example.org/ns#title"), createLiteral("title", "en")),
+                create(subject, createURI("http://example.org/other/count"), createTypedLiteral(1).asNode()),
+                create(subject, createURI("http://example.org/ns#title"), createLiteral("<escaped & \"quoted\">")),
+                create(subject, createURI("http://example.org/ns#child"), blank),
+                create(blank, createURI("http://example.org/ns#title"), createLiteral("child")),
+                create(subject, createURI("http://example.org/ns#child"), createURI("info:other")))
+                .forEach(t -> expected.add(expected.asStatement(t)));
+
+        final Map<String, String> namespaces = new HashMap<>();
+        namespaces.put("ex", "http://example.org/ns#");
+        try (final RdfStream input = new DefaultRdfStream(subject,
+                expected.listStatements().toList().stream().map(Statement::asTriple));
+                final ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+            new RdfStreamStreamingOutput(input, namespaces, mediaType).write(output);
+            try (final InputStream resultStream = new ByteArrayInputStream(output.toByteArray())) {
+                final Model result = createDefaultModel().read(resultStream, null, lang);
+                assertTrue("Didn't round trip " + output.toString("UTF-8"), result.isIsomorphicWith(expected));
+            }
+        }
+    }
+
     @Test
     public void testWriteWithTypedObject() throws IOException {
         assertOutputContainsTriple(create(createURI("info:testSubject"),
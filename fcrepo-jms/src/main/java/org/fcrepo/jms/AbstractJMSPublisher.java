@@ -31,6 +31,7 @@ import javax.jms.Session;
 
 import com.google.common.eventbus.AllowConcurrentEvents;
 import org.apache.activemq.ActiveMQConnectionFactory;
+import org.fcrepo.kernel.api.observer.AsynchronousSubscriber;
 import org.fcrepo.kernel.api.observer.Event;
 import org.slf4j.Logger;
 
@@ -45,6 +46,7 @@ import com.google.common.eventbus.Subscribe;
  * @author awoods
  * @author acoburn
  */
+@AsynchronousSubscriber
 abstract class AbstractJMSPublisher {
 
     @Inject
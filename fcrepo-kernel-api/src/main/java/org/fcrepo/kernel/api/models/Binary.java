@@ -19,6 +19,9 @@ package org.fcrepo.kernel.api.models;
 
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.util.Collection;
+import java.util.Optional;
 
 /**
  * @author cabeer
@@ -31,6 +34,20 @@ public interface Binary extends FedoraResource {
      */
     InputStream getContent();
 
+    /**
+     * @param offset the position of the first byte of the range
+     * @param length the number of bytes in the range, or -1 for the remainder of the content
+     * @return The InputStream of a range of the content associated with this datastream, read from the start of the
+     *         range where the content allows it.
+     */
+    InputStream getContent(long offset, long length);
+
+    /**
+     * @return A channel over the file holding the content associated with this datastream, if it is a plain file which
+     *         can be read directly rather than through {@link #getContent()}. The caller must close the channel.
+     */
+    Optional<FileChannel> openContentFile();
+
     /**
      * @return The size in bytes of content associated with this datastream.
      */
@@ -42,6 +59,12 @@ public interface Binary extends FedoraResource {
      */
     URI getContentDigest();
 
+    /**
+     * Get all of the pre-calculated content digests for the binary payload
+     * @return URIs with the format algorithm:value
+     */
+    Collection<URI> getContentDigests();
+
     /**
      * @return Whether or not this binary is a proxy to another resource
      */
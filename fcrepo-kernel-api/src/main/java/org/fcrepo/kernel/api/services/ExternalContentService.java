@@ -0,0 +1,74 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.api.services;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.util.Optional;
+
+import org.fcrepo.kernel.api.exception.ExternalContentAccessException;
+import org.fcrepo.kernel.api.utils.ExternalContentDetails;
+
+/**
+ * Service for accessing content held outside of the repository
+ *
+ * @author agent
+ */
+public interface ExternalContentService {
+
+    /**
+     * Retrieve the media type and size of external content without reading the content.
+     *
+     * @param uri location of the external content
+     * @return details of the content, without the content
+     * @throws ExternalContentAccessException if the content could not be accessed
+     */
+    ExternalContentDetails retrieveContentDetails(URI uri);
+
+    /**
+     * Open external content for reading, along with its media type and size where the source reports them.
+     *
+     * @param uri location of the external content
+     * @return details of the content, including the content
+     * @throws ExternalContentAccessException if the content could not be accessed
+     */
+    ExternalContentDetails openContent(URI uri);
+
+    /**
+     * Open a local copy of external content, where content is cached locally. The copy is current with its origin as
+     * of the call, and remains readable through the channel even if it is later evicted from the cache. Content which
+     * is not cached yet is copied into the cache in the background, and should be read from its origin meanwhile.
+     *
+     * @param uri location of the external content
+     * @return channel over the local copy of the content, to be closed by the caller, or empty if it is not cached
+     * @throws ExternalContentAccessException if the content could not be accessed
+     */
+    Optional<FileChannel> openCachedContent(URI uri);
+
+    /**
+     * Open external content for reading.
+     *
+     * @param uri location of the external content
+     * @return the content
+     * @throws ExternalContentAccessException if the content could not be accessed
+     */
+    default InputStream fetchExternalContent(final URI uri) {
+        return openContent(uri).getContent();
+    }
+}
@@ -19,6 +19,7 @@ package org.fcrepo.kernel.api.services;
 
 import org.fcrepo.kernel.api.exception.UnsupportedAlgorithmException;
 import org.fcrepo.kernel.api.models.Binary;
+import org.fcrepo.kernel.api.utils.FixityResult;
 
 import java.net.URI;
 import java.util.Collection;
@@ -39,11 +40,9 @@ public interface FixityService {
   Collection<URI> getFixity(Binary binary, Collection<String> algorithms) throws UnsupportedAlgorithmException;
 
   /**
-   * Digest this binary with the digest algorithms provided
-   * @param binary the binary resource to digest
-   * @param algorithms the digest algorithms to be used
-   * @return the checksums of this binary
-   * @throws org.fcrepo.kernel.api.exception.UnsupportedAlgorithmException if unsupported digest algorithm occurred
+   * Digest this binary with the algorithms of each of its stored digests, and compare the results to them
+   * @param binary the binary resource to check
+   * @return the result of checking each stored digest
    */
-  Collection<URI> checkFixity(Binary binary, Collection<String> algorithms) throws UnsupportedAlgorithmException;
+  Collection<FixityResult> checkFixity(Binary binary);
 }
@@ -0,0 +1,99 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.api.utils;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Utilities for reading a byte range of binary content
+ *
+ * @author agent
+ */
+public class ContentRangeUtils {
+
+    /**
+     * Open a stream over a range of a file, positioned directly at the start of the range.
+     *
+     * @param file the file
+     * @param offset the position of the first byte of the range
+     * @param length the number of bytes in the range, or -1 for the remainder of the file
+     * @return the content of the range
+     * @throws IOException if the file cannot be read
+     */
+    public static InputStream openRange(final Path file, final long offset, final long length) throws IOException {
+        return openRange(FileChannel.open(file, READ), offset, length);
+    }
+
+    /**
+     * Open a stream over a range of a file from a channel, positioned directly at the start of the range. The channel
+     * is closed along with the stream, or if the range cannot be reached.
+     *
+     * @param channel the channel over the file
+     * @param offset the position of the first byte of the range
+     * @param length the number of bytes in the range, or -1 for the remainder of the file
+     * @return the content of the range
+     * @throws IOException if the file cannot be read
+     */
+    public static InputStream openRange(final FileChannel channel, final long offset, final long length)
+            throws IOException {
+        try {
+            channel.position(offset);
+        } catch (final IOException e) {
+            channel.close();
+            throw e;
+        }
+        return limit(Channels.newInputStream(channel), length);
+    }
+
+    /**
+     * Advance a stream to the start of a range, for content which can only be read sequentially. The stream is closed
+     * if the range cannot be reached.
+     *
+     * @param content the content
+     * @param offset the position of the first byte of the range
+     * @param length the number of bytes in the range, or -1 for the remainder of the content
+     * @return the content of the range
+     * @throws IOException if the content cannot be read, or ends before the start of the range
+     */
+    public static InputStream skipToRange(final InputStream content, final long offset, final long length)
+            throws IOException {
+        try {
+            ByteStreams.skipFully(content, offset);
+        } catch (final IOException e) {
+            content.close();
+            throw e;
+        }
+        return limit(content, length);
+    }
+
+    private static InputStream limit(final InputStream content, final long length) {
+        return length < 0 ? content : ByteStreams.limit(content, length);
+    }
+
+    private ContentRangeUtils() {
+        // prevent instantiation
+    }
+}
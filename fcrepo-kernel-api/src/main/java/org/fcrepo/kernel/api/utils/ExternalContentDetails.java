@@ -0,0 +1,98 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.api.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Details of a piece of external content, as reported by its source.
+ *
+ * @author agent
+ */
+public class ExternalContentDetails {
+
+    private final String contentType;
+
+    private final Long contentSize;
+
+    private final InputStream content;
+
+    private final Closeable discard;
+
+    /**
+     * Constructor
+     *
+     * @param contentType the media type of the content, or null if not known
+     * @param contentSize the size of the content, or null if not known
+     * @param content the content, or null if it was not requested
+     */
+    public ExternalContentDetails(final String contentType, final Long contentSize, final InputStream content) {
+        this(contentType, contentSize, content, content);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param contentType the media type of the content, or null if not known
+     * @param contentSize the size of the content, or null if not known
+     * @param content the content, or null if it was not requested
+     * @param discard releases the content without reading the rest of it
+     */
+    public ExternalContentDetails(final String contentType, final Long contentSize, final InputStream content,
+                                  final Closeable discard) {
+        this.contentType = contentType;
+        this.contentSize = contentSize;
+        this.content = content;
+        this.discard = discard;
+    }
+
+    /**
+     * @return the media type of the content, or null if not known
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return the size of the content, or null if not known
+     */
+    public Long getContentSize() {
+        return contentSize;
+    }
+
+    /**
+     * @return the content, or null if it was not requested
+     */
+    public InputStream getContent() {
+        return content;
+    }
+
+    /**
+     * Release content which will not be read, without reading the rest of it. Closing the content instead may read
+     * it to the end, so that its connection can be reused.
+     *
+     * @throws IOException if the content could not be released
+     */
+    public void discard() throws IOException {
+        if (discard != null) {
+            discard.close();
+        }
+    }
+}
@@ -65,6 +65,11 @@ public interface FixityResult {
      */
     Set<FixityState> getStatus(long size, URI checksum);
 
+    /**
+     * @return the status against the size and checksum which were expected
+     */
+    Set<FixityState> getStatus();
+
     /**
      * @return the computed size
      */
@@ -0,0 +1,74 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.api.utils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.fcrepo.kernel.api.utils.ContentRangeUtils.openRange;
+import static org.fcrepo.kernel.api.utils.ContentRangeUtils.skipToRange;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class ContentRangeUtilsTest {
+
+    @Rule
+    public TemporaryFolder tmpDir = new TemporaryFolder();
+
+    @Test
+    public void testOpenRange() throws IOException {
+        final Path file = tmpDir.newFile().toPath();
+        Files.writeString(file, "0123456789");
+        try (final InputStream range = openRange(file, 5L, 3L)) {
+            assertEquals("567", new String(range.readAllBytes(), UTF_8));
+        }
+        try (final InputStream range = openRange(file, 5L, -1L)) {
+            assertEquals("56789", new String(range.readAllBytes(), UTF_8));
+        }
+    }
+
+    @Test
+    public void testSkipToRange() throws IOException {
+        try (final InputStream range = skipToRange(content(), 5L, 3L)) {
+            assertEquals("567", new String(range.readAllBytes(), UTF_8));
+        }
+        try (final InputStream range = skipToRange(content(), 5L, -1L)) {
+            assertEquals("56789", new String(range.readAllBytes(), UTF_8));
+        }
+    }
+
+    @Test(expected = EOFException.class)
+    public void testSkipToRangePastTheEnd() throws IOException {
+        skipToRange(content(), 20L, 3L);
+    }
+
+    private static InputStream content() {
+        return new ByteArrayInputStream("0123456789".getBytes(UTF_8));
+    }
+}
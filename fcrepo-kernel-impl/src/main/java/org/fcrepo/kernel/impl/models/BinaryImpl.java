@@ -26,6 +26,7 @@ import org.fcrepo.kernel.api.models.Binary;
 import org.fcrepo.kernel.api.models.ExternalContent;
 import org.fcrepo.kernel.api.models.FedoraResource;
 import org.fcrepo.kernel.api.models.ResourceFactory;
+import org.fcrepo.kernel.api.services.ExternalContentService;
 import org.fcrepo.persistence.api.PersistentStorageSessionManager;
 import org.fcrepo.persistence.api.exceptions.PersistentItemNotFoundException;
 import org.fcrepo.persistence.api.exceptions.PersistentStorageException;
@@ -33,11 +34,20 @@ import org.fcrepo.persistence.api.exceptions.PersistentStorageException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import static java.nio.file.StandardOpenOption.READ;
 import static org.fcrepo.kernel.api.RdfLexicon.FEDORA_BINARY;
 import static org.fcrepo.kernel.api.models.ExternalContent.PROXY;
+import static org.fcrepo.kernel.api.utils.ContentRangeUtils.openRange;
+import static org.fcrepo.kernel.api.utils.ContentRangeUtils.skipToRange;
 
 
 /**
@@ -59,6 +69,8 @@ public class BinaryImpl extends FedoraResourceImpl implements Binary {
 
     private Collection<URI> digests;
 
+    private ExternalContentService externalContentService;
+
     /**
      * Construct the binary
      *
@@ -76,18 +88,84 @@ public class BinaryImpl extends FedoraResourceImpl implements Binary {
     public InputStream getContent() {
         try {
             if (isProxy() || isRedirect()) {
-                return URI.create(getExternalURL()).toURL().openStream();
+                final Optional<FileChannel> contentFile = openContentFile();
+                if (contentFile.isPresent()) {
+                    return Channels.newInputStream(contentFile.get());
+                }
+                return externalContentService.fetchExternalContent(getExternalURI());
             } else {
                 return getSession().getBinaryContent(getFedoraId().asResourceId(), getMementoDatetime());
             }
         } catch (final PersistentItemNotFoundException e) {
             throw new ItemNotFoundException("Unable to find content for " + getId()
                     + " version " + getMementoDatetime(), e);
+        } catch (final PersistentStorageException e) {
+            throw new RepositoryRuntimeException(e);
+        }
+    }
+
+    @Override
+    public InputStream getContent(final long offset, final long length) {
+        try {
+            if (isProxy() || isRedirect()) {
+                final Optional<FileChannel> contentFile = openContentFile();
+                if (contentFile.isPresent()) {
+                    return openRange(contentFile.get(), offset, length);
+                }
+                return skipToRange(getContent(), offset, length);
+            } else {
+                return getSession().getBinaryContent(getFedoraId().asResourceId(), getMementoDatetime(), offset,
+                        length);
+            }
+        } catch (final PersistentItemNotFoundException e) {
+            throw new ItemNotFoundException("Unable to find content for " + getId()
+                    + " version " + getMementoDatetime(), e);
         } catch (final PersistentStorageException | IOException e) {
             throw new RepositoryRuntimeException(e);
         }
     }
 
+    @Override
+    public Optional<FileChannel> openContentFile() {
+        try {
+            if (isRedirect()) {
+                return Optional.empty();
+            } else if (isProxy()) {
+                final URI externalUri = getExternalURI();
+                if (!"file".equalsIgnoreCase(externalUri.getScheme())) {
+                    return externalContentService.openCachedContent(externalUri);
+                }
+                try {
+                    return open(Optional.of(Path.of(externalUri)));
+                } catch (final IllegalArgumentException e) {
+                    // e.g. a file URI naming a remote host, which is read with getContent
+                    return Optional.empty();
+                }
+            } else {
+                return open(getSession().getBinaryContentPath(getFedoraId().asResourceId(), getMementoDatetime()));
+            }
+        } catch (final PersistentItemNotFoundException e) {
+            throw new ItemNotFoundException("Unable to find content for " + getId()
+                    + " version " + getMementoDatetime(), e);
+        } catch (final PersistentStorageException | IOException e) {
+            throw new RepositoryRuntimeException(e);
+        }
+    }
+
+    /**
+     * Open a file for reading, if it is still a plain file
+     */
+    private static Optional<FileChannel> open(final Optional<Path> file) throws IOException {
+        if (file.isEmpty() || !Files.isRegularFile(file.get())) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(FileChannel.open(file.get(), READ));
+        } catch (final NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
     @Override
     public long getContentSize() {
         return contentSize;
@@ -103,6 +181,11 @@ public class BinaryImpl extends FedoraResourceImpl implements Binary {
         return digest.isPresent() ? digest.get() : null;
     }
 
+    @Override
+    public Collection<URI> getContentDigests() {
+        return digests == null ? List.of() : digests;
+    }
+
     @Override
     public Boolean isProxy() {
         return PROXY.equals(externalHandling);
@@ -142,6 +225,13 @@ public class BinaryImpl extends FedoraResourceImpl implements Binary {
         }
     }
 
+    /**
+     * @param externalContentService the service through which proxied and redirected content is read
+     */
+    protected void setExternalContentService(final ExternalContentService externalContentService) {
+        this.externalContentService = externalContentService;
+    }
+
     /**
      * @param externalHandling the externalHandling to set
      */
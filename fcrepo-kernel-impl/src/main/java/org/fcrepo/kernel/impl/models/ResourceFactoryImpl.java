@@ -29,6 +29,7 @@ import org.fcrepo.kernel.api.models.Binary;
 import org.fcrepo.kernel.api.models.FedoraResource;
 import org.fcrepo.kernel.api.models.ResourceFactory;
 import org.fcrepo.kernel.api.models.ResourceHeaders;
+import org.fcrepo.kernel.api.services.ExternalContentService;
 import org.fcrepo.persistence.api.PersistentStorageSession;
 import org.fcrepo.persistence.api.PersistentStorageSessionManager;
 import org.fcrepo.persistence.api.exceptions.PersistentItemNotFoundException;
@@ -66,6 +67,9 @@ public class ResourceFactoryImpl implements ResourceFactory {
     @Inject
     private ContainmentIndex containmentIndex;
 
+    @Inject
+    private ExternalContentService externalContentService;
+
     @Override
     public FedoraResource getResource(final FedoraId fedoraID)
             throws PathNotFoundException {
@@ -254,6 +258,7 @@ public class ResourceFactoryImpl implements ResourceFactory {
             binary.setDigests(headers.getDigests());
             binary.setFilename(headers.getFilename());
             binary.setMimeType(headers.getMimeType());
+            binary.setExternalContentService(externalContentService);
         }
     }
 
@@ -0,0 +1,269 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.observer;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
+import com.google.common.eventbus.DeadEvent;
+import com.google.common.eventbus.EventBus;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.fcrepo.kernel.api.observer.AsynchronousSubscriber;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Event bus which, when asynchronous dispatch is enabled, delivers events to {@link AsynchronousSubscriber}s from a
+ * queue of their own, each drained in order by a single thread. Other subscribers, such as those invalidating caches
+ * which must be current once a transaction is committed, still receive events on the posting thread. With
+ * asynchronous dispatch disabled it behaves as a plain synchronous {@link EventBus}.
+ *
+ * @author agent
+ */
+public class AsyncDispatchEventBus extends EventBus {
+
+    private static final Logger LOGGER = getLogger(AsyncDispatchEventBus.class);
+
+    /**
+     * What to do with an event for a subscriber whose queue is full
+     */
+    public enum OverflowPolicy {
+        /** Wait on the posting thread for room in the queue */
+        BLOCK,
+        /** Discard the event */
+        DROP
+    }
+
+    @Value("${fcrepo.events.async.enabled:false}")
+    private boolean asyncEnabled;
+
+    @Value("${fcrepo.events.async.queue.size:10000}")
+    private int queueSize;
+
+    @Value("${fcrepo.events.async.overflow:BLOCK}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${fcrepo.events.async.shutdown.timeout.seconds:30}")
+    private long shutdownTimeoutSeconds;
+
+    private final Map<Object, SubscriberQueue> queues = new IdentityHashMap<>();
+
+    @Override
+    public void register(final Object subscriber) {
+        if (!isAsynchronous(subscriber)) {
+            super.register(subscriber);
+            return;
+        }
+        synchronized (queues) {
+            if (!queues.containsKey(subscriber)) {
+                LOGGER.info("Dispatching events to {} asynchronously", subscriber.getClass().getName());
+                queues.put(subscriber, new SubscriberQueue(subscriber));
+            }
+        }
+    }
+
+    @Override
+    public void unregister(final Object subscriber) {
+        final SubscriberQueue queue;
+        synchronized (queues) {
+            queue = queues.remove(subscriber);
+        }
+        if (queue == null) {
+            super.unregister(subscriber);
+        } else {
+            queue.shutdown();
+        }
+    }
+
+    @Override
+    public void post(final Object event) {
+        // The superclass reposts events without synchronous subscribers as dead events, which are not queued
+        if (event instanceof DeadEvent) {
+            super.post(event);
+            return;
+        }
+        final List<SubscriberQueue> current;
+        synchronized (queues) {
+            current = new ArrayList<>(queues.values());
+        }
+        current.forEach(queue -> queue.post(event));
+        super.post(event);
+    }
+
+    /**
+     * Stop accepting events for the asynchronous subscribers, delivering those already queued
+     */
+    @PreDestroy
+    public void shutdown() {
+        final List<SubscriberQueue> current;
+        synchronized (queues) {
+            current = new ArrayList<>(queues.values());
+            queues.clear();
+        }
+        current.forEach(SubscriberQueue::shutdown);
+    }
+
+    /**
+     * @return statistics for each asynchronous subscriber's queue, for monitoring dispatch
+     */
+    public List<SubscriberStatistics> getStatistics() {
+        synchronized (queues) {
+            final List<SubscriberStatistics> statistics = new ArrayList<>();
+            queues.values().forEach(queue -> statistics.add(queue.getStatistics()));
+            return statistics;
+        }
+    }
+
+    private boolean isAsynchronous(final Object subscriber) {
+        return asyncEnabled && subscriber.getClass().isAnnotationPresent(AsynchronousSubscriber.class);
+    }
+
+    /**
+     * Counts of the events passing through an asynchronous subscriber's queue
+     */
+    public static class SubscriberStatistics {
+
+        private final String subscriber;
+
+        private final long queued;
+
+        private final long dispatched;
+
+        private final long dropped;
+
+        private SubscriberStatistics(final String subscriber, final long queued, final long dispatched,
+                                     final long dropped) {
+            this.subscriber = subscriber;
+            this.queued = queued;
+            this.dispatched = dispatched;
+            this.dropped = dropped;
+        }
+
+        /**
+         * @return class name of the subscriber
+         */
+        public String getSubscriber() {
+            return subscriber;
+        }
+
+        /**
+         * @return number of events waiting to be delivered
+         */
+        public long getQueued() {
+            return queued;
+        }
+
+        /**
+         * @return number of events delivered
+         */
+        public long getDispatched() {
+            return dispatched;
+        }
+
+        /**
+         * @return number of events discarded because the queue was full
+         */
+        public long getDropped() {
+            return dropped;
+        }
+
+        @Override
+        public String toString() {
+            return subscriber + " queued=" + queued + " dispatched=" + dispatched + " dropped=" + dropped;
+        }
+    }
+
+    /**
+     * A bounded queue of events for one subscriber, delivered in order through an event bus holding only that
+     * subscriber, so its subscriber methods and exception handling are as they would be on this bus.
+     */
+    private class SubscriberQueue {
+
+        private final String name;
+
+        private final EventBus delegate;
+
+        private final ThreadPoolExecutor executor;
+
+        private final AtomicLong dropped = new AtomicLong();
+
+        private SubscriberQueue(final Object subscriber) {
+            name = subscriber.getClass().getName();
+            delegate = new EventBus(subscriber.getClass().getSimpleName());
+            delegate.register(subscriber);
+            final RejectedExecutionHandler overflow = overflowPolicy == OverflowPolicy.BLOCK ?
+                    this::waitForRoom : (task, pool) -> drop();
+            executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("fcrepo-events-" + subscriber.getClass().getSimpleName() + "-%d")
+                            .setDaemon(true)
+                            .build(),
+                    overflow);
+        }
+
+        private void post(final Object event) {
+            executor.execute(() -> delegate.post(event));
+        }
+
+        private void waitForRoom(final Runnable task, final ThreadPoolExecutor pool) {
+            if (pool.isShutdown()) {
+                drop();
+                return;
+            }
+            try {
+                pool.getQueue().put(task);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                drop();
+            }
+        }
+
+        private void drop() {
+            final long count = dropped.incrementAndGet();
+            LOGGER.error("Event queue for {} is full or closed, dropped event ({} dropped in total)", name, count);
+        }
+
+        private void shutdown() {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+                    LOGGER.warn("Abandoning {} undelivered events for {}", executor.shutdownNow().size(), name);
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+            }
+        }
+
+        private SubscriberStatistics getStatistics() {
+            return new SubscriberStatistics(name, executor.getQueue().size(), executor.getCompletedTaskCount(),
+                    dropped.get());
+        }
+    }
+}
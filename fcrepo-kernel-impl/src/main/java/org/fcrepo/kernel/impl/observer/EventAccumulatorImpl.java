@@ -18,23 +18,35 @@
 
 package org.fcrepo.kernel.impl.observer;
 
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.MultimapBuilder;
 import com.google.common.eventbus.EventBus;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.fcrepo.kernel.api.identifiers.FedoraId;
 import org.fcrepo.kernel.api.models.ResourceFactory;
 import org.fcrepo.kernel.api.observer.EventAccumulator;
 import org.fcrepo.kernel.api.operations.ResourceOperation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -56,10 +68,41 @@ public class EventAccumulatorImpl implements EventAccumulator {
     @Inject
     private EventBus eventBus;
 
+    @Value("${fcrepo.events.type.loading.threads:4}")
+    private int typeLoadingThreads;
+
+    @Value("${fcrepo.events.type.loading.batch.size:100}")
+    private int typeLoadingBatchSize;
+
+    private ExecutorService typeLoadingExecutor;
+
     public EventAccumulatorImpl() {
         this.transactionEventMap = new ConcurrentHashMap<>();
     }
 
+    /**
+     * Set up the threads which load the resource types of large transactions
+     */
+    @PostConstruct
+    public void setUp() {
+        if (typeLoadingThreads > 1) {
+            typeLoadingExecutor = Executors.newFixedThreadPool(typeLoadingThreads, new ThreadFactoryBuilder()
+                    .setNameFormat("fcrepo-event-types-%d")
+                    .setDaemon(true)
+                    .build());
+        }
+    }
+
+    /**
+     * Stop the resource type loading threads
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (typeLoadingExecutor != null) {
+            typeLoadingExecutor.shutdownNow();
+        }
+    }
+
     @Override
     public void recordEventForOperation(final String transactionId, final FedoraId fedoraId,
                                         final ResourceOperation operation) {
@@ -79,6 +122,7 @@ public class EventAccumulatorImpl implements EventAccumulator {
         final var eventMap = transactionEventMap.remove(transactionId);
 
         if (eventMap != null) {
+            final var resourceTypes = loadResourceTypes(eventMap.keySet());
             eventMap.keySet().forEach(fedoraId -> {
                 final var events = eventMap.get(fedoraId);
 
@@ -87,7 +131,7 @@ public class EventAccumulatorImpl implements EventAccumulator {
                             .reduce(EventBuilder::merge).get();
 
                     final var event = mergedBuilder
-                            .withResourceTypes(loadResourceTypes(fedoraId))
+                            .withResourceTypes(resourceTypes.get(fedoraId))
                             .withBaseUrl(baseUrl)
                             .withUserAgent(userAgent)
                             .build();
@@ -107,6 +151,41 @@ public class EventAccumulatorImpl implements EventAccumulator {
         transactionEventMap.remove(transactionId);
     }
 
+    /**
+     * Load the types of the resources, in parallel batches when there are more than fit in a batch
+     */
+    private Map<FedoraId, Set<String>> loadResourceTypes(final Set<FedoraId> fedoraIds) {
+        final Map<FedoraId, Set<String>> resourceTypes = new HashMap<>();
+        if (typeLoadingExecutor == null || fedoraIds.size() <= typeLoadingBatchSize) {
+            fedoraIds.forEach(fedoraId -> resourceTypes.put(fedoraId, loadResourceTypes(fedoraId)));
+            return resourceTypes;
+        }
+
+        final List<Future<Map<FedoraId, Set<String>>>> batches = new ArrayList<>();
+        for (final List<FedoraId> batch : Iterables.partition(fedoraIds, typeLoadingBatchSize)) {
+            batches.add(typeLoadingExecutor.submit(() -> {
+                final Map<FedoraId, Set<String>> batchTypes = new HashMap<>();
+                batch.forEach(fedoraId -> batchTypes.put(fedoraId, loadResourceTypes(fedoraId)));
+                return batchTypes;
+            }));
+        }
+        for (final var batch : batches) {
+            try {
+                resourceTypes.putAll(batch.get());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (final ExecutionException e) {
+                LOG.debug("Failed to load a batch of resource types", e);
+            }
+        }
+        // Anything not loaded in a batch is loaded here
+        fedoraIds.stream()
+                .filter(fedoraId -> !resourceTypes.containsKey(fedoraId))
+                .forEach(fedoraId -> resourceTypes.put(fedoraId, loadResourceTypes(fedoraId)));
+        return resourceTypes;
+    }
+
     private Set<String> loadResourceTypes(final FedoraId fedoraId) {
         try {
             return resourceFactory.getResource(fedoraId).getTypes().stream()
@@ -36,13 +36,17 @@ import static org.slf4j.LoggerFactory.getLogger;
 
 import javax.inject.Inject;
 
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
 
+import com.google.common.io.CountingInputStream;
 import org.apache.jena.graph.Graph;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
@@ -58,9 +62,11 @@ import org.fcrepo.kernel.api.exception.RequestWithAclLinkHeaderException;
 import org.fcrepo.kernel.api.exception.ServerManagedPropertyException;
 import org.fcrepo.kernel.api.exception.ServerManagedTypeException;
 import org.fcrepo.kernel.api.identifiers.FedoraId;
+import org.fcrepo.kernel.api.models.ExternalContent;
 import org.fcrepo.kernel.api.observer.EventAccumulator;
 import org.fcrepo.kernel.api.operations.ResourceOperation;
 import org.fcrepo.kernel.api.services.ReferenceService;
+import org.fcrepo.persistence.common.MultiDigestInputStreamWrapper;
 import org.slf4j.Logger;
 
 
@@ -229,6 +235,25 @@ public abstract class AbstractService {
         this.eventAccumulator.recordEventForOperation(transactionId, fedoraId, operation);
     }
 
+    /**
+     * Verify the provided digests against external content which is not copied into the repository. The content is
+     * read once, and its size is taken from that read when it was not already known.
+     *
+     * @param externalContent the external content
+     * @param digests digests provided for the content
+     * @param size size of the content, or null or -1 if unknown
+     * @return the size of the content
+     */
+    protected Long verifyExternalContent(final ExternalContent externalContent, final Collection<URI> digests,
+                                         final Long size) {
+        if (digests.isEmpty()) {
+            return size;
+        }
+        final var countingStream = new CountingInputStream(externalContent.fetchExternalContent());
+        new MultiDigestInputStreamWrapper(countingStream, digests, Collections.emptyList()).checkFixity();
+        return size == null || size < 0 ? countingStream.getCount() : size;
+    }
+
     /**
      * Wrapper to call the referenceService updateReference method
      * @param transactionId the transaction ID.
@@ -36,7 +36,6 @@ import org.fcrepo.persistence.api.PersistentStorageSession;
 import org.fcrepo.persistence.api.PersistentStorageSessionManager;
 import org.fcrepo.persistence.api.exceptions.PersistentItemNotFoundException;
 import org.fcrepo.persistence.api.exceptions.PersistentStorageException;
-import org.fcrepo.persistence.common.MultiDigestInputStreamWrapper;
 import org.slf4j.Logger;
 import org.springframework.stereotype.Component;
 
@@ -105,13 +104,7 @@ public class CreateResourceServiceImpl extends AbstractService implements Create
             if (contentSize == null) {
                 size = externalContent.getContentSize();
             }
-            if (!digest.isEmpty()) {
-                final var multiDigestWrapper = new MultiDigestInputStreamWrapper(
-                        externalContent.fetchExternalContent(),
-                        digest,
-                        Collections.emptyList());
-                multiDigestWrapper.checkFixity();
-            }
+            size = verifyExternalContent(externalContent, digest, size);
         }
 
         if (externalContent != null && externalContent.getContentType() != null) {
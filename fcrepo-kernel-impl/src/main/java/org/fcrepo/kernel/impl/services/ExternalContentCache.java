@@ -0,0 +1,339 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.services;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static org.apache.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.apache.http.HttpHeaders.CONTENT_LENGTH;
+import static org.apache.http.HttpHeaders.ETAG;
+import static org.apache.http.HttpHeaders.IF_MODIFIED_SINCE;
+import static org.apache.http.HttpHeaders.IF_NONE_MATCH;
+import static org.apache.http.HttpHeaders.LAST_MODIFIED;
+import static org.apache.http.HttpStatus.SC_NOT_MODIFIED;
+import static org.apache.http.HttpStatus.SC_OK;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.ByteStreams;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.fcrepo.kernel.api.exception.ExternalContentAccessException;
+import org.slf4j.Logger;
+
+/**
+ * Read-through cache on local disk of external content, bounded by the total size of the cached files and evicting
+ * the least recently used first. Cached content is revalidated with its origin using the ETag and Last-Modified
+ * headers it was served with, so unchanged content is not transferred again.
+ *
+ * Content is copied into the cache in the background, so that a request for content which is not cached yet is not
+ * held up until the whole of it has been downloaded. Cached files are handed out as open channels, which remain
+ * readable after the file is evicted or replaced and deleted.
+ *
+ * @author agent
+ */
+class ExternalContentCache {
+
+    private static final Logger LOGGER = getLogger(ExternalContentCache.class);
+
+    /**
+     * Cached content is weighed in KiB, so that the total weight of a large cache fits in the int weights of the
+     * cache
+     */
+    private static final long WEIGHT_UNIT = 1024;
+
+    /**
+     * Names of the files holding cached content
+     */
+    private static final Pattern CACHED_FILE_NAME =
+            Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+
+    private final CloseableHttpClient httpClient;
+
+    private final Path directory;
+
+    private final long maxBytes;
+
+    private final Duration revalidateAfter;
+
+    private final Executor fillExecutor;
+
+    private final Cache<String, CachedContent> entries;
+
+    /**
+     * Content which cannot be cached, so that it is not requested for the cache again
+     */
+    private final Cache<String, Boolean> uncacheable;
+
+    /**
+     * Content being copied into the cache, so that it is only copied once at a time
+     */
+    private final Set<String> filling = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor
+     *
+     * @param httpClient client through which content is requested
+     * @param directory directory in which content is cached, emptied of any content previously cached there
+     * @param maxBytes the most bytes to hold in the cache
+     * @param revalidateAfter how long cached content is served before being revalidated with its origin
+     * @param fillExecutor executor which copies content into the cache
+     * @throws IOException if the directory could not be prepared
+     */
+    ExternalContentCache(final CloseableHttpClient httpClient, final Path directory, final long maxBytes,
+                         final Duration revalidateAfter, final Executor fillExecutor) throws IOException {
+        this.httpClient = httpClient;
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.revalidateAfter = revalidateAfter;
+        this.fillExecutor = fillExecutor;
+
+        Files.createDirectories(directory);
+        // The index of cached content is only held in memory, so anything left over cannot be trusted. Only files
+        // named as the cache names them are removed, in case the directory is shared with other files.
+        try (final Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> CACHED_FILE_NAME.matcher(file.getFileName().toString()).matches()
+                    && Files.isRegularFile(file))
+                    .forEach(ExternalContentCache::delete);
+        }
+
+        // A single segment, so that content up to the full size of the cache can be held
+        entries = CacheBuilder.newBuilder()
+                .concurrencyLevel(1)
+                .maximumWeight(weigh(maxBytes))
+                .weigher((final String key, final CachedContent value) -> (int) weigh(value.size))
+                .<String, CachedContent>removalListener(notification -> delete(notification.getValue().path))
+                .build();
+        uncacheable = CacheBuilder.newBuilder()
+                .maximumSize(10000)
+                .expireAfterWrite(Duration.ofHours(1))
+                .build();
+    }
+
+    /**
+     * Open a current local copy of external content. Content which is not cached, or has changed since it was
+     * cached, is copied into the cache in the background.
+     *
+     * Content is not cached if it is larger than the cache, or if its origin provides no ETag or Last-Modified date
+     * to revalidate it with.
+     *
+     * @param uri location of the content
+     * @return a channel over the cached content, or empty if it is not cached
+     * @throws ExternalContentAccessException if cached content could not be revalidated
+     */
+    Optional<FileChannel> get(final URI uri) {
+        final String key = uri.toString();
+        if (uncacheable.getIfPresent(key) != null) {
+            return Optional.empty();
+        }
+
+        final CachedContent cached = entries.getIfPresent(key);
+        if (cached == null) {
+            fill(uri);
+            return Optional.empty();
+        }
+        if (!Instant.now().isBefore(cached.validated.plus(revalidateAfter)) && !revalidate(uri, cached)) {
+            entries.asMap().remove(key, cached);
+            fill(uri);
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(FileChannel.open(cached.path, READ));
+        } catch (final NoSuchFileException e) {
+            // Evicted since it was looked up
+            return Optional.empty();
+        } catch (final IOException e) {
+            throw new ExternalContentAccessException("Failed to read cached external content from " + uri, e);
+        }
+    }
+
+    /**
+     * Empty the cache, removing the cached files
+     */
+    void clear() {
+        entries.invalidateAll();
+    }
+
+    /**
+     * Check with the origin whether cached content is current, without transferring the content if it is
+     *
+     * @return true if the content has not changed
+     */
+    private boolean revalidate(final URI uri, final CachedContent cached) {
+        final HttpGet request = new HttpGet(uri);
+        request.setHeader(ACCEPT_ENCODING, "identity");
+        if (cached.etag != null) {
+            request.setHeader(IF_NONE_MATCH, cached.etag);
+        }
+        if (cached.lastModified != null) {
+            request.setHeader(IF_MODIFIED_SINCE, cached.lastModified);
+        }
+        try (final CloseableHttpResponse response = httpClient.execute(request)) {
+            if (response.getStatusLine().getStatusCode() == SC_NOT_MODIFIED) {
+                LOGGER.debug("Cached external content {} is current", uri);
+                cached.validated = Instant.now();
+                return true;
+            }
+            // Any new content is left unread, and copied into the cache separately
+            request.abort();
+            return false;
+        } catch (final IOException e) {
+            throw new ExternalContentAccessException("Failed to revalidate external content from " + uri, e);
+        }
+    }
+
+    /**
+     * Copy content into the cache in the background, unless it is already being copied
+     */
+    private void fill(final URI uri) {
+        final String key = uri.toString();
+        if (!filling.add(key)) {
+            return;
+        }
+        try {
+            fillExecutor.execute(() -> {
+                try {
+                    download(uri);
+                } catch (final IOException | RuntimeException e) {
+                    LOGGER.warn("Failed to cache external content from {}: {}", uri, e.getMessage());
+                } finally {
+                    filling.remove(key);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            LOGGER.debug("Not caching external content {}, too many are being cached", uri);
+            filling.remove(key);
+        }
+    }
+
+    private void download(final URI uri) throws IOException {
+        final HttpGet request = new HttpGet(uri);
+        request.setHeader(ACCEPT_ENCODING, "identity");
+        try (final CloseableHttpResponse response = httpClient.execute(request)) {
+            final int status = response.getStatusLine().getStatusCode();
+            if (status != SC_OK) {
+                LOGGER.debug("Not caching external content {}, received response {}", uri, status);
+                request.abort();
+                return;
+            }
+            store(uri.toString(), request, response);
+        }
+    }
+
+    private void store(final String key, final HttpGet request, final HttpResponse response) throws IOException {
+        final String etag = getHeader(response, ETAG);
+        final String lastModified = getHeader(response, LAST_MODIFIED);
+        final String length = getHeader(response, CONTENT_LENGTH);
+        if ((etag == null && lastModified == null) || (length != null && Long.parseLong(length) > maxBytes)
+                || response.getEntity() == null) {
+            LOGGER.debug("External content {} cannot be cached", key);
+            uncacheable.put(key, Boolean.TRUE);
+            return;
+        }
+
+        // A new file for each version, so that readers of a replaced version are unaffected
+        final Path file = directory.resolve(UUID.randomUUID().toString());
+        final InputStream content = response.getEntity().getContent();
+        final long size;
+        try {
+            // Content of unknown length is copied no further than it takes to find that it is too large
+            size = Files.copy(ByteStreams.limit(content, maxBytes + 1), file);
+        } catch (final IOException e) {
+            delete(file);
+            request.abort();
+            throw e;
+        }
+        if (size > maxBytes) {
+            LOGGER.debug("External content {} is larger than the cache", key);
+            delete(file);
+            uncacheable.put(key, Boolean.TRUE);
+            // Drop the connection rather than reading the rest of the content
+            request.abort();
+            return;
+        }
+        content.close();
+        LOGGER.debug("Cached {} bytes of external content {}", size, key);
+        entries.put(key, new CachedContent(file, etag, lastModified, size));
+    }
+
+    /**
+     * @return the weight of content of a size, rounded up to a whole unit
+     */
+    static long weigh(final long bytes) {
+        return Math.min(Math.max(1, (bytes + WEIGHT_UNIT - 1) / WEIGHT_UNIT), Integer.MAX_VALUE);
+    }
+
+    private static String getHeader(final HttpResponse response, final String name) {
+        final Header header = response.getFirstHeader(name);
+        return header == null ? null : header.getValue();
+    }
+
+    private static void delete(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (final IOException e) {
+            LOGGER.warn("Failed to delete cached external content {}", file, e);
+        }
+    }
+
+    /**
+     * A cached copy of external content, with the validators it was served with
+     */
+    private static class CachedContent {
+
+        private final Path path;
+
+        private final String etag;
+
+        private final String lastModified;
+
+        private final long size;
+
+        private volatile Instant validated;
+
+        private CachedContent(final Path path, final String etag, final String lastModified, final long size) {
+            this.path = path;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.validated = Instant.now();
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.services;
+
+import static org.apache.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.apache.http.HttpHeaders.CONTENT_LENGTH;
+import static org.apache.http.HttpHeaders.CONTENT_TYPE;
+import static org.apache.http.HttpStatus.SC_OK;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.fcrepo.kernel.api.exception.ExternalContentAccessException;
+import org.fcrepo.kernel.api.services.ExternalContentService;
+import org.fcrepo.kernel.api.utils.ExternalContentDetails;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Implementation of {@link org.fcrepo.kernel.api.services.ExternalContentService}
+ *
+ * Content on http(s) is requested through a single pooled client, so that connections to a host are reused and
+ * bounded rather than opened per request.
+ *
+ * @author agent
+ */
+@Component
+public class ExternalContentServiceImpl implements ExternalContentService {
+
+    private static final Logger LOGGER = getLogger(ExternalContentServiceImpl.class);
+
+    @Value("${fcrepo.external.content.max.connections:200}")
+    private int maxConnections;
+
+    @Value("${fcrepo.external.content.max.connections.per.host:20}")
+    private int maxConnectionsPerHost;
+
+    @Value("${fcrepo.external.content.connect.timeout.ms:10000}")
+    private int connectTimeout;
+
+    @Value("${fcrepo.external.content.read.timeout.ms:60000}")
+    private int readTimeout;
+
+    @Value("${fcrepo.external.content.connection.request.timeout.ms:30000}")
+    private int connectionRequestTimeout;
+
+    @Value("${fcrepo.external.content.idle.timeout.ms:60000}")
+    private long idleTimeout;
+
+    @Value("${fcrepo.external.content.cache.enabled:false}")
+    private boolean cacheEnabled;
+
+    @Value("${fcrepo.external.content.cache.dir:${fcrepo.home:fcrepo-home}/data/external-content-cache}")
+    private Path cacheDirectory;
+
+    @Value("${fcrepo.external.content.cache.max.bytes:1073741824}")
+    private long cacheMaxBytes;
+
+    @Value("${fcrepo.external.content.cache.revalidate.seconds:0}")
+    private long cacheRevalidateSeconds;
+
+    @Value("${fcrepo.external.content.cache.fill.threads:2}")
+    private int cacheFillThreads;
+
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    private CloseableHttpClient httpClient;
+
+    private ExternalContentCache cache;
+
+    private ThreadPoolExecutor cacheFillExecutor;
+
+    /**
+     * Set up the connection pool and client, and the cache of proxied content if enabled
+     *
+     * @throws IOException if the cache directory could not be prepared
+     */
+    @PostConstruct
+    public void setUp() throws IOException {
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerHost);
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(connectTimeout)
+                        .setSocketTimeout(readTimeout)
+                        .setConnectionRequestTimeout(connectionRequestTimeout)
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(idleTimeout, TimeUnit.MILLISECONDS)
+                .build();
+        if (cacheEnabled) {
+            LOGGER.info("Caching up to {} bytes of proxied external content in {}", cacheMaxBytes, cacheDirectory);
+            // Content beyond what the threads and queue can take is served without being cached
+            cacheFillExecutor = new ThreadPoolExecutor(cacheFillThreads, cacheFillThreads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(100), new ThreadFactoryBuilder()
+                            .setNameFormat("external-content-cache-%d").setDaemon(true).build());
+            cache = new ExternalContentCache(httpClient, cacheDirectory, cacheMaxBytes,
+                    Duration.ofSeconds(cacheRevalidateSeconds), cacheFillExecutor);
+        }
+    }
+
+    /**
+     * Close the client and its pooled connections, and empty the cache
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (cache != null) {
+            cacheFillExecutor.shutdownNow();
+            cache.clear();
+        }
+        try {
+            httpClient.close();
+        } catch (final IOException e) {
+            LOGGER.warn("Failed to close external content client", e);
+        }
+    }
+
+    /**
+     * @return statistics for the connections to all hosts, for monitoring the pool
+     */
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    @Override
+    public ExternalContentDetails retrieveContentDetails(final URI uri) {
+        if (isFile(uri)) {
+            try {
+                return new ExternalContentDetails(null, Files.size(toPath(uri)), null);
+            } catch (final IOException e) {
+                throw new ExternalContentAccessException("Unable to access external binary at URI " + uri, e);
+            }
+        } else if (isHttp(uri)) {
+            try (final CloseableHttpResponse response = execute(new HttpHead(uri))) {
+                return new ExternalContentDetails(getContentType(response), getContentSize(response), null);
+            } catch (final IOException e) {
+                throw new ExternalContentAccessException("Unable to access external binary at URI " + uri, e);
+            }
+        }
+        return new ExternalContentDetails(null, null, null);
+    }
+
+    @Override
+    public Optional<FileChannel> openCachedContent(final URI uri) {
+        if (cache == null || !isHttp(uri)) {
+            return Optional.empty();
+        }
+        return cache.get(uri);
+    }
+
+    @Override
+    public ExternalContentDetails openContent(final URI uri) {
+        if (isFile(uri)) {
+            try {
+                final Path path = toPath(uri);
+                return new ExternalContentDetails(null, Files.size(path), Files.newInputStream(path));
+            } catch (final IOException e) {
+                throw new ExternalContentAccessException("Failed to read external content from " + uri, e);
+            }
+        } else if (isHttp(uri)) {
+            final HttpGet request = new HttpGet(uri);
+            final CloseableHttpResponse response = execute(request);
+            try {
+                final var entity = response.getEntity();
+                // Closing the content releases the connection back to the pool
+                final InputStream content = entity == null ? InputStream.nullInputStream() : entity.getContent();
+                // Discarding the content drops the connection rather than reading the rest of the content
+                return new ExternalContentDetails(getContentType(response), getContentSize(response), content,
+                        () -> {
+                            request.abort();
+                            response.close();
+                        });
+            } catch (final IOException e) {
+                closeQuietly(response);
+                throw new ExternalContentAccessException("Failed to read external content from " + uri, e);
+            }
+        }
+        throw new ExternalContentAccessException("Unsupported external content scheme for " + uri, null);
+    }
+
+    /**
+     * Execute a request against the pooled client, requiring a successful response
+     */
+    private CloseableHttpResponse execute(final HttpRequestBase request) {
+        request.setHeader(ACCEPT_ENCODING, "identity");
+        if (LOGGER.isDebugEnabled()) {
+            final PoolStats stats = getPoolStats();
+            LOGGER.debug("Requesting external content {} {} ({} leased, {} pending, {} available, {} max)",
+                    request.getMethod(), request.getURI(), stats.getLeased(), stats.getPending(),
+                    stats.getAvailable(), stats.getMax());
+        }
+        final CloseableHttpResponse response;
+        try {
+            response = httpClient.execute(request);
+        } catch (final IOException e) {
+            throw new ExternalContentAccessException("Unable to access external binary at URI " + request.getURI(),
+                    e);
+        }
+        final int status = response.getStatusLine().getStatusCode();
+        if (status != SC_OK) {
+            closeQuietly(response);
+            throw new ExternalContentAccessException("Unable to access external binary at URI " + request.getURI()
+                    + " received response " + status, null);
+        }
+        return response;
+    }
+
+    private static String getContentType(final HttpResponse response) {
+        final Header typeHeader = response.getFirstHeader(CONTENT_TYPE);
+        return typeHeader == null ? null : typeHeader.getValue();
+    }
+
+    private static Long getContentSize(final HttpResponse response) {
+        final Header sizeHeader = response.getFirstHeader(CONTENT_LENGTH);
+        return sizeHeader == null ? null : Long.valueOf(sizeHeader.getValue());
+    }
+
+    private static boolean isFile(final URI uri) {
+        return "file".equalsIgnoreCase(uri.getScheme());
+    }
+
+    private static boolean isHttp(final URI uri) {
+        return "http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme());
+    }
+
+    private static Path toPath(final URI uri) {
+        try {
+            return Path.of(uri);
+        } catch (final IllegalArgumentException e) {
+            throw new ExternalContentAccessException("Unable to access external binary at URI " + uri, e);
+        }
+    }
+
+    private static void closeQuietly(final CloseableHttpResponse response) {
+        try {
+            response.close();
+        } catch (final IOException e) {
+            LOGGER.debug("Failed to close response", e);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.services;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.sql.DataSource;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.fcrepo.kernel.api.exception.PathNotFoundException;
+import org.fcrepo.kernel.api.exception.RepositoryRuntimeException;
+import org.fcrepo.kernel.api.identifiers.FedoraId;
+import org.fcrepo.kernel.api.models.Binary;
+import org.fcrepo.kernel.api.models.FedoraResource;
+import org.fcrepo.kernel.api.models.ResourceFactory;
+import org.fcrepo.kernel.api.utils.FixityResult;
+import org.fcrepo.kernel.api.utils.FixityResult.FixityState;
+import org.fcrepo.kernel.impl.ContainmentIndexImpl;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Audits the fixity of the repository's binaries in the background. Each audit pass walks the repository in batches,
+ * checking the binaries which have not been checked within the re-check interval, and records when each was checked
+ * and the outcome. Passes only run within the configured daily window, and the content read is limited to the
+ * configured rate, so that auditing does not starve requests of I/O.
+ *
+ * @author agent
+ */
+@Component
+public class FixityAuditor {
+
+    private static final Logger LOGGER = getLogger(FixityAuditor.class);
+
+    private static final String AUDIT_TABLE = "fixity_audit";
+
+    private static final String FEDORA_ID_COLUMN = "fedora_id";
+
+    private static final String LAST_CHECKED_COLUMN = "last_checked";
+
+    private static final String OUTCOME_COLUMN = "outcome";
+
+    /*
+     * Outcome recorded for resources which are not binaries, so that they are passed over until the re-check
+     * interval has passed rather than being read again on every pass.
+     */
+    private static final String NOT_BINARY = "NOT_BINARY";
+
+    /*
+     * Outcome recorded for binaries whose content could not be read. Their last check time is left as it was, so
+     * that they are tried again on the next pass.
+     */
+    private static final String ERROR = "ERROR";
+
+    /*
+     * Select the next batch of resources, in identifier order, which have not been checked since a given time.
+     */
+    private static final String SELECT_DUE = "SELECT r." + FEDORA_ID_COLUMN + " FROM " +
+            ContainmentIndexImpl.RESOURCES_TABLE + " r LEFT JOIN " + AUDIT_TABLE + " a ON a." + FEDORA_ID_COLUMN +
+            " = r." + FEDORA_ID_COLUMN + " WHERE r." + FEDORA_ID_COLUMN + " > :after AND r.is_deleted = FALSE" +
+            " AND (a." + LAST_CHECKED_COLUMN + " IS NULL OR a." + LAST_CHECKED_COLUMN + " < :due)" +
+            " ORDER BY r." + FEDORA_ID_COLUMN + " LIMIT :limit";
+
+    private static final String UPDATE_AUDIT = "UPDATE " + AUDIT_TABLE + " SET " + LAST_CHECKED_COLUMN +
+            " = :lastChecked, " + OUTCOME_COLUMN + " = :outcome WHERE " + FEDORA_ID_COLUMN + " = :fedoraId";
+
+    private static final String UPDATE_OUTCOME = "UPDATE " + AUDIT_TABLE + " SET " + OUTCOME_COLUMN +
+            " = :outcome WHERE " + FEDORA_ID_COLUMN + " = :fedoraId";
+
+    private static final String INSERT_AUDIT = "INSERT INTO " + AUDIT_TABLE + " (" + FEDORA_ID_COLUMN + ", " +
+            LAST_CHECKED_COLUMN + ", " + OUTCOME_COLUMN + ") VALUES (:fedoraId, :lastChecked, :outcome)";
+
+    private static final String DDL = "sql/default-fixity.sql";
+
+    @Inject
+    private DataSource dataSource;
+
+    @Inject
+    private ResourceFactory resourceFactory;
+
+    @Inject
+    private FixityServiceImpl fixityService;
+
+    @Value("${fcrepo.fixity.audit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${fcrepo.fixity.audit.threads:1}")
+    private int threads;
+
+    @Value("${fcrepo.fixity.audit.max.bytes.per.second:0}")
+    private long maxBytesPerSecond;
+
+    @Value("${fcrepo.fixity.audit.recheck.days:90}")
+    private long recheckDays;
+
+    @Value("${fcrepo.fixity.audit.window.start:}")
+    private String windowStart;
+
+    @Value("${fcrepo.fixity.audit.window.end:}")
+    private String windowEnd;
+
+    @Value("${fcrepo.fixity.audit.period.minutes:60}")
+    private long periodMinutes;
+
+    @Value("${fcrepo.fixity.audit.batch.size:100}")
+    private int batchSize;
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private RateLimiter rateLimiter;
+
+    private ScheduledExecutorService scheduler;
+
+    private ExecutorService workers;
+
+    /**
+     * Set up the audit table and start scheduling audit passes, if auditing is enabled
+     */
+    @PostConstruct
+    public void setUp() {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        LOGGER.info("Applying ddl: {}", DDL);
+        DatabasePopulatorUtils.execute(
+                new ResourceDatabasePopulator(new DefaultResourceLoader().getResource("classpath:" + DDL)),
+                dataSource);
+
+        if (maxBytesPerSecond > 0) {
+            rateLimiter = RateLimiter.create(maxBytesPerSecond);
+        }
+        workers = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("fixity-audit-%d").setDaemon(true).build());
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("fixity-audit-scheduler").setDaemon(true).build());
+        scheduler.scheduleWithFixedDelay(this::audit, periodMinutes, periodMinutes, MINUTES);
+        LOGGER.info("Fixity auditing every {} minutes with {} threads", periodMinutes, threads);
+    }
+
+    /**
+     * Stop auditing
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            workers.shutdownNow();
+            try {
+                workers.awaitTermination(30, SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Run an audit pass over the repository, stopping early if the audit window closes
+     */
+    @VisibleForTesting
+    void audit() {
+        final Instant due = Instant.now().minus(Duration.ofDays(recheckDays));
+        String after = "";
+        try {
+            while (inWindow(LocalTime.now())) {
+                final List<String> ids = jdbcTemplate.queryForList(SELECT_DUE, new MapSqlParameterSource()
+                        .addValue("after", after)
+                        .addValue("due", Timestamp.from(due))
+                        .addValue("limit", batchSize), String.class);
+                if (ids.isEmpty()) {
+                    LOGGER.debug("Fixity audit pass complete");
+                    return;
+                }
+                final List<Future<?>> checks = new ArrayList<>();
+                for (final String id : ids) {
+                    checks.add(workers.submit(() -> check(id)));
+                }
+                for (final Future<?> check : checks) {
+                    check.get();
+                }
+                after = ids.get(ids.size() - 1);
+            }
+            LOGGER.debug("Fixity audit window closed, pausing audit");
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException | RuntimeException e) {
+            // Never let an exception escape, or the scheduler would stop running audits
+            LOGGER.error("Fixity audit pass failed", e);
+        }
+    }
+
+    private void check(final String id) {
+        final FedoraResource resource;
+        try {
+            resource = resourceFactory.getResource(FedoraId.create(id));
+        } catch (final PathNotFoundException e) {
+            return;
+        }
+        if (!(resource instanceof Binary)) {
+            record(id, NOT_BINARY);
+            return;
+        }
+
+        final String outcome;
+        try {
+            final Set<String> states = new TreeSet<>();
+            for (final FixityResult result : fixityService.checkFixity((Binary) resource, this::throttle)) {
+                result.getStatus().stream().map(FixityState::toString).forEach(states::add);
+            }
+            if (states.isEmpty()) {
+                outcome = "NO_DIGEST";
+            } else if (states.equals(Set.of(FixityState.SUCCESS.toString()))) {
+                outcome = FixityState.SUCCESS.toString();
+            } else {
+                states.remove(FixityState.SUCCESS.toString());
+                outcome = states.stream().collect(Collectors.joining(","));
+                LOGGER.error("Fixity audit of {} failed: {}", id, outcome);
+            }
+        } catch (final RepositoryRuntimeException e) {
+            LOGGER.error("Fixity audit of {} could not read its content", id, e);
+            recordError(id);
+            return;
+        }
+        record(id, outcome);
+    }
+
+    private void record(final String id, final String outcome) {
+        final MapSqlParameterSource parameterSource = new MapSqlParameterSource()
+                .addValue("fedoraId", id)
+                .addValue("lastChecked", Timestamp.from(Instant.now()))
+                .addValue("outcome", outcome);
+        if (jdbcTemplate.update(UPDATE_AUDIT, parameterSource) == 0) {
+            jdbcTemplate.update(INSERT_AUDIT, parameterSource);
+        }
+    }
+
+    /**
+     * Record that a binary could not be read, leaving it due to be checked again. A binary which has not been checked
+     * before is recorded as last checked at the epoch.
+     */
+    private void recordError(final String id) {
+        final MapSqlParameterSource parameterSource = new MapSqlParameterSource()
+                .addValue("fedoraId", id)
+                .addValue("lastChecked", Timestamp.from(Instant.EPOCH))
+                .addValue("outcome", ERROR);
+        if (jdbcTemplate.update(UPDATE_OUTCOME, parameterSource) == 0) {
+            jdbcTemplate.update(INSERT_AUDIT, parameterSource);
+        }
+    }
+
+    private InputStream throttle(final InputStream content) {
+        return rateLimiter == null ? content : new RateLimitedInputStream(content, rateLimiter);
+    }
+
+    /**
+     * Whether audits may run at a time of day. A window whose end is before its start runs past midnight.
+     *
+     * @param time the time of day
+     * @return true if there is no window, or the time is within it
+     */
+    @VisibleForTesting
+    boolean inWindow(final LocalTime time) {
+        if (windowStart == null || windowStart.isBlank() || windowEnd == null || windowEnd.isBlank()) {
+            return true;
+        }
+        final LocalTime start = LocalTime.parse(windowStart.trim());
+        final LocalTime end = LocalTime.parse(windowEnd.trim());
+        if (start.isBefore(end)) {
+            return !time.isBefore(start) && time.isBefore(end);
+        }
+        return !time.isBefore(start) || time.isBefore(end);
+    }
+
+    /**
+     * Limits the rate at which content is read
+     */
+    private static class RateLimitedInputStream extends FilterInputStream {
+
+        private final RateLimiter rateLimiter;
+
+        private RateLimitedInputStream(final InputStream in, final RateLimiter rateLimiter) {
+            super(in);
+            this.rateLimiter = rateLimiter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = in.read();
+            if (b != -1) {
+                rateLimiter.acquire();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int count = in.read(b, off, len);
+            if (count > 0) {
+                rateLimiter.acquire(count);
+            }
+            return count;
+        }
+    }
+}
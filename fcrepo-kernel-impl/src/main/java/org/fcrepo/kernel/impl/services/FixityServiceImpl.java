@@ -17,40 +17,155 @@
  */
 package org.fcrepo.kernel.impl.services;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.CountingInputStream;
+import org.fcrepo.kernel.api.exception.RepositoryRuntimeException;
 import org.fcrepo.kernel.api.exception.UnsupportedAlgorithmException;
 import org.fcrepo.kernel.api.models.Binary;
 import org.fcrepo.kernel.api.services.FixityService;
+import org.fcrepo.kernel.api.utils.ContentDigest;
 import org.fcrepo.kernel.api.utils.ContentDigest.DIGEST_ALGORITHM;
+import org.fcrepo.kernel.api.utils.FixityResult;
+import org.fcrepo.kernel.impl.util.FixityResultImpl;
 import org.fcrepo.persistence.common.MultiDigestInputStreamWrapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 /**
  * Implementation of {@link org.fcrepo.kernel.api.services.FixityService}
  *
+ * Digests are answered from those stored with the binary where possible. Others are computed from the content, and
+ * then held so that the content needn't be read again for them until it changes.
+ *
  * @author dbernstein
  */
 @Component
 public class FixityServiceImpl extends AbstractService implements FixityService {
+
+    @Value("${fcrepo.fixity.digest.cache.size:10000}")
+    private long digestCacheSize;
+
+    /**
+     * Digests computed from binary content, by binary, version and algorithm
+     */
+    private Cache<String, URI> computedDigests;
+
+    /**
+     * Set up the cache of computed digests
+     */
+    @PostConstruct
+    public void setup() {
+        if (digestCacheSize > 0) {
+            computedDigests = CacheBuilder.newBuilder()
+                    .maximumSize(digestCacheSize)
+                    .build();
+        }
+    }
+
     @Override
     public Collection<URI> getFixity(final Binary binary, final Collection<String> algorithms)
             throws UnsupportedAlgorithmException {
         final var digestAlgs = algorithms.stream()
                 .map(DIGEST_ALGORITHM::fromAlgorithm)
+                .distinct()
                 .collect(Collectors.toList());
 
-        final MultiDigestInputStreamWrapper digestWrapper = new MultiDigestInputStreamWrapper(
-                binary.getContent(), null, digestAlgs);
+        // External content may change without the binary changing, so only internal digests are trusted
+        final boolean internal = !Boolean.TRUE.equals(binary.isProxy()) && !Boolean.TRUE.equals(binary.isRedirect());
+        final Map<DIGEST_ALGORITHM, URI> digests = new LinkedHashMap<>();
+        if (internal) {
+            for (final URI stored : binary.getContentDigests()) {
+                final var alg = DIGEST_ALGORITHM.fromAlgorithm(ContentDigest.getAlgorithm(stored));
+                if (digestAlgs.contains(alg)) {
+                    digests.putIfAbsent(alg, stored);
+                }
+            }
+            if (computedDigests != null) {
+                for (final DIGEST_ALGORITHM alg : digestAlgs) {
+                    if (!digests.containsKey(alg)) {
+                        final URI computed = computedDigests.getIfPresent(cacheKey(binary, alg));
+                        if (computed != null) {
+                            digests.put(alg, computed);
+                        }
+                    }
+                }
+            }
+        }
 
-        return digestWrapper.getDigests();
+        final List<DIGEST_ALGORITHM> missing = new ArrayList<>(digestAlgs);
+        missing.removeAll(digests.keySet());
+        if (!missing.isEmpty()) {
+            final MultiDigestInputStreamWrapper digestWrapper = new MultiDigestInputStreamWrapper(
+                    binary.getContent(), null, missing);
+            for (final URI computed : digestWrapper.getDigests()) {
+                final var alg = DIGEST_ALGORITHM.fromAlgorithm(ContentDigest.getAlgorithm(computed));
+                digests.put(alg, computed);
+                if (internal && computedDigests != null) {
+                    computedDigests.put(cacheKey(binary, alg), computed);
+                }
+            }
+        }
+
+        return digestAlgs.stream()
+                .map(digests::get)
+                .collect(Collectors.toList());
     }
 
     @Override
-    public Collection<URI> checkFixity(final Binary binary, final Collection<String> algorithms)
-            throws UnsupportedAlgorithmException {
-        return null;
+    public Collection<FixityResult> checkFixity(final Binary binary) {
+        return checkFixity(binary, UnaryOperator.identity());
+    }
+
+    /**
+     * Check the fixity of a binary, reading its content through a filter
+     *
+     * @param binary the binary resource to check
+     * @param contentFilter applied to the content stream before it is digested, e.g. to limit its rate
+     * @return the result of checking each stored digest
+     */
+    Collection<FixityResult> checkFixity(final Binary binary, final UnaryOperator<InputStream> contentFilter) {
+        final Map<DIGEST_ALGORITHM, URI> expectedDigests = new LinkedHashMap<>();
+        for (final URI stored : binary.getContentDigests()) {
+            final var alg = DIGEST_ALGORITHM.fromAlgorithm(ContentDigest.getAlgorithm(stored));
+            if (alg != DIGEST_ALGORITHM.MISSING) {
+                expectedDigests.putIfAbsent(alg, stored);
+            }
+        }
+        if (expectedDigests.isEmpty()) {
+            return List.of();
+        }
+
+        try (final CountingInputStream content = new CountingInputStream(contentFilter.apply(binary.getContent()))) {
+            final MultiDigestInputStreamWrapper digestWrapper = new MultiDigestInputStreamWrapper(
+                    content, null, expectedDigests.keySet());
+            final Map<DIGEST_ALGORITHM, URI> computedDigests = digestWrapper.getDigests().stream()
+                    .collect(Collectors.toMap(
+                            uri -> DIGEST_ALGORITHM.fromAlgorithm(ContentDigest.getAlgorithm(uri)), uri -> uri));
+            final long size = content.getCount();
+
+            return expectedDigests.entrySet().stream()
+                    .map(expected -> new FixityResultImpl(size, computedDigests.get(expected.getKey()),
+                            expected.getKey().algorithm, binary.getContentSize(), expected.getValue()))
+                    .collect(Collectors.toList());
+        } catch (final IOException e) {
+            throw new RepositoryRuntimeException("Unable to read content of " + binary.getId(), e);
+        }
+    }
+
+    private static String cacheKey(final Binary binary, final DIGEST_ALGORITHM alg) {
+        return binary.getFedoraId().getFullId() + " " + binary.getLastModifiedDate() + " " + alg.algorithm;
     }
 }
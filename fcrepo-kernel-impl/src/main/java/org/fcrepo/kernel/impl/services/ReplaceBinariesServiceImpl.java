@@ -26,7 +26,6 @@ import org.fcrepo.kernel.api.services.ReplaceBinariesService;
 import org.fcrepo.persistence.api.PersistentStorageSession;
 import org.fcrepo.persistence.api.PersistentStorageSessionManager;
 import org.fcrepo.persistence.api.exceptions.PersistentStorageException;
-import org.fcrepo.persistence.common.MultiDigestInputStreamWrapper;
 import org.slf4j.Logger;
 import org.springframework.stereotype.Component;
 
@@ -34,7 +33,6 @@ import javax.inject.Inject;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.Collection;
-import java.util.Collections;
 import static java.lang.String.format;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -88,13 +86,7 @@ public class ReplaceBinariesServiceImpl extends AbstractService implements Repla
                 if (contentSize == null) {
                     size = externalContent.getContentSize();
                 }
-                if (!digests.isEmpty()) {
-                    final var multiDigestWrapper = new MultiDigestInputStreamWrapper(
-                            externalContent.fetchExternalContent(),
-                            digests,
-                            Collections.emptyList());
-                    multiDigestWrapper.checkFixity();
-                }
+                size = verifyExternalContent(externalContent, digests, size);
             }
 
             if (externalContent != null && externalContent.getContentType() != null) {
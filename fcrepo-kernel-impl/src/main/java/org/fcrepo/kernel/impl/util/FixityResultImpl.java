@@ -0,0 +1,114 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.util;
+
+import static org.fcrepo.kernel.api.utils.FixityResult.FixityState.BAD_CHECKSUM;
+import static org.fcrepo.kernel.api.utils.FixityResult.FixityState.BAD_SIZE;
+import static org.fcrepo.kernel.api.utils.FixityResult.FixityState.SUCCESS;
+
+import java.net.URI;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.fcrepo.kernel.api.utils.FixityResult;
+
+/**
+ * The result of digesting binary content to check it against a stored digest
+ *
+ * @author agent
+ */
+public class FixityResultImpl implements FixityResult {
+
+    private final long computedSize;
+
+    private final URI computedChecksum;
+
+    private final String usedAlgorithm;
+
+    private final long expectedSize;
+
+    private final URI expectedChecksum;
+
+    /**
+     * Constructor
+     *
+     * @param computedSize the number of bytes digested
+     * @param computedChecksum the digest computed
+     * @param usedAlgorithm the algorithm of the digest
+     * @param expectedSize the size recorded for the content
+     * @param expectedChecksum the digest recorded for the content
+     */
+    public FixityResultImpl(final long computedSize, final URI computedChecksum, final String usedAlgorithm,
+                            final long expectedSize, final URI expectedChecksum) {
+        this.computedSize = computedSize;
+        this.computedChecksum = computedChecksum;
+        this.usedAlgorithm = usedAlgorithm;
+        this.expectedSize = expectedSize;
+        this.expectedChecksum = expectedChecksum;
+    }
+
+    @Override
+    public boolean matches(final URI checksum) {
+        return checksum != null && computedChecksum.toString().equalsIgnoreCase(checksum.toString());
+    }
+
+    @Override
+    public boolean matches(final long size) {
+        return computedSize == size;
+    }
+
+    @Override
+    public boolean matches(final long size, final URI checksum) {
+        return matches(size) && matches(checksum);
+    }
+
+    @Override
+    public Set<FixityState> getStatus(final long size, final URI checksum) {
+        final Set<FixityState> status = EnumSet.noneOf(FixityState.class);
+        if (!matches(checksum)) {
+            status.add(BAD_CHECKSUM);
+        }
+        if (!matches(size)) {
+            status.add(BAD_SIZE);
+        }
+        if (status.isEmpty()) {
+            status.add(SUCCESS);
+        }
+        return status;
+    }
+
+    @Override
+    public Set<FixityState> getStatus() {
+        return getStatus(expectedSize, expectedChecksum);
+    }
+
+    @Override
+    public long getComputedSize() {
+        return computedSize;
+    }
+
+    @Override
+    public URI getComputedChecksum() {
+        return computedChecksum;
+    }
+
+    @Override
+    public String getUsedAlgorithm() {
+        return usedAlgorithm;
+    }
+}
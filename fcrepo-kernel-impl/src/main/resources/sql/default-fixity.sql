@@ -0,0 +1,12 @@
+-- DDL for setting up the fixity audit table in H2, MySQL 8, MariaDB 10.5, and PostgreSQL 12.3
+-- MySQL 8 will only supports varchar up to 503 characters
+
+-- Holds when each resource was last checked by the fixity auditor, and the outcome. Resources which are not
+-- binaries are recorded with the outcome NOT_BINARY, so that they are not read again until the re-check interval.
+-- Binaries which could not be read are recorded with the outcome ERROR, keeping their last check time, so that they
+-- are tried again on the next pass.
+CREATE TABLE IF NOT EXISTS fixity_audit (
+    fedora_id varchar(503) NOT NULL PRIMARY KEY,
+    last_checked timestamp NOT NULL,
+    outcome varchar(64) NOT NULL
+);
@@ -0,0 +1,147 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.observer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.eventbus.Subscribe;
+import org.fcrepo.kernel.api.observer.AsynchronousSubscriber;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class AsyncDispatchEventBusTest {
+
+    private AsyncDispatchEventBus eventBus;
+
+    @Before
+    public void setUp() {
+        eventBus = new AsyncDispatchEventBus();
+        setField(eventBus, "asyncEnabled", true);
+        setField(eventBus, "queueSize", 10);
+        setField(eventBus, "overflowPolicy", AsyncDispatchEventBus.OverflowPolicy.BLOCK);
+        setField(eventBus, "shutdownTimeoutSeconds", 5L);
+    }
+
+    @After
+    public void tearDown() {
+        eventBus.shutdown();
+    }
+
+    @Test
+    public void testSynchronousWhenDisabled() {
+        setField(eventBus, "asyncEnabled", false);
+        final var subscriber = new AsyncSubscriber(null);
+        eventBus.register(subscriber);
+
+        eventBus.post("event");
+
+        assertEquals(List.of(Thread.currentThread()), subscriber.threads);
+        assertTrue(eventBus.getStatistics().isEmpty());
+    }
+
+    @Test
+    public void testAsynchronousSubscriberUsesOwnThread() throws Exception {
+        final var asyncSubscriber = new AsyncSubscriber(null);
+        final var syncSubscriber = new SyncSubscriber();
+        eventBus.register(asyncSubscriber);
+        eventBus.register(syncSubscriber);
+
+        eventBus.post("one");
+        eventBus.post("two");
+
+        assertEquals(List.of(Thread.currentThread(), Thread.currentThread()), syncSubscriber.threads);
+        eventBus.unregister(asyncSubscriber);
+        assertEquals(List.of("one", "two"), asyncSubscriber.events);
+        assertNotEquals(Thread.currentThread(), asyncSubscriber.threads.get(0));
+    }
+
+    @Test
+    public void testDropWhenQueueFull() throws Exception {
+        setField(eventBus, "queueSize", 1);
+        setField(eventBus, "overflowPolicy", AsyncDispatchEventBus.OverflowPolicy.DROP);
+        final var latch = new CountDownLatch(1);
+        final var subscriber = new AsyncSubscriber(latch);
+        eventBus.register(subscriber);
+
+        // The first is being delivered, the second waits in the queue, and the third has no room
+        eventBus.post("one");
+        waitForDelivery(subscriber);
+        eventBus.post("two");
+        eventBus.post("three");
+
+        final var statistics = eventBus.getStatistics().get(0);
+        assertEquals(1, statistics.getQueued());
+        assertEquals(1, statistics.getDropped());
+
+        latch.countDown();
+        eventBus.unregister(subscriber);
+        assertEquals(List.of("one", "two"), subscriber.events);
+    }
+
+    private static void waitForDelivery(final AsyncSubscriber subscriber) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (subscriber.events.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @AsynchronousSubscriber
+    private static class AsyncSubscriber {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch latch;
+
+        private AsyncSubscriber(final CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Subscribe
+        public void onEvent(final String event) throws InterruptedException {
+            events.add(event);
+            threads.add(Thread.currentThread());
+            if (latch != null) {
+                latch.await(5, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private static class SyncSubscriber {
+
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        @Subscribe
+        public void onEvent(final String event) {
+            threads.add(Thread.currentThread());
+        }
+    }
+}
@@ -286,6 +286,42 @@ public class EventAccumulatorImplTest {
         ));
     }
 
+    @Test
+    public void loadResourceTypesInParallelBatches() throws PathNotFoundException {
+        setField(accumulator, "typeLoadingThreads", 2);
+        setField(accumulator, "typeLoadingBatchSize", 1);
+        accumulator.setUp();
+
+        try {
+            final var fId1 = FedoraId.create("/test/1");
+            final var fId2 = FedoraId.create("/test/2");
+            final var fId3 = FedoraId.create("/test/3");
+
+            accumulator.recordEventForOperation(TX_ID, fId1, createOp(fId1));
+            accumulator.recordEventForOperation(TX_ID, fId2, createOp(fId2));
+            accumulator.recordEventForOperation(TX_ID, fId3, deleteOp(fId3));
+
+            expectResource(fId1, CONTAINER_TYPE);
+            expectResource(fId2, RESOURCE_TYPE);
+            when(resourceFactory.getResource(fId3)).thenThrow(new PathNotFoundException("not found"));
+
+            accumulator.emitEvents(TX_ID, BASE_URL, USER_AGENT);
+
+            verify(eventBus, times(3)).post(eventCaptor.capture());
+
+            assertThat(eventCaptor.getAllValues(), containsInAnyOrder(
+                    defaultEvent(fId1, Set.of(EventType.RESOURCE_CREATION),
+                            Set.of(CONTAINER_TYPE.toString())),
+                    defaultEvent(fId2, Set.of(EventType.RESOURCE_CREATION),
+                            Set.of(RESOURCE_TYPE.toString())),
+                    defaultEvent(fId3, Set.of(EventType.RESOURCE_DELETION),
+                            Set.of())
+            ));
+        } finally {
+            accumulator.shutdown();
+        }
+    }
+
     private ResourceOperation createOp(final FedoraId fedoraId) {
         return new RdfSourceOperationFactoryImpl().createBuilder(fedoraId, RDF_SOURCE.toString())
                 .userPrincipal(USER)
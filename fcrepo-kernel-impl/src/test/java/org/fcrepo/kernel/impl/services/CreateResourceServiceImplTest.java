@@ -602,6 +602,31 @@ public class CreateResourceServiceImplTest {
         assertExternalBinaryPropertiesPresent(operation, uri, ExternalContent.PROXY);
     }
 
+    @Test
+    public void testProxyExternalBinarySizeFromDigestRead() throws Exception {
+        final var realDigests = asList(URI.create("urn:sha1:94e66df8cd09d410c62d9e0dc59d3a884e458e05"));
+
+        tempFolder.create();
+        final File externalFile = tempFolder.newFile();
+        final String contentString = "some content";
+        FileUtils.write(externalFile, contentString, StandardCharsets.UTF_8);
+        when(extContent.fetchExternalContent()).thenReturn(Files.newInputStream(externalFile.toPath()));
+        when(extContent.getURI()).thenReturn(externalFile.toURI());
+        when(extContent.getHandling()).thenReturn(ExternalContent.PROXY);
+        when(extContent.getContentSize()).thenReturn(-1L);
+
+        final FedoraId childId = FedoraId.create(UUID.randomUUID().toString()).resolve("child");
+
+        createResourceService.perform(TX_ID, USER_PRINCIPAL, childId,
+                CONTENT_TYPE, FILENAME, null, null, realDigests, null, extContent);
+
+        verify(psSession, times(2)).persist(operationCaptor.capture());
+        final var operation = getOperation(operationCaptor.getAllValues(), CreateNonRdfSourceOperation.class);
+        assertEquals(Long.valueOf(contentString.length()),
+                ((NonRdfSourceOperation) operation).getContentSize());
+        verify(extContent, times(1)).fetchExternalContent();
+    }
+
     private void assertBinaryPropertiesPresent(final ResourceOperation operation, final String exMimetype,
             final String exFilename, final Long exContentSize, final Collection<URI> exDigests) {
         final var nonRdfOperation = (NonRdfSourceOperation) operation;
@@ -0,0 +1,278 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.services;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class ExternalContentCacheTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private HttpServer server;
+
+    private URI baseUri;
+
+    private CloseableHttpClient httpClient;
+
+    private Path cacheDir;
+
+    /**
+     * Fills the cache on the requesting thread, so that content is cached once the request which missed returns
+     */
+    private final Executor directExecutor = Runnable::run;
+
+    private volatile String content = "version one";
+
+    private volatile String etag = "\"1\"";
+
+    private final AtomicInteger fullResponses = new AtomicInteger();
+
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+
+    private static final long CHUNKED_SIZE = 512L * 1024 * 1024;
+
+    private final AtomicLong chunkedBytesSent = new AtomicLong();
+
+    private final CountDownLatch chunkedFinished = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/validated", this::respond);
+        server.createContext("/other", this::respond);
+        server.createContext("/unvalidated", exchange -> {
+            fullResponses.incrementAndGet();
+            final byte[] body = content.getBytes(UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/chunked", exchange -> {
+            final byte[] chunk = new byte[64 * 1024];
+            try {
+                exchange.getResponseHeaders().add("ETag", etag);
+                // No Content-Length, so the size is only found by reading the content
+                exchange.sendResponseHeaders(200, 0);
+                while (chunkedBytesSent.get() < CHUNKED_SIZE) {
+                    exchange.getResponseBody().write(chunk);
+                    chunkedBytesSent.addAndGet(chunk.length);
+                }
+                exchange.close();
+            } catch (final IOException e) {
+                // The client dropped the connection
+            } finally {
+                chunkedFinished.countDown();
+            }
+        });
+        server.start();
+        baseUri = URI.create("http://localhost:" + server.getAddress().getPort());
+        httpClient = HttpClients.createDefault();
+        cacheDir = tempFolder.newFolder().toPath();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testRevalidatesCachedContent() throws Exception {
+        final var cache = new ExternalContentCache(httpClient, cacheDir, 1024, Duration.ZERO, directExecutor);
+        final URI uri = baseUri.resolve("/validated");
+
+        assertFalse(cache.get(uri).isPresent());
+        try (final FileChannel cached = cache.get(uri).orElseThrow()) {
+            assertEquals(1, fullResponses.get());
+            assertEquals(1, notModifiedResponses.get());
+
+            content = "version two";
+            etag = "\"2\"";
+            // The changed content is served from the origin while it is cached again
+            assertFalse(cache.get(uri).isPresent());
+            try (final FileChannel recached = cache.get(uri).orElseThrow()) {
+                assertEquals("version two", read(recached));
+            }
+            assertEquals(1, countFiles());
+
+            // Still readable after being replaced
+            assertEquals("version one", read(cached));
+        }
+    }
+
+    @Test
+    public void testServesWithinRevalidationPeriod() throws Exception {
+        final var cache = new ExternalContentCache(httpClient, cacheDir, 1024, Duration.ofHours(1), directExecutor);
+        final URI uri = baseUri.resolve("/validated");
+
+        cache.get(uri);
+        try (final FileChannel cached = cache.get(uri).orElseThrow()) {
+            assertEquals("version one", read(cached));
+        }
+
+        assertEquals(1, fullResponses.get());
+        assertEquals(0, notModifiedResponses.get());
+    }
+
+    @Test
+    public void testFillsInBackground() throws Exception {
+        final List<Runnable> fills = new ArrayList<>();
+        final var cache = new ExternalContentCache(httpClient, cacheDir, 1024, Duration.ofHours(1), fills::add);
+        final URI uri = baseUri.resolve("/validated");
+
+        assertFalse(cache.get(uri).isPresent());
+        assertFalse(cache.get(uri).isPresent());
+        assertEquals(0, fullResponses.get());
+        assertEquals(1, fills.size());
+
+        fills.get(0).run();
+        assertEquals(1, fullResponses.get());
+        try (final FileChannel cached = cache.get(uri).orElseThrow()) {
+            assertEquals("version one", read(cached));
+        }
+    }
+
+    @Test
+    public void testContentWithoutValidatorsNotCached() throws Exception {
+        final var cache = new ExternalContentCache(httpClient, cacheDir, 1024, Duration.ZERO, directExecutor);
+        final URI uri = baseUri.resolve("/unvalidated");
+
+        assertFalse(cache.get(uri).isPresent());
+        assertFalse(cache.get(uri).isPresent());
+        assertEquals(1, fullResponses.get());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() throws Exception {
+        // Room for one copy of the content only
+        content = "x".repeat(1500);
+        final var cache = new ExternalContentCache(httpClient, cacheDir, 2048, Duration.ofHours(1), directExecutor);
+
+        cache.get(baseUri.resolve("/validated"));
+        try (final FileChannel validated = cache.get(baseUri.resolve("/validated")).orElseThrow()) {
+            cache.get(baseUri.resolve("/other"));
+
+            assertEquals(1, countFiles());
+            assertTrue(cache.get(baseUri.resolve("/other")).isPresent());
+            // Still readable after being evicted
+            assertEquals(content, read(validated));
+        }
+    }
+
+    @Test
+    public void testContentLargerThanCacheNotCached() throws Exception {
+        final var cache = new ExternalContentCache(httpClient, cacheDir, 4, Duration.ZERO, directExecutor);
+
+        assertFalse(cache.get(baseUri.resolve("/validated")).isPresent());
+        assertFalse(cache.get(baseUri.resolve("/validated")).isPresent());
+        assertEquals(1, fullResponses.get());
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    public void testContentOfUnknownLengthLargerThanCacheNotCopied() throws Exception {
+        final var cache = new ExternalContentCache(httpClient, cacheDir, 1024 * 1024, Duration.ZERO,
+                directExecutor);
+
+        assertFalse(cache.get(baseUri.resolve("/chunked")).isPresent());
+        assertFalse(cache.get(baseUri.resolve("/chunked")).isPresent());
+
+        assertTrue(chunkedFinished.await(30, TimeUnit.SECONDS));
+        assertTrue("Content was read past the size of the cache", chunkedBytesSent.get() < CHUNKED_SIZE);
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    public void testRemovesOnlyPreviouslyCachedFiles() throws Exception {
+        final Path cached = cacheDir.resolve(UUID.randomUUID().toString());
+        final Path other = cacheDir.resolve("other-data.txt");
+        Files.writeString(cached, "cached");
+        Files.writeString(other, "other");
+
+        new ExternalContentCache(httpClient, cacheDir, 1024, Duration.ZERO, directExecutor);
+
+        assertFalse(Files.exists(cached));
+        assertTrue(Files.exists(other));
+    }
+
+    @Test
+    public void testWeighsBeyondIntRange() {
+        assertEquals(1, ExternalContentCache.weigh(0));
+        assertEquals(2, ExternalContentCache.weigh(1025));
+        assertEquals(4L * 1024 * 1024, ExternalContentCache.weigh(4L * 1024 * 1024 * 1024));
+    }
+
+    private long countFiles() throws IOException {
+        try (final var files = Files.list(cacheDir)) {
+            return files.count();
+        }
+    }
+
+    private static String read(final FileChannel channel) throws IOException {
+        channel.position(0);
+        return new String(Channels.newInputStream(channel).readAllBytes(), UTF_8);
+    }
+
+    private void respond(final HttpExchange exchange) throws IOException {
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModifiedResponses.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+        } else {
+            fullResponses.incrementAndGet();
+            final byte[] body = content.getBytes(UTF_8);
+            exchange.getResponseHeaders().add("ETag", etag);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+        exchange.close();
+    }
+}
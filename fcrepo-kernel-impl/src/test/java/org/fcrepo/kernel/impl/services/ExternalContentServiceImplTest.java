@@ -0,0 +1,175 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.services;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpServer;
+import org.fcrepo.kernel.api.exception.ExternalContentAccessException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class ExternalContentServiceImplTest {
+
+    private static final String CONTENT = "external content";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private HttpServer server;
+
+    private URI baseUri;
+
+    private ExternalContentServiceImpl service;
+
+    private static final long LARGE_SIZE = 512L * 1024 * 1024;
+
+    private final AtomicLong largeBytesSent = new AtomicLong();
+
+    private final CountDownLatch largeFinished = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/content", exchange -> {
+            final byte[] body = CONTENT.getBytes(UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/plain");
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().add("Content-Length", String.valueOf(body.length));
+                exchange.sendResponseHeaders(200, -1);
+            } else {
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        server.createContext("/large", exchange -> {
+            final byte[] chunk = new byte[64 * 1024];
+            try {
+                exchange.sendResponseHeaders(200, LARGE_SIZE);
+                while (largeBytesSent.get() < LARGE_SIZE) {
+                    exchange.getResponseBody().write(chunk);
+                    largeBytesSent.addAndGet(chunk.length);
+                }
+                exchange.close();
+            } catch (final IOException e) {
+                // The client dropped the connection
+            } finally {
+                largeFinished.countDown();
+            }
+        });
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUri = URI.create("http://localhost:" + server.getAddress().getPort());
+
+        service = new ExternalContentServiceImpl();
+        setField(service, "maxConnections", 10);
+        setField(service, "maxConnectionsPerHost", 2);
+        setField(service, "connectTimeout", 1000);
+        setField(service, "readTimeout", 1000);
+        setField(service, "connectionRequestTimeout", 1000);
+        setField(service, "idleTimeout", 1000L);
+        service.setUp();
+    }
+
+    @After
+    public void tearDown() {
+        service.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    public void testRetrieveHttpContentDetails() {
+        final var details = service.retrieveContentDetails(baseUri.resolve("/content"));
+
+        assertEquals("text/plain", details.getContentType());
+        assertEquals(Long.valueOf(CONTENT.length()), details.getContentSize());
+        assertNull(details.getContent());
+    }
+
+    @Test
+    public void testOpenHttpContent() throws Exception {
+        // More requests than the pool allows per host, so connections must be released when the content is closed
+        for (int i = 0; i < 5; i++) {
+            final var details = service.openContent(baseUri.resolve("/content"));
+            assertEquals("text/plain", details.getContentType());
+            assertEquals(Long.valueOf(CONTENT.length()), details.getContentSize());
+            try (final InputStream content = details.getContent()) {
+                assertEquals(CONTENT, new String(content.readAllBytes(), UTF_8));
+            }
+        }
+        assertEquals(0, service.getPoolStats().getLeased());
+    }
+
+    @Test
+    public void testDiscardDoesNotReadContent() throws Exception {
+        final var details = service.openContent(baseUri.resolve("/large"));
+        details.getContent().read();
+        details.discard();
+
+        assertTrue(largeFinished.await(30, TimeUnit.SECONDS));
+        assertTrue("Content was read after being discarded", largeBytesSent.get() < LARGE_SIZE);
+    }
+
+    @Test(expected = ExternalContentAccessException.class)
+    public void testOpenMissingHttpContent() {
+        service.openContent(baseUri.resolve("/missing"));
+    }
+
+    @Test
+    public void testOpenFileContent() throws Exception {
+        final Path file = tempFolder.newFile().toPath();
+        Files.writeString(file, CONTENT);
+
+        final var details = service.openContent(file.toUri());
+
+        assertNull(details.getContentType());
+        assertEquals(Long.valueOf(CONTENT.length()), details.getContentSize());
+        try (final InputStream content = details.getContent()) {
+            assertEquals(CONTENT, new String(content.readAllBytes(), UTF_8));
+        }
+    }
+
+    @Test(expected = ExternalContentAccessException.class)
+    public void testOpenUnsupportedScheme() {
+        service.openContent(URI.create("ftp://example.org/content"));
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import java.net.URI;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.fcrepo.kernel.api.exception.RepositoryRuntimeException;
+import org.fcrepo.kernel.api.identifiers.FedoraId;
+import org.fcrepo.kernel.api.models.Binary;
+import org.fcrepo.kernel.api.models.Container;
+import org.fcrepo.kernel.api.models.ResourceFactory;
+import org.fcrepo.kernel.impl.util.FixityResultImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * @author agent
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class FixityAuditorTest {
+
+    private static final URI DIGEST = URI.create("urn:sha1:1234");
+
+    private static final FedoraId CONTAINER_ID = FedoraId.create("container");
+
+    private static final FedoraId GOOD_ID = FedoraId.create("container/good");
+
+    private static final FedoraId BAD_ID = FedoraId.create("container/bad");
+
+    private static final FedoraId UNREADABLE_ID = FedoraId.create("container/unreadable");
+
+    @Mock
+    private ResourceFactory resourceFactory;
+
+    @Mock
+    private FixityServiceImpl fixityService;
+
+    @Mock
+    private Container container;
+
+    @Mock
+    private Binary goodBinary;
+
+    @Mock
+    private Binary badBinary;
+
+    @Mock
+    private Binary unreadableBinary;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private FixityAuditor auditor;
+
+    @Before
+    public void setUp() throws Exception {
+        final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(
+                new DefaultResourceLoader().getResource("classpath:sql/default-containment.sql")), dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        for (final FedoraId id : List.of(CONTAINER_ID, GOOD_ID, BAD_ID, UNREADABLE_ID)) {
+            jdbcTemplate.update("INSERT INTO resources (fedora_id, parent) VALUES (?, ?)", id.getFullId(),
+                    FedoraId.getRepositoryRootId().getFullId());
+        }
+
+        when(resourceFactory.getResource(CONTAINER_ID)).thenReturn(container);
+        when(resourceFactory.getResource(GOOD_ID)).thenReturn(goodBinary);
+        when(resourceFactory.getResource(BAD_ID)).thenReturn(badBinary);
+        when(resourceFactory.getResource(UNREADABLE_ID)).thenReturn(unreadableBinary);
+        when(fixityService.checkFixity(eq(unreadableBinary), any()))
+                .thenThrow(new RepositoryRuntimeException("Unable to read content"));
+        when(fixityService.checkFixity(eq(goodBinary), any()))
+                .thenReturn(List.of(new FixityResultImpl(3, DIGEST, "SHA", 3, DIGEST)));
+        when(fixityService.checkFixity(eq(badBinary), any()))
+                .thenReturn(List.of(new FixityResultImpl(3, DIGEST, "SHA", 3, URI.create("urn:sha1:5678"))));
+
+        auditor = new FixityAuditor();
+        setField(auditor, "dataSource", dataSource);
+        setField(auditor, "resourceFactory", resourceFactory);
+        setField(auditor, "fixityService", fixityService);
+        setField(auditor, "enabled", true);
+        setField(auditor, "threads", 2);
+        setField(auditor, "recheckDays", 30L);
+        setField(auditor, "periodMinutes", 60L);
+        setField(auditor, "batchSize", 1);
+        auditor.setUp();
+    }
+
+    @After
+    public void tearDown() {
+        auditor.shutdown();
+    }
+
+    @Test
+    public void testAuditRecordsOutcomes() {
+        auditor.audit();
+
+        assertEquals("SUCCESS", outcome(GOOD_ID));
+        assertEquals("BAD_CHECKSUM", outcome(BAD_ID));
+        assertEquals("NOT_BINARY", outcome(CONTAINER_ID));
+    }
+
+    @Test
+    public void testRecentlyCheckedResourcesSkipped() throws Exception {
+        auditor.audit();
+        auditor.audit();
+
+        verify(fixityService, times(1)).checkFixity(eq(goodBinary), any());
+        verify(fixityService, times(1)).checkFixity(eq(badBinary), any());
+        verify(resourceFactory, times(1)).getResource(CONTAINER_ID);
+    }
+
+    @Test
+    public void testUnreadableBinariesCheckedAgain() throws Exception {
+        auditor.audit();
+        assertEquals("ERROR", outcome(UNREADABLE_ID));
+
+        auditor.audit();
+        assertEquals("ERROR", outcome(UNREADABLE_ID));
+        verify(fixityService, times(2)).checkFixity(eq(unreadableBinary), any());
+        verify(fixityService, times(1)).checkFixity(eq(goodBinary), any());
+    }
+
+    @Test
+    public void testAuditWindow() {
+        assertTrue(auditor.inWindow(LocalTime.NOON));
+
+        setField(auditor, "windowStart", "01:00");
+        setField(auditor, "windowEnd", "05:00");
+        assertTrue(auditor.inWindow(LocalTime.of(1, 0)));
+        assertFalse(auditor.inWindow(LocalTime.of(5, 0)));
+        assertFalse(auditor.inWindow(LocalTime.NOON));
+
+        setField(auditor, "windowStart", "22:00");
+        setField(auditor, "windowEnd", "04:00");
+        assertTrue(auditor.inWindow(LocalTime.of(23, 0)));
+        assertTrue(auditor.inWindow(LocalTime.of(3, 0)));
+        assertFalse(auditor.inWindow(LocalTime.NOON));
+    }
+
+    private String outcome(final FedoraId id) {
+        return jdbcTemplate.queryForObject("SELECT outcome FROM fixity_audit WHERE fedora_id = ?", String.class,
+                id.getFullId());
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.services;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.codec.digest.DigestUtils.md5Hex;
+import static org.apache.commons.codec.digest.DigestUtils.sha1Hex;
+import static org.fcrepo.kernel.api.utils.FixityResult.FixityState.BAD_CHECKSUM;
+import static org.fcrepo.kernel.api.utils.FixityResult.FixityState.BAD_SIZE;
+import static org.fcrepo.kernel.api.utils.FixityResult.FixityState.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import org.fcrepo.kernel.api.identifiers.FedoraId;
+import org.fcrepo.kernel.api.models.Binary;
+import org.fcrepo.kernel.api.utils.FixityResult;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * @author agent
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class FixityServiceImplTest {
+
+    private static final String CONTENT = "some content";
+
+    private static final URI STORED_SHA1 = URI.create("urn:sha1:" + sha1Hex(CONTENT));
+
+    private static final URI MD5 = URI.create("urn:md5:" + md5Hex(CONTENT));
+
+    @Mock
+    private Binary binary;
+
+    private FixityServiceImpl fixityService;
+
+    @Before
+    public void setUp() {
+        fixityService = new FixityServiceImpl();
+        setField(fixityService, "digestCacheSize", 100L);
+        fixityService.setup();
+
+        when(binary.getFedoraId()).thenReturn(FedoraId.create("binary"));
+        when(binary.getLastModifiedDate()).thenReturn(Instant.parse("2020-01-01T00:00:00Z"));
+        when(binary.isProxy()).thenReturn(false);
+        when(binary.isRedirect()).thenReturn(false);
+        when(binary.getContentDigests()).thenReturn(List.of(STORED_SHA1));
+        when(binary.getContent()).thenAnswer(invocation -> new ByteArrayInputStream(CONTENT.getBytes(UTF_8)));
+    }
+
+    @Test
+    public void testStoredDigestAnsweredWithoutReadingContent() {
+        assertEquals(List.of(STORED_SHA1), fixityService.getFixity(binary, List.of("sha")));
+        verify(binary, never()).getContent();
+    }
+
+    @Test
+    public void testMissingDigestComputedOnce() {
+        assertEquals(List.of(STORED_SHA1, MD5), fixityService.getFixity(binary, List.of("sha", "md5")));
+        assertEquals(List.of(MD5), fixityService.getFixity(binary, List.of("md5")));
+        verify(binary, times(1)).getContent();
+    }
+
+    @Test
+    public void testComputedDigestNotReusedAfterChange() {
+        fixityService.getFixity(binary, List.of("md5"));
+        when(binary.getLastModifiedDate()).thenReturn(Instant.parse("2020-01-02T00:00:00Z"));
+        fixityService.getFixity(binary, List.of("md5"));
+        verify(binary, times(2)).getContent();
+    }
+
+    @Test
+    public void testExternalContentAlwaysDigested() {
+        when(binary.isProxy()).thenReturn(true);
+        assertEquals(List.of(STORED_SHA1), fixityService.getFixity(binary, List.of("sha")));
+        assertEquals(List.of(STORED_SHA1), fixityService.getFixity(binary, List.of("sha")));
+        verify(binary, times(2)).getContent();
+    }
+
+    @Test
+    public void testCheckFixitySuccess() {
+        when(binary.getContentSize()).thenReturn((long) CONTENT.length());
+
+        final List<FixityResult> results = List.copyOf(fixityService.checkFixity(binary));
+
+        assertEquals(1, results.size());
+        assertEquals(Set.of(SUCCESS), results.get(0).getStatus());
+        assertEquals(STORED_SHA1, results.get(0).getComputedChecksum());
+        assertEquals(CONTENT.length(), results.get(0).getComputedSize());
+        assertEquals("SHA", results.get(0).getUsedAlgorithm());
+    }
+
+    @Test
+    public void testCheckFixityBadChecksumAndSize() {
+        when(binary.getContentSize()).thenReturn(1L);
+        when(binary.getContentDigests()).thenReturn(List.of(STORED_SHA1, URI.create("urn:md5:0000")));
+
+        final List<FixityResult> results = List.copyOf(fixityService.checkFixity(binary));
+
+        assertEquals(2, results.size());
+        assertEquals(Set.of(BAD_SIZE), results.get(0).getStatus());
+        assertEquals(Set.of(BAD_CHECKSUM, BAD_SIZE), results.get(1).getStatus());
+        assertEquals(MD5, results.get(1).getComputedChecksum());
+        verify(binary, times(1)).getContent();
+    }
+}
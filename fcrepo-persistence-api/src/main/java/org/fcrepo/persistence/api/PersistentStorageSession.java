@@ -17,9 +17,15 @@
  */
 package org.fcrepo.persistence.api;
 
+import static org.fcrepo.kernel.api.utils.ContentRangeUtils.openRange;
+import static org.fcrepo.kernel.api.utils.ContentRangeUtils.skipToRange;
+
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 import org.fcrepo.kernel.api.RdfStream;
 import org.fcrepo.kernel.api.identifiers.FedoraId;
@@ -87,6 +93,48 @@ public interface PersistentStorageSession {
     InputStream getBinaryContent(final FedoraId identifier, final Instant version)
             throws PersistentStorageException;
 
+    /**
+     * Get a range of the persisted binary content for the provided resource. The default implementation reads from
+     * the start of the range in the file given by {@link #getBinaryContentPath}, if there is one, and otherwise skips
+     * to it in the content stream. Implementations which can seek within their content should override it.
+     *
+     * @param identifier identifier for the resource.
+     * @param version instant identifying the version of the resource to read from. If null, then the head version is
+     *        used.
+     * @param offset the position of the first byte of the range.
+     * @param length the number of bytes in the range, or -1 for the remainder of the content.
+     * @return the binary content in the range.
+     * @throws PersistentStorageException  Either a PersistentItemNotFoundException or PersistentSessionClosedException
+     */
+    default InputStream getBinaryContent(final FedoraId identifier, final Instant version, final long offset,
+                                         final long length) throws PersistentStorageException {
+        final Optional<Path> contentPath = getBinaryContentPath(identifier, version);
+        try {
+            if (contentPath.isPresent()) {
+                return openRange(contentPath.get(), offset, length);
+            }
+            return skipToRange(getBinaryContent(identifier, version), offset, length);
+        } catch (final IOException e) {
+            throw new PersistentStorageException("Unable to read range of content for " + identifier.getFullId(), e);
+        }
+    }
+
+    /**
+     * Get the file holding the persisted binary content for the provided resource, if the content is stored as a
+     * plain file which may be read directly. Implementations which cannot expose their content this way need not
+     * override this method.
+     *
+     * @param identifier identifier for the resource.
+     * @param version instant identifying the version of the resource to read from. If null, then the head version is
+     *        used.
+     * @return the path of the content file, or empty if the content can only be read as a stream.
+     * @throws PersistentStorageException  Either a PersistentItemNotFoundException or PersistentSessionClosedException
+     */
+    default Optional<Path> getBinaryContentPath(final FedoraId identifier, final Instant version)
+            throws PersistentStorageException {
+        return Optional.empty();
+    }
+
     /**
      * Returns a list of immutable versions associated with the specified fedora identifier
      *
@@ -22,10 +22,10 @@ import static org.apache.commons.codec.binary.Hex.encodeHexString;
 import static org.apache.commons.lang3.StringUtils.substringAfterLast;
 import static org.fcrepo.kernel.api.utils.ContentDigest.getAlgorithm;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
-import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Collection;
@@ -49,11 +49,13 @@ import org.fcrepo.kernel.api.utils.ContentDigest.DIGEST_ALGORITHM;
  */
 public class MultiDigestInputStreamWrapper {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private final InputStream sourceStream;
 
     private final Map<String, String> algToDigest;
 
-    private final Map<String, DigestInputStream> algToDigestStream;
+    private final Map<String, MessageDigest> algToMessageDigest;
 
     private boolean streamRetrieved;
 
@@ -70,7 +72,7 @@ public class MultiDigestInputStreamWrapper {
             final Collection<DIGEST_ALGORITHM> wantDigests) {
         this.sourceStream = sourceStream;
         algToDigest = new HashMap<>();
-        algToDigestStream = new HashMap<>();
+        algToMessageDigest = new HashMap<>();
 
         if (digests != null) {
             for (final URI digestUri : digests) {
@@ -97,19 +99,14 @@ public class MultiDigestInputStreamWrapper {
      */
     public InputStream getInputStream() {
         streamRetrieved = true;
-        InputStream digestStream = sourceStream;
         for (final String algorithm : algToDigest.keySet()) {
             try {
-                // Progressively wrap the original stream in layers of digest streams
-                digestStream = new DigestInputStream(
-                        digestStream, MessageDigest.getInstance(algorithm));
+                algToMessageDigest.put(algorithm, MessageDigest.getInstance(algorithm));
             } catch (final NoSuchAlgorithmException e) {
                 throw new UnsupportedAlgorithmException("Unsupported digest algorithm: " + algorithm, e);
             }
-
-            algToDigestStream.put(algorithm, (DigestInputStream) digestStream);
         }
-        return digestStream;
+        return new MultiDigestInputStream(sourceStream, algToMessageDigest.values());
     }
 
     /**
@@ -178,7 +175,8 @@ public class MultiDigestInputStreamWrapper {
         if (!streamRetrieved) {
             // Stream not previously consumed, consume it now in order to calculate digests
             try (final InputStream is = getInputStream()) {
-                while (is.read() != -1) {
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                while (is.read(buffer) != -1) {
                 }
             } catch (final IOException e) {
                 throw new RepositoryRuntimeException("Failed to read content stream while calculating digests", e);
@@ -186,9 +184,77 @@ public class MultiDigestInputStreamWrapper {
         }
 
         computedDigests = new HashMap<>();
-        algToDigestStream.forEach((algorithm, digestStream) -> {
-            final String computed = encodeHexString(digestStream.getMessageDigest().digest());
+        algToMessageDigest.forEach((algorithm, messageDigest) -> {
+            final String computed = encodeHexString(messageDigest.digest());
             computedDigests.put(algorithm, computed);
         });
     }
+
+    /**
+     * Updates each of a set of digests with every block of bytes read through it, so that the content is read once
+     * however many digests are wanted.
+     */
+    private static class MultiDigestInputStream extends FilterInputStream {
+
+        private final MessageDigest[] messageDigests;
+
+        private MultiDigestInputStream(final InputStream in, final Collection<MessageDigest> messageDigests) {
+            super(in);
+            this.messageDigests = messageDigests.toArray(new MessageDigest[0]);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = in.read();
+            if (b != -1) {
+                for (final MessageDigest messageDigest : messageDigests) {
+                    messageDigest.update((byte) b);
+                }
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int count = in.read(b, off, len);
+            if (count > 0) {
+                for (final MessageDigest messageDigest : messageDigests) {
+                    messageDigest.update(b, off, count);
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Skipped bytes are read, so that they are included in the digests
+         */
+        @Override
+        public long skip(final long n) throws IOException {
+            final byte[] buffer = new byte[(int) Math.min(BUFFER_SIZE, Math.max(n, 0))];
+            long skipped = 0;
+            while (skipped < n) {
+                final int count = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (count == -1) {
+                    break;
+                }
+                skipped += count;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public synchronized void mark(final int readlimit) {
+            // Not supported, as the digests cannot be rewound
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            throw new IOException("mark/reset not supported");
+        }
+    }
 }
@@ -20,12 +20,17 @@ package org.fcrepo.persistence.common;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static org.apache.commons.codec.digest.DigestUtils.md5Hex;
+import static org.apache.commons.codec.digest.DigestUtils.sha1Hex;
+import static org.apache.commons.codec.digest.DigestUtils.sha512Hex;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.Collection;
+import java.util.Random;
 import org.apache.commons.io.IOUtils;
 import org.fcrepo.kernel.api.exception.InvalidChecksumException;
 import org.fcrepo.kernel.api.exception.RepositoryRuntimeException;
@@ -226,4 +231,30 @@ public class MultiDigestInputStreamWrapperTest {
         final var computed = wrapper.getDigests();
         assertTrue(computed.contains(SHA512_URI));
     }
+
+    @Test
+    public void getDigests_ContentLargerThanBuffer() throws Exception {
+        final byte[] content = new byte[200 * 1024 + 7];
+        new Random(42).nextBytes(content);
+        final var wantDigests = asList(DIGEST_ALGORITHM.MD5, DIGEST_ALGORITHM.SHA1, DIGEST_ALGORITHM.SHA512);
+        final var wrapper = new MultiDigestInputStreamWrapper(new ByteArrayInputStream(content), null, wantDigests);
+
+        final var computed = wrapper.getDigests();
+        assertTrue(computed.contains(URI.create("urn:md5:" + md5Hex(content))));
+        assertTrue(computed.contains(URI.create("urn:sha1:" + sha1Hex(content))));
+        assertTrue(computed.contains(URI.create("urn:sha-512:" + sha512Hex(content))));
+    }
+
+    @Test
+    public void getDigests_SkippedBytesIncluded() throws Exception {
+        final var wantDigests = asList(DIGEST_ALGORITHM.SHA1);
+        final var wrapper = new MultiDigestInputStreamWrapper(contentStream, null, wantDigests);
+
+        try (final InputStream in = wrapper.getInputStream()) {
+            assertEquals(5, in.skip(5));
+            IOUtils.toString(in, UTF_8);
+        }
+
+        assertEquals(SHA1, wrapper.getDigest(DIGEST_ALGORITHM.SHA1));
+    }
 }
@@ -17,6 +17,8 @@
  */
 package org.fcrepo.persistence.ocfl.impl;
 
+import edu.wisc.library.ocfl.api.MutableOcflRepository;
+import org.fcrepo.config.OcflPropsConfig;
 import org.fcrepo.persistence.api.PersistentStorageSession;
 import org.fcrepo.persistence.api.PersistentStorageSessionManager;
 import org.fcrepo.persistence.ocfl.api.FedoraToOcflObjectIndex;
@@ -27,6 +29,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -52,6 +55,12 @@ public class OcflPersistentSessionManager implements PersistentStorageSessionMan
     @Inject
     private FedoraToOcflObjectIndex fedoraOcflIndex;
 
+    @Inject
+    private MutableOcflRepository ocflRepository;
+
+    @Inject
+    private OcflPropsConfig ocflPropsConfig;
+
     /**
      * Default constructor
      */
@@ -70,7 +79,9 @@ public class OcflPersistentSessionManager implements PersistentStorageSessionMan
         return sessionMap.computeIfAbsent(sessionId, key -> new OcflPersistentStorageSession(
                 key,
                 fedoraOcflIndex,
-                objectSessionFactory));
+                objectSessionFactory,
+                ocflRepository,
+                ocflStorageRoot()));
     }
 
     @Override
@@ -81,7 +92,8 @@ public class OcflPersistentSessionManager implements PersistentStorageSessionMan
             synchronized (this) {
                 localSession = this.readOnlySession;
                 if (localSession == null) {
-                    this.readOnlySession = new OcflPersistentStorageSession(fedoraOcflIndex, objectSessionFactory);
+                    this.readOnlySession = new OcflPersistentStorageSession(null, fedoraOcflIndex,
+                            objectSessionFactory, ocflRepository, ocflStorageRoot());
                     localSession = this.readOnlySession;
                 }
             }
@@ -90,4 +102,8 @@ public class OcflPersistentSessionManager implements PersistentStorageSessionMan
         return localSession;
     }
 
+    private Path ocflStorageRoot() {
+        return ocflPropsConfig == null ? null : ocflPropsConfig.getOcflRepoRoot();
+    }
+
 }
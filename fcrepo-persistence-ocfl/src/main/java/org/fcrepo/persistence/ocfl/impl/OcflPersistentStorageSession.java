@@ -17,6 +17,9 @@
  */
 package org.fcrepo.persistence.ocfl.impl;
 
+import edu.wisc.library.ocfl.api.MutableOcflRepository;
+import edu.wisc.library.ocfl.api.exception.NotFoundException;
+import edu.wisc.library.ocfl.api.model.ObjectVersionId;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.riot.RDFDataMgr;
 import org.fcrepo.kernel.api.RdfStream;
@@ -39,12 +42,16 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Phaser;
@@ -55,6 +62,8 @@ import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.apache.jena.graph.NodeFactory.createURI;
 import static org.apache.jena.rdf.model.ModelFactory.createDefaultModel;
+import static org.fcrepo.kernel.api.utils.ContentRangeUtils.openRange;
+import static org.fcrepo.kernel.api.utils.ContentRangeUtils.skipToRange;
 
 /**
  * OCFL Persistent Storage class.
@@ -87,6 +96,10 @@ public class OcflPersistentStorageSession implements PersistentStorageSession {
 
     private final OcflObjectSessionFactory objectSessionFactory;
 
+    private final MutableOcflRepository ocflRepository;
+
+    private final Path ocflStorageRoot;
+
     private enum State {
         COMMIT_NOT_STARTED,
         COMMIT_STARTED,
@@ -108,9 +121,28 @@ public class OcflPersistentStorageSession implements PersistentStorageSession {
     protected OcflPersistentStorageSession(final String sessionId,
                                            final FedoraToOcflObjectIndex fedoraOcflIndex,
                                            final OcflObjectSessionFactory objectSessionFactory) {
+        this(sessionId, fedoraOcflIndex, objectSessionFactory, null, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param sessionId            session id, or null for a read-only session.
+     * @param fedoraOcflIndex      the index
+     * @param objectSessionFactory the session factory
+     * @param ocflRepository       the OCFL repository, used to locate committed content files. May be null.
+     * @param ocflStorageRoot      the root of the filesystem storage of the OCFL repository. May be null.
+     */
+    protected OcflPersistentStorageSession(final String sessionId,
+                                           final FedoraToOcflObjectIndex fedoraOcflIndex,
+                                           final OcflObjectSessionFactory objectSessionFactory,
+                                           final MutableOcflRepository ocflRepository,
+                                           final Path ocflStorageRoot) {
         this.sessionId = sessionId;
         this.fedoraOcflIndex = fedoraOcflIndex;
         this.objectSessionFactory = objectSessionFactory;
+        this.ocflRepository = ocflRepository;
+        this.ocflStorageRoot = ocflStorageRoot;
         this.sessionMap = new ConcurrentHashMap<>();
         this.sessionsToRollback = new HashMap<>();
 
@@ -236,12 +268,89 @@ public class OcflPersistentStorageSession implements PersistentStorageSession {
 
         final var versionNumber = resolveVersionNumber(objSession, identifier, version);
 
+        return readContent(objSession, identifier, versionNumber);
+    }
+
+    private InputStream readContent(final OcflObjectSession objSession, final FedoraId identifier,
+                                    final String versionNumber) throws PersistentItemNotFoundException {
         return objSession.readContent(identifier.getResourceId(), versionNumber)
                 .getContentStream()
                 .orElseThrow(() -> new PersistentItemNotFoundException("No binary content found for resource "
                         + identifier.getFullId()));
     }
 
+    /**
+     * Reads a range of committed binary content by positioning a channel on its file in the OCFL storage root.
+     * Content which is staged, or whose file is moved by a concurrent commit, is skipped to in the object stream.
+     */
+    @Override
+    public InputStream getBinaryContent(final FedoraId identifier, final Instant version, final long offset,
+                                        final long length) throws PersistentStorageException {
+        ensureCommitNotStarted();
+
+        final var mapping = getFedoraOcflMapping(identifier);
+        final var objSession = findOrCreateSession(mapping.getOcflObjectId());
+        final var versionNumber = resolveVersionNumber(objSession, identifier, version);
+
+        try {
+            if (ocflRepository != null && ocflStorageRoot != null && isReadOnly()) {
+                final var contentFile = resolveContentFile(mapping.getOcflObjectId(), objSession, identifier,
+                        versionNumber);
+                if (contentFile.isPresent()) {
+                    try {
+                        return openRange(contentFile.get(), offset, length);
+                    } catch (final NoSuchFileException e) {
+                        LOGGER.debug("Content file of {} was moved, reading it from the object", identifier);
+                    }
+                }
+            }
+            return skipToRange(readContent(objSession, identifier, versionNumber), offset, length);
+        } catch (final IOException e) {
+            throw new PersistentStorageException("Unable to read range of content for " + identifier.getFullId(), e);
+        }
+    }
+
+    /**
+     * Locates the file holding committed binary content in the OCFL storage root. Content read within a
+     * transaction may be staged rather than committed, so it is only read through the object session.
+     */
+    @Override
+    public Optional<Path> getBinaryContentPath(final FedoraId identifier, final Instant version)
+            throws PersistentStorageException {
+        ensureCommitNotStarted();
+
+        if (ocflRepository == null || ocflStorageRoot == null || !isReadOnly()) {
+            return Optional.empty();
+        }
+
+        final var mapping = getFedoraOcflMapping(identifier);
+        final var objSession = findOrCreateSession(mapping.getOcflObjectId());
+        final var versionNumber = resolveVersionNumber(objSession, identifier, version);
+
+        return resolveContentFile(mapping.getOcflObjectId(), objSession, identifier, versionNumber);
+    }
+
+    private Optional<Path> resolveContentFile(final String ocflObjectId, final OcflObjectSession objSession,
+                                              final FedoraId identifier, final String versionNumber) {
+        final var contentPath = objSession.readHeaders(identifier.getResourceId(), versionNumber).getContentPath();
+        if (contentPath == null) {
+            return Optional.empty();
+        }
+        final var objectVersionId = versionNumber == null ? ObjectVersionId.head(ocflObjectId)
+                : ObjectVersionId.version(ocflObjectId, versionNumber);
+        try {
+            final var file = ocflRepository.describeVersion(objectVersionId).getFile(contentPath);
+            if (file == null) {
+                return Optional.empty();
+            }
+            final var path = ocflStorageRoot.resolve(file.getStorageRelativePath());
+            return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+        } catch (final NotFoundException e) {
+            LOGGER.debug("Unable to locate content file of {}: {}", identifier.getFullId(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     @Override
     public synchronized void commit() throws PersistentStorageException {
         ensureCommitNotStarted();
@@ -17,6 +17,7 @@
  */
 package org.fcrepo.persistence.ocfl.impl;
 
+import edu.wisc.library.ocfl.api.MutableOcflRepository;
 import org.apache.commons.io.IOUtils;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
@@ -48,6 +49,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
 
 import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.List;
@@ -67,7 +69,9 @@ import static org.fcrepo.persistence.ocfl.impl.OcflPersistentStorageUtils.create
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItems;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -136,17 +140,21 @@ public class OcflPersistentStorageSessionTest {
 
     private Path stagingDir;
 
+    private Path repoDir;
+
+    private MutableOcflRepository repository;
+
     @Mock
     private ResourceOperation unsupportedOperation;
 
     @Before
     public void setUp() throws Exception {
         stagingDir = tempFolder.newFolder("ocfl-staging").toPath();
-        final var repoDir = tempFolder.newFolder("ocfl-repo").toPath();
+        repoDir = tempFolder.newFolder("ocfl-repo").toPath();
         final var workDir = tempFolder.newFolder("ocfl-work").toPath();
 
         final var objectMapper = OcflPersistentStorageUtils.objectMapper();
-        final var repository = createRepository(repoDir, workDir);
+        repository = createRepository(repoDir, workDir);
         objectSessionFactory = new DefaultOcflObjectSessionFactory(repository, stagingDir,
                 objectMapper, CommitType.NEW_VERSION,
                 "Fedora 6 test", "fedoraAdmin", "info:fedora/fedoraAdmin");
@@ -689,6 +697,56 @@ public class OcflPersistentStorageSessionTest {
         assertEquals(BINARY_CONTENT, result);
     }
 
+    @Test
+    public void getBinaryContentPathOfCommittedContent() throws Exception {
+        mockMappingAndIndex(OCFL_RESOURCE_ID, RESOURCE_ID, ROOT_OBJECT_ID, mapping);
+
+        final var binOperation = mockNonRdfSourceOperation(BINARY_CONTENT, USER_PRINCIPAL, RESOURCE_ID);
+        session.persist(binOperation);
+        session.commit();
+
+        final var readOnlySession = new OcflPersistentStorageSession(null, index, objectSessionFactory,
+                repository, repoDir);
+        final var contentPath = readOnlySession.getBinaryContentPath(RESOURCE_ID, null);
+
+        assertTrue(contentPath.isPresent());
+        assertTrue(contentPath.get().startsWith(repoDir));
+        assertEquals(BINARY_CONTENT, Files.readString(contentPath.get()));
+    }
+
+    @Test
+    public void getBinaryContentRange() throws Exception {
+        mockMappingAndIndex(OCFL_RESOURCE_ID, RESOURCE_ID, ROOT_OBJECT_ID, mapping);
+
+        final var binOperation = mockNonRdfSourceOperation(BINARY_CONTENT, USER_PRINCIPAL, RESOURCE_ID);
+        session.persist(binOperation);
+        session.commit();
+
+        final var readOnlySession = new OcflPersistentStorageSession(null, index, objectSessionFactory,
+                repository, repoDir);
+        assertEquals("test", IOUtils.toString(readOnlySession.getBinaryContent(RESOURCE_ID, null, 5, 4), UTF_8));
+        assertEquals("content",
+                IOUtils.toString(readOnlySession.getBinaryContent(RESOURCE_ID, null, 10, -1), UTF_8));
+
+        // without the repository the range is skipped to in the object stream
+        final var newSession = createSession(index, objectSessionFactory);
+        assertEquals("test", IOUtils.toString(newSession.getBinaryContent(RESOURCE_ID, null, 5, 4), UTF_8));
+    }
+
+    @Test
+    public void getBinaryContentPathInTransaction() throws Exception {
+        mockMappingAndIndex(OCFL_RESOURCE_ID, RESOURCE_ID, ROOT_OBJECT_ID, mapping);
+
+        final var txSession = new OcflPersistentStorageSession(UUID.randomUUID().toString(), index,
+                objectSessionFactory, repository, repoDir);
+        final var binOperation = mockNonRdfSourceOperation(BINARY_CONTENT, USER_PRINCIPAL, RESOURCE_ID);
+        txSession.persist(binOperation);
+
+        // staged content is only read through the object session
+        assertFalse(txSession.getBinaryContentPath(RESOURCE_ID, null).isPresent());
+        assertEquals(BINARY_CONTENT, IOUtils.toString(txSession.getBinaryContent(RESOURCE_ID, null), UTF_8));
+    }
+
     private NonRdfSourceOperation mockNonRdfSourceOperation(final String content,
             final String userPrincipal, final FedoraId resourceId) {
         final var binOperation = mock(NonRdfSourceOperation.class,
@@ -60,6 +60,8 @@ public class Condition {
         CREATED,
         CONTENT_SIZE,
         MIME_TYPE,
+        PARENT,
+        INTERACTION_MODEL,
         RDF_TYPE;
 
         @Override
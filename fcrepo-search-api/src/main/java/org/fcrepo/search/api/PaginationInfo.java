@@ -17,6 +17,7 @@
  */
 package org.fcrepo.search.api;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -29,6 +30,12 @@ public class PaginationInfo {
     private int offset = -1;
     @JsonProperty
     private int maxResults = -1;
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer totalResults;
 
     /**
      * Default constructor
@@ -42,8 +49,34 @@ public class PaginationInfo {
      * @param offset     offset of the first result item
      */
     public PaginationInfo(final int maxResults, final int offset) {
+        this(maxResults, offset, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxResults max results asked off
+     * @param offset     offset of the first result item
+     * @param nextCursor continuation token for the following page, or null if there are no more results
+     */
+    public PaginationInfo(final int maxResults, final int offset, final String nextCursor) {
+        this(maxResults, offset, nextCursor, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxResults   max results asked off
+     * @param offset       offset of the first result item
+     * @param nextCursor   continuation token for the following page, or null if there are no more results
+     * @param totalResults total number of results matching the query, or null if it was not requested
+     */
+    public PaginationInfo(final int maxResults, final int offset, final String nextCursor,
+                          final Integer totalResults) {
         this.maxResults = maxResults;
         this.offset = offset;
+        this.nextCursor = nextCursor;
+        this.totalResults = totalResults;
     }
 
     /**
@@ -61,4 +94,21 @@ public class PaginationInfo {
     public int getOffset() {
         return offset;
     }
+
+    /**
+     * The continuation token which can be passed as the cursor of a subsequent query in order to
+     * retrieve the next page.
+     * @return the cursor or null if the page was not full
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * The total number of results matching the query, irrespective of paging.
+     * @return the total or null if it was not requested
+     */
+    public Integer getTotalResults() {
+        return totalResults;
+    }
 }
@@ -20,6 +20,9 @@ package org.fcrepo.search.api;
 import org.fcrepo.kernel.api.identifiers.FedoraId;
 import org.fcrepo.kernel.api.models.ResourceHeaders;
 
+import java.util.Map;
+import java.util.function.Consumer;
+
 /**
  * An interface defining search index management operations
  *
@@ -55,6 +58,26 @@ public interface SearchIndex {
      */
     SearchResult doSearch(SearchParameters parameters) throws InvalidQueryException;
 
+    /**
+     * Performs a search based on the parameters, passing each result to the consumer as it is read from the index
+     * rather than collecting the results in memory. A negative max results value does not limit the number of
+     * results. The map passed to the consumer may be reused for subsequent results, so it must not be retained.
+     *
+     * @param parameters The parameters defining the search
+     * @param consumer   The consumer of each result
+     */
+    void doSearch(SearchParameters parameters, Consumer<Map<String, Object>> consumer)
+            throws InvalidQueryException;
+
+    /**
+     * Checks that a search can be performed with the parameters, without performing it. This allows parameters to
+     * be rejected before a streamed response is started.
+     *
+     * @param parameters The parameters defining the search
+     * @throws InvalidQueryException if the search cannot be performed with the parameters
+     */
+    void validate(SearchParameters parameters) throws InvalidQueryException;
+
 
     /**
      * Remove all persistent state associated with the index.
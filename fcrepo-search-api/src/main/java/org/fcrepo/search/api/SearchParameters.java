@@ -40,6 +40,12 @@ public class SearchParameters {
 
     private final String order;
 
+    private final String cursor;
+
+    private final boolean includeTotalResultCount;
+
+    private final boolean countOnly;
+
     /**
      * Constructoor
      *
@@ -52,12 +58,51 @@ public class SearchParameters {
      */
     public SearchParameters(final List<Condition.Field> fields, final List<Condition> conditions, final int maxResults,
                             final int offset, final Condition.Field orderBy, final String order) {
+        this(fields, conditions, maxResults, offset, orderBy, order, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param fields     The fields to be returned in the results
+     * @param conditions The conditions
+     * @param maxResults The max results
+     * @param offset     The offset
+     * @param orderBy    The field by which to order the results
+     * @param order      The order: ie "asc" or "desc"
+     * @param cursor     The opaque continuation token returned with a previous page, or null
+     */
+    public SearchParameters(final List<Condition.Field> fields, final List<Condition> conditions, final int maxResults,
+                            final int offset, final Condition.Field orderBy, final String order,
+                            final String cursor) {
+        this(fields, conditions, maxResults, offset, orderBy, order, cursor, false, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param fields                  The fields to be returned in the results
+     * @param conditions              The conditions
+     * @param maxResults              The max results
+     * @param offset                  The offset
+     * @param orderBy                 The field by which to order the results
+     * @param order                   The order: ie "asc" or "desc"
+     * @param cursor                  The opaque continuation token returned with a previous page, or null
+     * @param includeTotalResultCount Whether the total number of matching results should be computed
+     * @param countOnly               Whether only the total number of matching results should be returned
+     */
+    public SearchParameters(final List<Condition.Field> fields, final List<Condition> conditions, final int maxResults,
+                            final int offset, final Condition.Field orderBy, final String order,
+                            final String cursor, final boolean includeTotalResultCount, final boolean countOnly) {
         this.fields = fields;
         this.conditions = conditions;
         this.maxResults = maxResults;
         this.offset = offset;
         this.orderBy = orderBy;
         this.order = order;
+        this.cursor = cursor;
+        this.includeTotalResultCount = includeTotalResultCount;
+        this.countOnly = countOnly;
     }
 
     /**
@@ -114,6 +159,34 @@ public class SearchParameters {
         return order;
     }
 
+    /**
+     * Returns the continuation token identifying the last result of the previous page.
+     * When present, results start immediately after that result rather than at the offset.
+     *
+     * @return the cursor or null if none was specified
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Whether the total number of results matching the conditions should be included in the pagination info.
+     *
+     * @return true if the total should be computed
+     */
+    public boolean isIncludeTotalResultCount() {
+        return includeTotalResultCount;
+    }
+
+    /**
+     * Whether only the total number of results should be computed, without returning any result items.
+     *
+     * @return true if no items should be returned
+     */
+    public boolean isCountOnly() {
+        return countOnly;
+    }
+
     @Override
     public String toString() {
         final MoreObjects.ToStringHelper helper = MoreObjects.toStringHelper(this);
@@ -123,6 +196,9 @@ public class SearchParameters {
         helper.add("fields", fields);
         helper.add("orderBy", orderBy);
         helper.add("order", order);
+        helper.add("cursor", cursor);
+        helper.add("includeTotalResultCount", includeTotalResultCount);
+        helper.add("countOnly", countOnly);
         return helper.toString();
     }
 }
@@ -17,6 +17,8 @@
  */
 package org.fcrepo.search.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.fcrepo.common.db.DbPlatform;
 import org.fcrepo.kernel.api.exception.RepositoryRuntimeException;
 import org.fcrepo.kernel.api.identifiers.FedoraId;
@@ -30,8 +32,10 @@ import org.fcrepo.search.api.SearchParameters;
 import org.fcrepo.search.api.SearchResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
@@ -53,8 +57,12 @@ import java.sql.Types;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static java.time.format.DateTimeFormatter.ISO_INSTANT;
@@ -64,7 +72,9 @@ import static org.fcrepo.common.db.DbPlatform.MYSQL;
 import static org.fcrepo.common.db.DbPlatform.POSTGRESQL;
 import static org.fcrepo.search.api.Condition.Field.CONTENT_SIZE;
 import static org.fcrepo.search.api.Condition.Field.FEDORA_ID;
+import static org.fcrepo.search.api.Condition.Field.INTERACTION_MODEL;
 import static org.fcrepo.search.api.Condition.Field.MIME_TYPE;
+import static org.fcrepo.search.api.Condition.Field.PARENT;
 import static org.fcrepo.search.api.Condition.Field.RDF_TYPE;
 
 
@@ -80,8 +90,8 @@ public class DbSearchIndexImpl implements SearchIndex {
     private static final String SIMPLE_SEARCH_TABLE = "simple_search";
     private static final String DELETE_FROM_INDEX_SQL = "DELETE FROM simple_search WHERE fedora_id = :fedora_id;";
     private static final String UPDATE_INDEX_SQL =
-            "UPDATE simple_search SET modified = :modified, content_size = :content_size, mime_type =:mime_type " +
-                    "WHERE fedora_id = :fedora_id;";
+            "UPDATE simple_search SET modified = :modified, content_size = :content_size, mime_type =:mime_type, " +
+                    "parent = :parent, interaction_model = :interaction_model WHERE fedora_id = :fedora_id;";
     private static final String SELECT_BY_FEDORA_ID =
             "SELECT id FROM simple_search WHERE fedora_id = :fedora_id";
     private static final String FEDORA_ID_PARAM = "fedora_id";
@@ -89,17 +99,31 @@ public class DbSearchIndexImpl implements SearchIndex {
     private static final String CONTENT_SIZE_PARAM = "content_size";
     private static final String MIME_TYPE_PARAM = "mime_type";
     private static final String CREATED_PARAM = "created";
+    private static final String PARENT_PARAM = "parent";
+    private static final String INTERACTION_MODEL_PARAM = "interaction_model";
     private static final String DELETE_RDF_TYPE_ASSOCIATIONS =
             "DELETE FROM search_resource_rdf_type where resource_id = :resource_id";
-    private static final String RDF_TYPE_TABLE = ", (SELECT rrt.resource_id,  group_concat_function as rdf_type " +
-            "from search_resource_rdf_type rrt, " +
-            "search_rdf_type rt  WHERE rrt.rdf_type_id = rt.id group by rrt.resource_id) r, " +
-            "(SELECT rrt.resource_id from search_resource_rdf_type rrt, search_rdf_type rt " +
-            "WHERE rt.rdf_type_uri like :rdf_type_uri and rrt.rdf_type_id = rt.id group by rrt.resource_id) r_filter";
+    private static final String RESOURCE_IDS_PARAM = "resource_ids";
+    private static final String SELECT_RDF_TYPES_FOR_RESOURCES =
+            "SELECT rrt.resource_id, rt.rdf_type_uri FROM search_resource_rdf_type rrt, search_rdf_type rt " +
+                    "WHERE rrt.rdf_type_id = rt.id AND rrt.resource_id IN (:resource_ids) " +
+                    "ORDER BY rrt.resource_id, rt.rdf_type_uri";
+    private static final int RDF_TYPE_LOOKUP_BATCH_SIZE = 1000;
+    private static final String RDF_TYPE_ORDER_EXPRESSION = "(SELECT group_concat_function " +
+            "FROM search_resource_rdf_type rrt, search_rdf_type rt " +
+            "WHERE rrt.rdf_type_id = rt.id AND rrt.resource_id = s.id)";
+    private static final String CURSOR_ID_COLUMN = "cursor_id";
+    private static final String CURSOR_VALUE_COLUMN = "cursor_value";
+    private static final String CURSOR_ID_PARAM = "cursor_id";
+    private static final String CURSOR_VALUE_PARAM = "cursor_value";
+    private static final String LIKE_ESCAPE_CHAR = "!";
+    private static final String LIKE_ESCAPE = " ESCAPE '" + LIKE_ESCAPE_CHAR + "'";
+    private static final Set<Condition.Field> STRING_FIELDS = Set.of(FEDORA_ID, MIME_TYPE, PARENT,
+            INTERACTION_MODEL);
     private static final String DEFAULT_DDL = "sql/default-search-index.sql";
 
     private static final Map<DbPlatform, String> DDL_MAP = Map.of(
-            MYSQL, DEFAULT_DDL,
+            MYSQL, "sql/mysql-search-index.sql",
             H2, DEFAULT_DDL,
             POSTGRESQL, "sql/postgresql-search-index.sql",
             MARIADB, DEFAULT_DDL
@@ -111,7 +135,8 @@ public class DbSearchIndexImpl implements SearchIndex {
     public static final String SEARCH_RDF_TYPE_TABLE = "search_rdf_type";
     public static final String ID_COLUMN = "id";
     private static final String GROUP_CONCAT_FUNCTION = "group_concat_function";
-    private static final String POSTGRES_GROUP_CONCAT_FUNCTION = "STRING_AGG(rt.rdf_type_uri, ',')";
+    private static final String POSTGRES_GROUP_CONCAT_FUNCTION =
+            "STRING_AGG(rt.rdf_type_uri, ',' ORDER BY rt.rdf_type_uri)";
     private static final String DEFAULT_GROUP_CONCAT_FUNCTION = "GROUP_CONCAT(distinct rt.rdf_type_uri " +
             "ORDER BY rt.rdf_type_uri ASC SEPARATOR ',')";
 
@@ -120,12 +145,25 @@ public class DbSearchIndexImpl implements SearchIndex {
 
     private NamedParameterJdbcTemplate jdbcTemplate;
 
+    private NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+    @Value("${fcrepo.search.streaming.fetch.size:1000}")
+    private int streamingFetchSize;
+
     @Inject
     private ResourceFactory resourceFactory;
 
     private DbPlatform dbPlatForm;
 
-    private String rdfTables;
+    private String rdfTypeOrderExpression;
+
+    @Value("${fcrepo.search.count.cache.ttl:30}")
+    private long countCacheTtlSeconds;
+
+    @Value("${fcrepo.search.count.cache.size:1000}")
+    private long countCacheSize;
+
+    private Cache<String, Integer> countCache;
 
     /**
      * Setup database table and connection
@@ -139,9 +177,19 @@ public class DbSearchIndexImpl implements SearchIndex {
                 new ResourceDatabasePopulator(new DefaultResourceLoader().getResource("classpath:" + ddl)),
                 this.dataSource);
         this.jdbcTemplate = getNamedParameterJdbcTemplate();
+        final var streamingTemplate = new JdbcTemplate(this.dataSource);
+        streamingTemplate.setFetchSize(streamingFetchSize);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streamingTemplate);
 
-        this.rdfTables = RDF_TYPE_TABLE.replace(GROUP_CONCAT_FUNCTION,
+        this.rdfTypeOrderExpression = RDF_TYPE_ORDER_EXPRESSION.replace(GROUP_CONCAT_FUNCTION,
                 isPostgres() ? POSTGRES_GROUP_CONCAT_FUNCTION : DEFAULT_GROUP_CONCAT_FUNCTION);
+
+        if (countCacheTtlSeconds > 0) {
+            this.countCache = CacheBuilder.newBuilder()
+                    .expireAfterWrite(countCacheTtlSeconds, TimeUnit.SECONDS)
+                    .maximumSize(countCacheSize)
+                    .build();
+        }
     }
 
     private String lookupDdl() {
@@ -154,7 +202,95 @@ public class DbSearchIndexImpl implements SearchIndex {
 
     @Override
     public SearchResult doSearch(final SearchParameters parameters) throws InvalidQueryException {
-        //translate parameters into a SQL query
+        final var query = buildQuery(parameters, false);
+
+        Integer totalResults = null;
+        if (parameters.isIncludeTotalResultCount() || parameters.isCountOnly()) {
+            final var countKey = parameters.getConditions().stream().map(Condition::toString).sorted()
+                    .collect(Collectors.joining("|"));
+            totalResults = countResults(countKey, "SELECT COUNT(*)" + query.from + query.filterWhere,
+                    query.parameterSource);
+        }
+        if (parameters.isCountOnly()) {
+            return new SearchResult(List.of(),
+                    new PaginationInfo(parameters.getMaxResults(), parameters.getOffset(), null, totalResults));
+        }
+
+        final var lastRow = new Object[2];
+        final var itemsById = new LinkedHashMap<Long, Map<String, Object>>();
+        final RowMapper<Map<String, Object>> rowMapper = (rs, rowNum) -> {
+            final Map<String, Object> map = new HashMap<>();
+            mapFields(rs, query.columnFields, map);
+            lastRow[0] = rs.getLong(CURSOR_ID_COLUMN);
+            if (query.seekable) {
+                lastRow[1] = rs.getObject(CURSOR_VALUE_COLUMN);
+            }
+            itemsById.put((Long) lastRow[0], map);
+            return map;
+        };
+
+        final List<Map<String, Object>> items = jdbcTemplate.query(query.sql, query.parameterSource, rowMapper);
+        if (query.containsRdfTypeField) {
+            addRdfTypes(itemsById);
+        }
+        String nextCursor = null;
+        if (query.seekable && !items.isEmpty() && items.size() == parameters.getMaxResults()) {
+            nextCursor = new SearchCursor(parameters.getOrderBy(), parameters.getOrder(), (Long) lastRow[0],
+                    cursorValueToString(lastRow[1])).encode();
+        }
+        final var pagination = new PaginationInfo(parameters.getMaxResults(), parameters.getOffset(), nextCursor,
+                totalResults);
+        LOGGER.debug("Search query with parameters: {} - {}", query.sql, parameters);
+        return new SearchResult(items, pagination);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void doSearch(final SearchParameters parameters, final Consumer<Map<String, Object>> consumer)
+            throws InvalidQueryException {
+        final var query = buildQuery(parameters, parameters.getMaxResults() < 0);
+        LOGGER.debug("Streaming search query with parameters: {} - {}", query.sql, parameters);
+
+        if (query.containsRdfTypeField) {
+            //rdf types are looked up for a batch of rows at a time, so only a batch is held in memory
+            final var batch = new LinkedHashMap<Long, Map<String, Object>>();
+            streamingJdbcTemplate.query(query.sql, query.parameterSource, rs -> {
+                final Map<String, Object> map = new HashMap<>();
+                mapFields(rs, query.columnFields, map);
+                batch.put(rs.getLong(CURSOR_ID_COLUMN), map);
+                if (batch.size() >= RDF_TYPE_LOOKUP_BATCH_SIZE) {
+                    addRdfTypes(batch);
+                    batch.values().forEach(consumer);
+                    batch.clear();
+                }
+            });
+            addRdfTypes(batch);
+            batch.values().forEach(consumer);
+        } else {
+            //each row is handed off before the next is read, so a single map is reused for every row
+            final Map<String, Object> map = new HashMap<>();
+            streamingJdbcTemplate.query(query.sql, query.parameterSource, rs -> {
+                map.clear();
+                mapFields(rs, query.columnFields, map);
+                consumer.accept(map);
+            });
+        }
+    }
+
+    @Override
+    public void validate(final SearchParameters parameters) throws InvalidQueryException {
+        buildQuery(parameters, parameters.getMaxResults() < 0);
+    }
+
+    /**
+     * Translates search parameters into a SQL query.
+     *
+     * @param parameters the search parameters
+     * @param unbounded  true if the number of results should not be limited
+     * @return the query
+     */
+    private SearchQuery buildQuery(final SearchParameters parameters, final boolean unbounded)
+            throws InvalidQueryException {
         final MapSqlParameterSource parameterSource = new MapSqlParameterSource();
         final var whereClauses = new ArrayList<String>();
         final var conditions = parameters.getConditions();
@@ -164,65 +300,162 @@ public class DbSearchIndexImpl implements SearchIndex {
 
         final var fields = parameters.getFields().stream().map(x -> x.toString()).collect(Collectors.toList());
         final boolean containsRDFTypeField = fields.contains(RDF_TYPE.toString());
-        if (containsRDFTypeField) {
-            whereClauses.add("s.id = r.resource_id");
-            whereClauses.add("r.resource_id = r_filter.resource_id");
+        final var from = " FROM " + SIMPLE_SEARCH_TABLE + " s";
+        final var filterWhere = toWhereClause(whereClauses);
+
+        final var orderBy = parameters.getOrderBy();
+        final var order = parameters.getOrder();
+        final boolean seekable = !orderBy.equals(RDF_TYPE);
+        if (parameters.getCursor() != null) {
+            if (!seekable) {
+                throw new InvalidQueryException("A cursor cannot be used when ordering by " + RDF_TYPE);
+            }
+            if (parameters.getOffset() > 0) {
+                throw new InvalidQueryException("The offset and cursor parameters cannot be combined.");
+            }
+            final var cursor = SearchCursor.decode(parameters.getCursor(), orderBy, order);
+            whereClauses.add(seekClause(cursor, parameterSource));
         }
 
-        final var sql =
-                new StringBuilder("SELECT " + String.join(",", fields) + " FROM " + SIMPLE_SEARCH_TABLE + " s");
+        final var orderByColumn = seekable ? "s." + orderBy : rdfTypeOrderExpression;
+        //rdf types are not stored on the search table, they are looked up for the selected rows afterwards
+        final var columnFields = fields.stream().filter(f -> !f.equals(RDF_TYPE.toString()))
+                .collect(Collectors.toList());
+        final var selectColumns = new ArrayList<>(columnFields);
+        selectColumns.add("s.id AS " + CURSOR_ID_COLUMN);
+        if (seekable) {
+            selectColumns.add(orderByColumn + " AS " + CURSOR_VALUE_COLUMN);
+        }
+        final var sql = new StringBuilder("SELECT " + String.join(",", selectColumns) + from +
+                toWhereClause(whereClauses));
+        //the primary key breaks ties so that the order is total and a cursor identifies a unique position
+        sql.append(" ORDER BY " + orderByColumn + " " + order + ", s.id " + order);
+        if (parameters.getCursor() != null) {
+            sql.append(" LIMIT :limit");
+        } else {
+            sql.append(" LIMIT :limit OFFSET :offset");
+            parameterSource.addValue("offset", parameters.getOffset());
+        }
+        //not every supported platform accepts an OFFSET without a LIMIT, so unbounded uses the largest int limit
+        parameterSource.addValue("limit", unbounded ? Integer.MAX_VALUE : parameters.getMaxResults());
 
-        if (containsRDFTypeField) {
-            sql.append(rdfTables);
-            var rdfTypeUriParamValue = "*";
-            for (Condition condition: conditions) {
-                if (condition.getField().equals(RDF_TYPE)) {
-                    rdfTypeUriParamValue = condition.getObject();
-                    break;
-                }
+        return new SearchQuery(sql.toString(), from, filterWhere, parameterSource, columnFields,
+                containsRDFTypeField, seekable);
+    }
+
+    private void mapFields(final ResultSet rs, final List<String> columnFields, final Map<String, Object> map)
+            throws SQLException {
+        for (String f : columnFields) {
+            var value = rs.getObject(f);
+            if (value instanceof Timestamp) {
+                //format as iso instant if timestamp
+                value = ISO_INSTANT.format(Instant.ofEpochMilli(((Timestamp) value).getTime()));
             }
-            parameterSource.addValue(RDF_TYPE_URI_PARAM, convertToSqlLikeWildcard(rdfTypeUriParamValue));
+            map.put(f, value);
         }
+    }
 
-        if (!whereClauses.isEmpty()) {
-            sql.append(" WHERE ");
-            for (var it = whereClauses.iterator(); it.hasNext(); ) {
-                sql.append(it.next());
-                if (it.hasNext()) {
-                    sql.append(" AND ");
-                }
+    /**
+     * Looks up the rdf types of the resources on a result page only, rather than aggregating the types of all
+     * resources in the index before the page is selected.
+     */
+    private void addRdfTypes(final Map<Long, Map<String, Object>> itemsById) {
+        if (itemsById.isEmpty()) {
+            return;
+        }
+        final var typesById = new HashMap<Long, List<String>>();
+        final var ids = new ArrayList<>(itemsById.keySet());
+        for (int i = 0; i < ids.size(); i += RDF_TYPE_LOOKUP_BATCH_SIZE) {
+            final var params = new MapSqlParameterSource();
+            params.addValue(RESOURCE_IDS_PARAM, ids.subList(i, Math.min(i + RDF_TYPE_LOOKUP_BATCH_SIZE, ids.size())));
+            jdbcTemplate.query(SELECT_RDF_TYPES_FOR_RESOURCES, params, rs -> {
+                typesById.computeIfAbsent(rs.getLong(RESOURCE_ID_PARAM), k -> new ArrayList<>())
+                        .add(rs.getString(RDF_TYPE_URI_PARAM));
+            });
+        }
+        itemsById.forEach((id, item) -> {
+            final var types = typesById.getOrDefault(id, List.of());
+            item.put(RDF_TYPE.toString(), types.toArray(new String[0]));
+        });
+    }
+
+    private String toWhereClause(final List<String> whereClauses) {
+        if (whereClauses.isEmpty()) {
+            return "";
+        }
+        return " WHERE " + String.join(" AND ", whereClauses);
+    }
+
+    /**
+     * Counts the results matching a query. Counts are cached for a short period keyed by the normalized
+     * conditions so that repeated polling for the same count does not re-run the query.
+     */
+    private int countResults(final String countKey, final String countSql,
+                             final MapSqlParameterSource parameterSource) {
+        if (countCache != null) {
+            final var cached = countCache.getIfPresent(countKey);
+            if (cached != null) {
+                return cached;
             }
         }
-        sql.append(" ORDER BY " + parameters.getOrderBy() + " " + parameters.getOrder());
-        sql.append(" LIMIT :limit OFFSET :offset");
+        LOGGER.debug("Search count query: {}", countSql);
+        final Integer count = jdbcTemplate.queryForObject(countSql, parameterSource, Integer.class);
+        final int total = count == null ? 0 : count;
+        if (countCache != null) {
+            countCache.put(countKey, total);
+        }
+        return total;
+    }
+
+    /**
+     * Builds a predicate selecting the rows which follow the cursor position in the requested ordering. The
+     * predicate compares the indexed order by column directly so that the database can seek to the position
+     * rather than scanning all preceding rows as an OFFSET would.
+     */
+    private String seekClause(final SearchCursor cursor, final MapSqlParameterSource parameterSource)
+            throws InvalidQueryException {
+        final var column = "s." + cursor.getOrderBy();
+        final var ascending = cursor.getOrder().equals("asc");
+        final var comparator = ascending ? ">" : "<";
+        //postgresql sorts nulls as larger than any value, the other supported platforms as smaller.
+        final var nullsAfterValues = isPostgres() == ascending;
+        parameterSource.addValue(CURSOR_ID_PARAM, cursor.getId());
+        final var idClause = "s.id " + comparator + " :" + CURSOR_ID_PARAM;
+        if (cursor.getValue() == null) {
+            return "((" + column + " IS NULL AND " + idClause + ")" +
+                    (nullsAfterValues ? "" : " OR " + column + " IS NOT NULL") + ")";
+        }
 
-        parameterSource.addValue("limit", parameters.getMaxResults());
-        parameterSource.addValue("offset", parameters.getOffset());
+        addCursorValue(cursor, parameterSource);
+        return "(" + column + " " + comparator + " :" + CURSOR_VALUE_PARAM +
+                " OR (" + column + " = :" + CURSOR_VALUE_PARAM + " AND " + idClause + ")" +
+                (nullsAfterValues ? " OR " + column + " IS NULL" : "") + ")";
+    }
 
-        final var rowMapper = new RowMapper<Map<String, Object>>() {
-            @Override
-            public Map<String, Object> mapRow(final ResultSet rs, final int rowNum) throws SQLException {
-                final Map<String, Object> map = new HashMap<>();
-                for (String f : fields) {
-                    final var fieldStr = f.toString();
-                    var value = rs.getObject(fieldStr);
-                    if (value instanceof Timestamp) {
-                        //format as iso instant if timestamp
-                        value = ISO_INSTANT.format(Instant.ofEpochMilli(((Timestamp) value).getTime()));
-                    } else if (f.equals(RDF_TYPE.toString())) {
-                        //convert the comma-separate string to an array for rdf_type
-                        value = value.toString().split(",");
-                    }
-                    map.put(fieldStr, value);
-                }
-                return map;
+    private void addCursorValue(final SearchCursor cursor, final MapSqlParameterSource parameterSource)
+            throws InvalidQueryException {
+        final var field = cursor.getOrderBy();
+        try {
+            if (field.equals(Condition.Field.CREATED) || field.equals(Condition.Field.MODIFIED)) {
+                parameterSource.addValue(CURSOR_VALUE_PARAM, Timestamp.from(Instant.parse(cursor.getValue())),
+                        Types.TIMESTAMP);
+            } else if (field.equals(CONTENT_SIZE)) {
+                parameterSource.addValue(CURSOR_VALUE_PARAM, Long.parseLong(cursor.getValue()), Types.BIGINT);
+            } else {
+                parameterSource.addValue(CURSOR_VALUE_PARAM, cursor.getValue());
             }
-        };
+        } catch (final Exception ex) {
+            throw new InvalidQueryException("The cursor contains an invalid value: " + ex.getMessage());
+        }
+    }
 
-        final List<Map<String, Object>> items = jdbcTemplate.query(sql.toString(), parameterSource, rowMapper);
-        final var pagination = new PaginationInfo(parameters.getMaxResults(), parameters.getOffset());
-        LOGGER.debug("Search query with parameters: {} - {}", sql, parameters);
-        return new SearchResult(items, pagination);
+    private String cursorValueToString(final Object value) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof Timestamp) {
+            return ((Timestamp) value).toInstant().toString();
+        }
+        return value.toString();
     }
 
     private void addWhereClause(final int paramCount, final MapSqlParameterSource parameterSource,
@@ -232,13 +465,14 @@ public class DbSearchIndexImpl implements SearchIndex {
         final var operation = condition.getOperator();
         var object = condition.getObject();
         final var paramName = "param" + paramCount;
-        if ((field.equals(FEDORA_ID) || field.equals(MIME_TYPE)) &&
-                condition.getOperator().equals(Condition.Operator.EQ)) {
+        if (STRING_FIELDS.contains(field) && condition.getOperator().equals(Condition.Operator.EQ)) {
             if (!object.equals("*")) {
                 final String whereClause;
                 if (object.contains("*")) {
+                    //with only a trailing wildcard this is a prefix match which the database can satisfy
+                    //with a range scan of the column's index.
                     object = convertToSqlLikeWildcard(object);
-                    whereClause = field + " like :" + paramName;
+                    whereClause = field + " like :" + paramName + LIKE_ESCAPE;
                 } else {
                     whereClause = field + " = :" + paramName;
                 }
@@ -264,14 +498,31 @@ public class DbSearchIndexImpl implements SearchIndex {
                 throw new InvalidQueryException(ex.getMessage());
             }
         } else if (field.equals(RDF_TYPE) && condition.getOperator().equals(Condition.Operator.EQ) ) {
-           //allowed but no where clause added here.
+            //a semi-join lets the database probe the resource's types by primary key rather than joining
+            //against the types of every resource in the index.
+            if (!object.equals("*")) {
+                final var comparison = object.contains("*") ?
+                        "like :" + paramName + LIKE_ESCAPE : "= :" + paramName;
+                whereClauses.add("EXISTS (SELECT 1 FROM " + SEARCH_RESOURCE_RDF_TYPE_TABLE + " rrt, " +
+                        SEARCH_RDF_TYPE_TABLE + " rt WHERE rrt.resource_id = s.id AND rrt.rdf_type_id = rt.id " +
+                        "AND rt.rdf_type_uri " + comparison + ")");
+                parameterSource.addValue(paramName, object.contains("*") ? convertToSqlLikeWildcard(object) :
+                        object);
+            }
         } else {
             throw new InvalidQueryException("Condition not supported: \"" + condition + "\"");
         }
     }
 
+    /**
+     * Converts a condition wildcard expression into a LIKE pattern, escaping characters which would otherwise
+     * be interpreted as LIKE wildcards.
+     */
     private String convertToSqlLikeWildcard(final String value) {
-        return value.replace("*", "%");
+        return value.replace(LIKE_ESCAPE_CHAR, LIKE_ESCAPE_CHAR + LIKE_ESCAPE_CHAR)
+                .replace("%", LIKE_ESCAPE_CHAR + "%")
+                .replace("_", LIKE_ESCAPE_CHAR + "_")
+                .replace("*", "%");
     }
 
     @Override
@@ -304,6 +555,9 @@ public class DbSearchIndexImpl implements SearchIndex {
             params.addValue(MODIFIED_PARAM, new Timestamp(resourceHeaders.getLastModifiedDate().toEpochMilli()));
             params.addValue(MIME_TYPE_PARAM, resourceHeaders.getMimeType());
             params.addValue(CONTENT_SIZE_PARAM, resourceHeaders.getContentSize());
+            params.addValue(PARENT_PARAM, resourceHeaders.getParent() == null ? null :
+                    resourceHeaders.getParent().getFullId());
+            params.addValue(INTERACTION_MODEL_PARAM, resourceHeaders.getInteractionModel());
             final var exists = result.size() > 0;
             final Long resourcePrimaryKey;
             if (exists) {
@@ -423,4 +677,28 @@ public class DbSearchIndexImpl implements SearchIndex {
         return "TRUNCATE TABLE " + tableName + (addCascade ? " CASCADE" : "") + ";";
     }
 
+    /**
+     * A translated search query along with what is needed to map its results.
+     */
+    private static class SearchQuery {
+        private final String sql;
+        private final String from;
+        private final String filterWhere;
+        private final MapSqlParameterSource parameterSource;
+        private final List<String> columnFields;
+        private final boolean containsRdfTypeField;
+        private final boolean seekable;
+
+        private SearchQuery(final String sql, final String from, final String filterWhere,
+                            final MapSqlParameterSource parameterSource, final List<String> columnFields,
+                            final boolean containsRdfTypeField, final boolean seekable) {
+            this.sql = sql;
+            this.from = from;
+            this.filterWhere = filterWhere;
+            this.parameterSource = parameterSource;
+            this.columnFields = columnFields;
+            this.containsRdfTypeField = containsRdfTypeField;
+            this.seekable = seekable;
+        }
+    }
 }
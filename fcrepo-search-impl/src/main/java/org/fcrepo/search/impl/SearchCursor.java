@@ -0,0 +1,135 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.search.impl;
+
+import org.fcrepo.search.api.Condition;
+import org.fcrepo.search.api.InvalidQueryException;
+
+import java.util.Base64;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * An opaque continuation token identifying the last row of a search result page by its
+ * (order by value, id) pair, used to seek directly to the following page rather than
+ * scanning and discarding all preceding rows.
+ *
+ * @author agent
+ */
+public class SearchCursor {
+
+    private static final String SEPARATOR = "|";
+    private static final String NULL_MARKER = "n";
+    private static final String VALUE_MARKER = "v";
+
+    private final Condition.Field orderBy;
+    private final String order;
+    private final long id;
+    private final String value;
+
+    /**
+     * Constructor
+     *
+     * @param orderBy The field by which the results are ordered
+     * @param order   The order direction: ie "asc" or "desc"
+     * @param id      The primary key of the last row of the page
+     * @param value   The string form of the order by value of the last row of the page, may be null
+     */
+    public SearchCursor(final Condition.Field orderBy, final String order, final long id, final String value) {
+        this.orderBy = orderBy;
+        this.order = order.toLowerCase();
+        this.id = id;
+        this.value = value;
+    }
+
+    /**
+     * The field by which the results are ordered
+     * @return the order by field
+     */
+    public Condition.Field getOrderBy() {
+        return orderBy;
+    }
+
+    /**
+     * The order direction
+     * @return "asc" or "desc"
+     */
+    public String getOrder() {
+        return order;
+    }
+
+    /**
+     * The primary key of the last row of the previous page
+     * @return the id
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * The order by value of the last row of the previous page
+     * @return the value or null if the row had no value for the order by field
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Serializes the cursor into a url safe token.
+     * @return the token
+     */
+    public String encode() {
+        final var token = String.join(SEPARATOR, orderBy.toString(), order, Long.toString(id),
+                value == null ? NULL_MARKER : VALUE_MARKER + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(UTF_8));
+    }
+
+    /**
+     * Parses a token produced by {@link #encode()}, verifying that it was issued for the same ordering.
+     *
+     * @param token   The token
+     * @param orderBy The field by which the current query is ordered
+     * @param order   The order direction of the current query
+     * @return the cursor
+     * @throws InvalidQueryException if the token is malformed or was issued for a different ordering
+     */
+    public static SearchCursor decode(final String token, final Condition.Field orderBy, final String order)
+            throws InvalidQueryException {
+        final String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), UTF_8).split("\\|", 4);
+        } catch (final IllegalArgumentException ex) {
+            throw new InvalidQueryException("The cursor \"" + token + "\" is invalid.");
+        }
+        if (parts.length != 4 || parts[3].isEmpty()) {
+            throw new InvalidQueryException("The cursor \"" + token + "\" is invalid.");
+        }
+        if (!parts[0].equals(orderBy.toString()) || !parts[1].equalsIgnoreCase(order)) {
+            throw new InvalidQueryException("The cursor \"" + token + "\" was issued for a different order_by " +
+                    "or order value.");
+        }
+        final long id;
+        try {
+            id = Long.parseLong(parts[2]);
+        } catch (final NumberFormatException ex) {
+            throw new InvalidQueryException("The cursor \"" + token + "\" is invalid.");
+        }
+        final var value = parts[3].startsWith(VALUE_MARKER) ? parts[3].substring(1) : null;
+        return new SearchCursor(orderBy, order, id, value);
+    }
+}
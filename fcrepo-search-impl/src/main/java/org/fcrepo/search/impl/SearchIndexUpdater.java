@@ -24,6 +24,7 @@ import com.google.common.eventbus.AllowConcurrentEvents;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
 import org.fcrepo.kernel.api.models.ResourceFactory;
+import org.fcrepo.kernel.api.observer.AsynchronousSubscriber;
 import org.fcrepo.kernel.api.observer.Event;
 import org.fcrepo.kernel.api.observer.EventType;
 import org.fcrepo.persistence.api.PersistentStorageSessionManager;
@@ -49,6 +50,7 @@ import static org.fcrepo.kernel.api.observer.EventType.RESOURCE_MODIFICATION;
  * @author dbernstein
  */
 @Component
+@AsynchronousSubscriber
 public class SearchIndexUpdater {
 
     @Inject
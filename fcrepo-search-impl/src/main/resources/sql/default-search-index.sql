@@ -6,9 +6,23 @@ CREATE TABLE IF NOT EXISTS simple_search (
     modified timestamp NOT NULL,
     content_size bigint DEFAULT NULL,
     mime_type varchar(255) DEFAULT NULL,
+    parent varchar(503) DEFAULT NULL,
+    interaction_model varchar(255) DEFAULT NULL,
     UNIQUE KEY fedora_id (fedora_id)
 );
 
+-- Add columns introduced after the initial schema, existing rows are populated by a reindex.
+ALTER TABLE simple_search ADD COLUMN IF NOT EXISTS parent varchar(503) DEFAULT NULL;
+ALTER TABLE simple_search ADD COLUMN IF NOT EXISTS interaction_model varchar(255) DEFAULT NULL;
+
+-- Create an index to speed searches for the children of a container modified within a range.
+CREATE INDEX IF NOT EXISTS simple_search_parent_idx
+    ON simple_search (parent, modified);
+
+-- Create an index to speed searches for resources by interaction model and mime type.
+CREATE INDEX IF NOT EXISTS simple_search_interaction_model_idx
+    ON simple_search (interaction_model, mime_type);
+
 CREATE TABLE IF NOT EXISTS search_rdf_type (
     id bigint PRIMARY KEY AUTO_INCREMENT,
     rdf_type_uri varchar(255) NOT NULL,
@@ -22,6 +36,3 @@ CREATE TABLE IF NOT EXISTS search_resource_rdf_type (
     FOREIGN KEY (resource_id) REFERENCES simple_search(id) ON DELETE CASCADE,
     FOREIGN KEY (rdf_type_id) REFERENCES search_rdf_type(id)  ON DELETE CASCADE
 );
-
-
-
@@ -0,0 +1,61 @@
+-- DDL for setting up search index tables in MySQL 8
+-- MySQL 8 will only supports varchar up to 503 characters
+
+-- simple search
+CREATE TABLE IF NOT EXISTS simple_search (
+    id bigint PRIMARY KEY AUTO_INCREMENT,
+    fedora_id  varchar(503) NOT NULL,
+    created timestamp NOT NULL,
+    modified timestamp NOT NULL,
+    content_size bigint DEFAULT NULL,
+    mime_type varchar(255) DEFAULT NULL,
+    parent varchar(503) DEFAULT NULL,
+    interaction_model varchar(255) DEFAULT NULL,
+    UNIQUE KEY fedora_id (fedora_id)
+);
+
+-- Add columns introduced after the initial schema, existing rows are populated by a reindex.
+SET @exist := (SELECT COUNT(*) FROM information_schema.columns
+    WHERE table_name = 'simple_search' AND column_name = 'parent' AND table_schema = database());
+SET @sqlstmt := IF (@exist > 0, 'SELECT ''INFO: Column already exists.''',
+    'ALTER TABLE simple_search ADD COLUMN parent varchar(503) DEFAULT NULL');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+
+SET @exist := (SELECT COUNT(*) FROM information_schema.columns
+    WHERE table_name = 'simple_search' AND column_name = 'interaction_model' AND table_schema = database());
+SET @sqlstmt := IF (@exist > 0, 'SELECT ''INFO: Column already exists.''',
+    'ALTER TABLE simple_search ADD COLUMN interaction_model varchar(255) DEFAULT NULL');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+
+-- Create an index to speed searches for the children of a container modified within a range.
+SET @exist := (SELECT COUNT(*) FROM information_schema.statistics
+    WHERE table_name = 'simple_search' AND index_name = 'simple_search_parent_idx' AND table_schema = database());
+SET @sqlstmt := IF (@exist > 0, 'SELECT ''INFO: Index already exists.''',
+    'CREATE INDEX simple_search_parent_idx ON simple_search (parent, modified)');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+
+-- Create an index to speed searches for resources by interaction model and mime type.
+SET @exist := (SELECT COUNT(*) FROM information_schema.statistics
+    WHERE table_name = 'simple_search' AND index_name = 'simple_search_interaction_model_idx'
+    AND table_schema = database());
+SET @sqlstmt := IF (@exist > 0, 'SELECT ''INFO: Index already exists.''',
+    'CREATE INDEX simple_search_interaction_model_idx ON simple_search (interaction_model, mime_type)');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+
+CREATE TABLE IF NOT EXISTS search_rdf_type (
+    id bigint PRIMARY KEY AUTO_INCREMENT,
+    rdf_type_uri varchar(255) NOT NULL,
+    UNIQUE KEY rdf_type_uri (rdf_type_uri)
+);
+
+CREATE TABLE IF NOT EXISTS search_resource_rdf_type (
+    resource_id bigint NOT NULL,
+    rdf_type_id bigint NOT NULL,
+    PRIMARY KEY(resource_id, rdf_type_id),
+    FOREIGN KEY (resource_id) REFERENCES simple_search(id) ON DELETE CASCADE,
+    FOREIGN KEY (rdf_type_id) REFERENCES search_rdf_type(id)  ON DELETE CASCADE
+);
@@ -0,0 +1,67 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.search.impl;
+
+import org.fcrepo.search.api.InvalidQueryException;
+import org.junit.Test;
+
+import static org.fcrepo.search.api.Condition.Field.FEDORA_ID;
+import static org.fcrepo.search.api.Condition.Field.MIME_TYPE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author agent
+ */
+public class SearchCursorTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final var token = new SearchCursor(FEDORA_ID, "asc", 42L, "info:fedora/a|b").encode();
+        final var cursor = SearchCursor.decode(token, FEDORA_ID, "ASC");
+        assertEquals(FEDORA_ID, cursor.getOrderBy());
+        assertEquals("asc", cursor.getOrder());
+        assertEquals(42L, cursor.getId());
+        assertEquals("info:fedora/a|b", cursor.getValue());
+    }
+
+    @Test
+    public void testRoundTripNullValue() throws Exception {
+        final var token = new SearchCursor(MIME_TYPE, "desc", 7L, null).encode();
+        final var cursor = SearchCursor.decode(token, MIME_TYPE, "desc");
+        assertEquals(7L, cursor.getId());
+        assertNull(cursor.getValue());
+    }
+
+    @Test(expected = InvalidQueryException.class)
+    public void testDifferentOrderBy() throws Exception {
+        final var token = new SearchCursor(FEDORA_ID, "asc", 1L, "info:fedora/a").encode();
+        SearchCursor.decode(token, MIME_TYPE, "asc");
+    }
+
+    @Test(expected = InvalidQueryException.class)
+    public void testDifferentOrder() throws Exception {
+        final var token = new SearchCursor(FEDORA_ID, "asc", 1L, "info:fedora/a").encode();
+        SearchCursor.decode(token, FEDORA_ID, "desc");
+    }
+
+    @Test(expected = InvalidQueryException.class)
+    public void testMalformedToken() throws Exception {
+        SearchCursor.decode("not a cursor!", FEDORA_ID, "asc");
+    }
+}